@@ -0,0 +1,3 @@
+#Log4j garbage-free mode and async queue discard of the prod profile (log4j2-prod.xml), read by Log4j before Spring starts
+if [ "${ENV}" = "prod" ]; then LOG4J_OPTS="-Dlog4j2.enableThreadlocals=true -Dlog4j2.enableDirectEncoders=true -Dlog4j2.asyncQueueFullPolicy=Discard -Dlog4j2.discardThreshold=DEBUG"; fi
+cd /home/agent/cds && java -javaagent:/home/agent/skywalking-agent.jar ${LOG4J_OPTS} -XX:SharedArchiveFile=app-cds.jsa -cp "app.jar:$(cat classpath)" com.vinod.microservices.best.practices.SpringbootMicroserviceBestPracticesApplication --spring.profiles.active=${ENV},fast-startup
@@ -1,2 +1,4 @@
-java -javaagent:/home/agent/skywalking-agent.jar  -jar  /home/agent/app.jar
+#Log4j garbage-free mode and async queue discard of the prod profile (log4j2-prod.xml), read by Log4j before Spring starts
+if [ "${ENV}" = "prod" ]; then LOG4J_OPTS="-Dlog4j2.enableThreadlocals=true -Dlog4j2.enableDirectEncoders=true -Dlog4j2.asyncQueueFullPolicy=Discard -Dlog4j2.discardThreshold=DEBUG"; fi
+java -javaagent:/home/agent/skywalking-agent.jar ${LOG4J_OPTS} -jar  /home/agent/app.jar
 
@@ -0,0 +1,105 @@
+package com.vinod.microservices.best.practices.benchmark;
+
+import com.vinod.microservices.best.practices.validation.AddressIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AddressIndex lookups over a generated reference file of localities against a HashSet of the normalized localities.
+ * The time to read the file into the index and the footprint of both are printed at setup, mapped bytes of the index
+ * and heap growth of the HashSet.
+ *
+ * mvn -P benchmark test-compile exec:exec -Djmh.include=AddressIndexBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-XX:MaxDirectMemorySize=2g"})
+public class AddressIndexBenchmark {
+
+    private static final String[] DISTRICTS = {"Ahmedabad", "Gandhinagar", "Pune", "Mumbai Suburban", "Thane", "Nagpur", "Surat", "Vadodara"};
+    private static final int LOOKUPS = 1024;
+
+    @Param({"100000", "5000000"})
+    private int localities;
+
+    private AddressIndex addressIndex;
+    private Set<String> hashSet;
+    private String[] addresses;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        List<String> reference = new ArrayList<>(localities);
+        for (int i = 0; i < localities; i++) {
+            reference.add(locality(i));
+        }
+        Path file = Files.createTempFile("address-reference", ".txt");
+        try {
+            Files.write(file, reference, StandardCharsets.UTF_8);
+            long start = System.nanoTime();
+            try (InputStream inputStream = Files.newInputStream(file)) {
+                addressIndex = AddressIndex.read(inputStream);
+            }
+            System.out.printf("%nlocalities: %d, AddressIndex read ms: %d%n", localities, (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            Files.delete(file);
+        }
+
+        long heapBefore = usedHeap();
+        hashSet = new HashSet<>(reference.size() * 2);
+        for (String locality : reference) {
+            hashSet.add(AddressIndex.normalize(locality));
+        }
+        long hashSetBytes = usedHeap() - heapBefore;
+        System.out.printf("localities: %d, AddressIndex mapped bytes: %d, HashSet heap bytes: %d%n",
+                addressIndex.size(), addressIndex.offHeapBytes(), hashSetBytes);
+
+        addresses = new String[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            int ordinal = ThreadLocalRandom.current().nextInt(localities);
+            addresses[i] = i % 2 == 0 ? locality(ordinal).toUpperCase() : locality(ordinal) + " East";
+        }
+    }
+
+    @Benchmark
+    public boolean addressIndexContains() {
+        return addressIndex.contains(nextAddress());
+    }
+
+    @Benchmark
+    public boolean hashSetContains() {
+        return hashSet.contains(AddressIndex.normalize(nextAddress()));
+    }
+
+    private String nextAddress() {
+        return addresses[next++ & (LOOKUPS - 1)];
+    }
+
+    private static String locality(int i) {
+        return "Sector " + i + ", " + DISTRICTS[i % DISTRICTS.length];
+    }
+
+    private static long usedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
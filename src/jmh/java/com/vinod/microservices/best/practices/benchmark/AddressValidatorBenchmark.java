@@ -0,0 +1,30 @@
+package com.vinod.microservices.best.practices.benchmark;
+
+import com.vinod.microservices.best.practices.validation.AddressValidator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AddressValidator.isValid for a known address, an unknown address and null.
+ *
+ * mvn -P benchmark test-compile exec:exec -Djmh.include=AddressValidatorBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AddressValidatorBenchmark {
+
+    @Param({"Mumbai", "Gandhinagar, #54"})
+    private String address;
+
+    private final AddressValidator addressValidator = new AddressValidator();
+
+    @Benchmark
+    public boolean isValid() {
+        return addressValidator.isValid(address, null);
+    }
+}
@@ -0,0 +1,85 @@
+package com.vinod.microservices.best.practices.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result with a baseline result of the same benchmarks, exits with 1 when a benchmark
+ * is worse than the baseline by more than the threshold percentage.
+ *
+ * mvn -P benchmark test-compile exec:exec@compare -Djmh.baseline=jmh-baseline.json
+ */
+public final class BenchmarkComparison {
+
+    private static final double DEFAULT_THRESHOLD = 10;
+
+    private BenchmarkComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkComparison <baseline.json> <result.json> [threshold %]");
+            System.exit(2);
+        }
+        File baselineFile = new File(args[0]);
+        if (!baselineFile.isFile()) {
+            System.err.println("Baseline " + baselineFile + " not found, copy a result file there to create it.");
+            System.exit(2);
+        }
+        Map<String, JsonNode> baseline = read(baselineFile);
+        Map<String, JsonNode> result = read(new File(args[1]));
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD;
+
+        int regressions = 0;
+        System.out.printf("%-70s %14s %14s %9s  %s%n", "Benchmark", "Baseline", "Result", "Change", "Unit");
+        for (Map.Entry<String, JsonNode> entry : result.entrySet()) {
+            JsonNode metric = entry.getValue().get("primaryMetric");
+            double score = metric.get("score").asDouble();
+            JsonNode baselineRun = baseline.get(entry.getKey());
+            if (null == baselineRun) {
+                System.out.printf("%-70s %14s %14.3f %9s  %s NEW%n", entry.getKey(), "-", score, "-", metric.get("scoreUnit").asText());
+                continue;
+            }
+            double baselineScore = baselineRun.get("primaryMetric").get("score").asDouble();
+            double change = (score - baselineScore) / baselineScore * 100;
+            //Throughput is better when higher, the time modes when lower.
+            double worse = "thrpt".equals(entry.getValue().get("mode").asText()) ? -change : change;
+            String status = worse > threshold ? "REGRESSION" : worse < -threshold ? "IMPROVED" : "";
+            if (worse > threshold) {
+                regressions++;
+            }
+            System.out.printf("%-70s %14.3f %14.3f %+8.1f%%  %s %s%n", entry.getKey(), baselineScore, score, change, metric.get("scoreUnit").asText(), status);
+        }
+        System.out.printf("%d benchmarks, %d regressions above %.1f%%%n", result.size(), regressions, threshold);
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Runs of a JMH JSON result by benchmark name and parameters.
+     */
+    private static Map<String, JsonNode> read(File file) throws IOException {
+        Map<String, JsonNode> runs = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            Map<String, String> params = new TreeMap<>();
+            JsonNode paramsNode = run.get("params");
+            if (null != paramsNode) {
+                for (Iterator<Map.Entry<String, JsonNode>> fields = paramsNode.fields(); fields.hasNext(); ) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    params.put(field.getKey(), field.getValue().asText());
+                }
+            }
+            String benchmark = run.get("benchmark").asText().replace(BenchmarkComparison.class.getPackage().getName() + ".", "");
+            runs.put(benchmark + (params.isEmpty() ? "" : params.toString()), run);
+        }
+        return runs;
+    }
+}
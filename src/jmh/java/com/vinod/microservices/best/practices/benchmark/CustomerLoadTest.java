@@ -0,0 +1,171 @@
+package com.vinod.microservices.best.practices.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed loop HTTP load test of a running customer service, every connection sends its next request as soon as the
+ * previous response is read. Prints the throughput and the latency percentiles of the measured period, run it once
+ * with request.execution.mode=SERVLET and once with request.execution.mode=ASYNC to compare the execution modes.
+ * Requests rejected by the request limits (429 / 503) are counted apart from the errors, run it with more connections
+ * than the concurrency limit to check the latency of the accepted requests stays bounded under overload.
+ *
+ * mvn -P benchmark test-compile exec:exec@load-test -Dload.url=http://localhost:8081/v1/customers/ashok@yopmail.com -Dload.connections=2000
+ */
+public final class CustomerLoadTest {
+
+    private static final int CONNECT_TIMEOUT = 10_000;
+    private static final int READ_TIMEOUT = 60_000;
+
+    private CustomerLoadTest() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length < 1) {
+            System.err.println("Usage: CustomerLoadTest <url> [connections] [duration seconds] [warmup seconds]");
+            System.exit(2);
+        }
+        URL url = toUrl(args[0]);
+        int connections = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        long duration = TimeUnit.SECONDS.toNanos(args.length > 2 ? Long.parseLong(args[2]) : 60);
+        long warmup = TimeUnit.SECONDS.toNanos(args.length > 3 ? Long.parseLong(args[3]) : 10);
+        //Keep-alive cache of HttpURLConnection, one connection per client thread instead of the default 5.
+        System.setProperty("http.maxConnections", String.valueOf(connections));
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmup;
+        long measureTo = measureFrom + duration;
+        AtomicLong errors = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        List<Client> clients = new ArrayList<>(connections);
+        CountDownLatch done = new CountDownLatch(connections);
+        for (int i = 0; i < connections; i++) {
+            Client client = new Client(url, measureFrom, measureTo, errors, rejected, done);
+            clients.add(client);
+            Thread thread = new Thread(client, "load-client-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        System.out.printf("%s: %d connections, %d s warmup, %d s measured%n", url, connections,
+                TimeUnit.NANOSECONDS.toSeconds(warmup), TimeUnit.NANOSECONDS.toSeconds(duration));
+        if (!done.await(TimeUnit.NANOSECONDS.toMillis(measureTo - start) + READ_TIMEOUT, TimeUnit.MILLISECONDS)) {
+            System.err.println("Some clients did not complete their last request");
+        }
+
+        int count = clients.stream().mapToInt(client -> client.count).sum();
+        long[] latencies = new long[count];
+        int offset = 0;
+        for (Client client : clients) {
+            System.arraycopy(client.latencies, 0, latencies, offset, client.count);
+            offset += client.count;
+        }
+        Arrays.sort(latencies);
+        double seconds = duration / 1e9;
+        System.out.printf("requests: %d, rejected: %d, errors: %d, throughput: %.1f req/s%n", count, rejected.get(), errors.get(), count / seconds);
+        if (count > 0) {
+            System.out.printf("latency ms p50: %.2f, p90: %.2f, p99: %.2f, p99.9: %.2f, max: %.2f%n",
+                    percentile(latencies, 50), percentile(latencies, 90), percentile(latencies, 99),
+                    percentile(latencies, 99.9), latencies[count - 1] / 1e6);
+        }
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+
+    private static URL toUrl(String url) {
+        try {
+            return new URL(url);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid url: " + url, e);
+        }
+    }
+
+    /**
+     * One connection, latencies of the requests completed in the measured period, rejections and errors are counted in the whole run.
+     */
+    private static final class Client implements Runnable {
+
+        private final URL url;
+        private final long measureFrom;
+        private final long measureTo;
+        private final AtomicLong errors;
+        private final AtomicLong rejected;
+        private final CountDownLatch done;
+        private final byte[] buffer = new byte[8192];
+        private long[] latencies = new long[1024];
+        private int count;
+
+        Client(URL url, long measureFrom, long measureTo, AtomicLong errors, AtomicLong rejected, CountDownLatch done) {
+            this.url = url;
+            this.measureFrom = measureFrom;
+            this.measureTo = measureTo;
+            this.errors = errors;
+            this.rejected = rejected;
+            this.done = done;
+        }
+
+        @Override
+        public void run() {
+            try {
+                long now;
+                while ((now = System.nanoTime()) < measureTo) {
+                    int status = send();
+                    long end = System.nanoTime();
+                    if (status == 429 || status == 503) {
+                        rejected.incrementAndGet();
+                    } else if (status < 0 || status >= 400) {
+                        errors.incrementAndGet();
+                    } else if (now >= measureFrom && end <= measureTo) {
+                        record(end - now);
+                    }
+                }
+            } finally {
+                done.countDown();
+            }
+        }
+
+        /**
+         * @return - Response status, -1 when the request failed.
+         */
+        private int send() {
+            HttpURLConnection connection = null;
+            try {
+                connection = (HttpURLConnection) url.openConnection();
+                connection.setConnectTimeout(CONNECT_TIMEOUT);
+                connection.setReadTimeout(READ_TIMEOUT);
+                int status = connection.getResponseCode();
+                //Drain the body so the connection goes back to the keep-alive cache.
+                try (InputStream body = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+                    if (null != body) {
+                        while (body.read(buffer) != -1) {
+                            //Discarded.
+                        }
+                    }
+                }
+                return status;
+            } catch (IOException e) {
+                if (null != connection) {
+                    connection.disconnect();
+                }
+                return -1;
+            }
+        }
+
+        private void record(long latency) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latency;
+        }
+    }
+}
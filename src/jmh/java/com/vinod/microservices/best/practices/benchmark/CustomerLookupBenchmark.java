@@ -0,0 +1,108 @@
+package com.vinod.microservices.best.practices.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Customer lookup by email id on H2, with and without the uk_customer_email_id index,
+ * selecting the full entity columns or only the CustomerDto projection columns.
+ *
+ * mvn -P benchmark test-compile exec:exec -Djmh.include=CustomerLookupBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CustomerLookupBenchmark {
+
+    private static final String SELECT_ENTITY = "SELECT id, name, email_id, address, status FROM customer WHERE email_id = ?";
+    private static final String SELECT_DTO = "SELECT id, name, email_id, address FROM customer WHERE email_id = ?";
+
+    @Param({"10000", "1000000"})
+    private int rows;
+
+    @Param({"false", "true"})
+    private boolean indexed;
+
+    private Connection connection;
+    private PreparedStatement selectEntity;
+    private PreparedStatement selectDto;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:lookup_" + rows + "_" + indexed + ";DB_CLOSE_DELAY=-1", "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            //Same DDL as change_schema_EX_1.xml
+            statement.execute("CREATE TABLE customer (id BIGINT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(50), email_id VARCHAR(150), address VARCHAR(250), status VARCHAR(50))");
+        }
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO customer (name, email_id, address, status) VALUES (?, ?, ?, ?)")) {
+            for (int i = 0; i < rows; i++) {
+                insert.setString(1, "Customer " + i);
+                insert.setString(2, emailId(i));
+                insert.setString(3, "Gujarat");
+                insert.setString(4, "Registered");
+                insert.addBatch();
+                if (i % 1000 == 999) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        if (indexed) {
+            try (Statement statement = connection.createStatement()) {
+                //Same index as change_schema_EX_2.xml
+                statement.execute("CREATE UNIQUE INDEX uk_customer_email_id ON customer (email_id)");
+            }
+            connection.commit();
+        }
+        selectEntity = connection.prepareStatement(SELECT_ENTITY);
+        selectDto = connection.prepareStatement(SELECT_DTO);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public void findCustomerByEmailId(Blackhole blackhole) throws SQLException {
+        selectEntity.setString(1, emailId(ThreadLocalRandom.current().nextInt(rows)));
+        try (ResultSet resultSet = selectEntity.executeQuery()) {
+            while (resultSet.next()) {
+                blackhole.consume(resultSet.getLong(1));
+                blackhole.consume(resultSet.getString(2));
+                blackhole.consume(resultSet.getString(3));
+                blackhole.consume(resultSet.getString(4));
+                blackhole.consume(resultSet.getString(5));
+            }
+        }
+    }
+
+    @Benchmark
+    public void findCustomerDtoByEmailId(Blackhole blackhole) throws SQLException {
+        selectDto.setString(1, emailId(ThreadLocalRandom.current().nextInt(rows)));
+        try (ResultSet resultSet = selectDto.executeQuery()) {
+            while (resultSet.next()) {
+                blackhole.consume(resultSet.getLong(1));
+                blackhole.consume(resultSet.getString(2));
+                blackhole.consume(resultSet.getString(3));
+                blackhole.consume(resultSet.getString(4));
+            }
+        }
+    }
+
+    private static String emailId(int i) {
+        return "customer" + i + "@yopmail.com";
+    }
+}
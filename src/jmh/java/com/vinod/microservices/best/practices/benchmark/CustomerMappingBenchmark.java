@@ -0,0 +1,68 @@
+package com.vinod.microservices.best.practices.benchmark;
+
+import com.vinod.microservices.best.practices.dto.CustomerDto;
+import com.vinod.microservices.best.practices.dto.CustomerRegisterDto;
+import com.vinod.microservices.best.practices.mapper.CustomerMapper;
+import com.vinod.microservices.best.practices.model.Customer;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Customer <-> CustomerDto <-> CustomerRegisterDto conversions with ModelMapper, including the per-call
+ * typeMap registration CustomerService used to do, against the hand-written CustomerMapper.
+ *
+ * mvn -P benchmark test-compile exec:exec -Djmh.include=CustomerMappingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CustomerMappingBenchmark {
+
+    private final ModelMapper modelMapper = new ModelMapper();
+    private final CustomerMapper customerMapper = new CustomerMapper();
+
+    private final CustomerRegisterDto customerRegisterDto = new CustomerRegisterDto("Vinod Pillai", "vinod@yopmail.com", "Gujarat");
+    private final Customer customer = new Customer(1L, "Vinod Pillai", "vinod@yopmail.com", "Gujarat", "Registered", 0L);
+    private final CustomerDto customerDto = new CustomerDto(1L, "Vinod Pillai", "vinod@yopmail.com", "Gujarat", 0L);
+
+    @Benchmark
+    public Customer registerDtoToCustomerModelMapperTypeMapPerCall() {
+        modelMapper.typeMap(CustomerRegisterDto.class, Customer.class).addMappings(mapper -> mapper.skip(Customer::setId));
+        return modelMapper.map(customerRegisterDto, Customer.class);
+    }
+
+    @Benchmark
+    public Customer registerDtoToCustomerModelMapper() {
+        return modelMapper.map(customerRegisterDto, Customer.class);
+    }
+
+    @Benchmark
+    public Customer registerDtoToCustomerMapper() {
+        return customerMapper.toCustomer(customerRegisterDto);
+    }
+
+    @Benchmark
+    public CustomerDto customerToDtoModelMapper() {
+        return modelMapper.map(customer, CustomerDto.class);
+    }
+
+    @Benchmark
+    public CustomerDto customerToDtoMapper() {
+        return customerMapper.toCustomerDto(customer);
+    }
+
+    @Benchmark
+    public CustomerRegisterDto dtoToRegisterDtoModelMapper() {
+        return modelMapper.map(customerDto, CustomerRegisterDto.class);
+    }
+
+    @Benchmark
+    public CustomerRegisterDto dtoToRegisterDtoMapper() {
+        return customerMapper.toCustomerRegisterDto(customerDto);
+    }
+}
@@ -0,0 +1,163 @@
+package com.vinod.microservices.best.practices.benchmark;
+
+import com.vinod.microservices.best.practices.config.cache.CustomerCacheProperties;
+import com.vinod.microservices.best.practices.dto.CustomerDto;
+import com.vinod.microservices.best.practices.dto.CustomerRegisterDto;
+import com.vinod.microservices.best.practices.dto.CustomerUpdateDto;
+import com.vinod.microservices.best.practices.event.CustomerCreatedEvent;
+import com.vinod.microservices.best.practices.event.CustomerDeletedEvent;
+import com.vinod.microservices.best.practices.event.CustomerStatusChangedEvent;
+import com.vinod.microservices.best.practices.exception.CustomerModifiedException;
+import com.vinod.microservices.best.practices.exception.UserNotFoundException;
+import com.vinod.microservices.best.practices.mapper.CustomerMapper;
+import com.vinod.microservices.best.practices.model.Customer;
+import com.vinod.microservices.best.practices.repository.CustomerRepository;
+import com.vinod.microservices.best.practices.service.ICustomerCacheService;
+import com.vinod.microservices.best.practices.service.ICustomerService;
+import com.vinod.microservices.best.practices.service.IQueueService;
+import com.vinod.microservices.best.practices.service.impl.*;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * CustomerService against H2 with the JPA repositories, the outbox and the customer cache, the messaging
+ * services are left out. Customers are looked up among the seeded rows, added with new email ids.
+ *
+ * mvn -P benchmark test-compile exec:exec -Djmh.include=CustomerServiceBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CustomerServiceBenchmark {
+
+    private static final int SEEDED_CUSTOMERS = 10_000;
+
+    @Param({"CAFFEINE", "NONE"})
+    private String cacheType;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private ConfigurableApplicationContext context;
+    private ICustomerService customerService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(BenchmarkConfig.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.datasource.url=jdbc:h2:mem:customer_service_" + cacheType + ";DB_CLOSE_DELAY=-1",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+                        "spring.jpa.properties.hibernate.order_inserts=true",
+                        "logging.level.com.vinod.microservices.best.practices=WARN",
+                        "logging.level.org.hibernate=WARN",
+                        "cache.customer.type=" + cacheType,
+                        "event.topic.customer.created=customer_created",
+                        "queue.customer.deleted=queue_customer_deleted",
+                        "queue.customer.status-changed=queue_customer_status_changed")
+                .run();
+        customerService = context.getBean(ICustomerService.class);
+        CustomerRepository customerRepository = context.getBean(CustomerRepository.class);
+        for (int i = 0; i < SEEDED_CUSTOMERS; i += 1000) {
+            List<Customer> customers = new ArrayList<>(1000);
+            for (int j = i; j < i + 1000; j++) {
+                customers.add(new Customer(null, "Customer " + j, emailId(j), "Gujarat", "Registered", null));
+            }
+            customerRepository.saveAll(customers);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CustomerDto getCustomerByEmailId() throws UserNotFoundException {
+        return customerService.getCustomerByEmailId(emailId(ThreadLocalRandom.current().nextInt(SEEDED_CUSTOMERS)));
+    }
+
+    @Benchmark
+    public Object getUnknownCustomerByEmailId() {
+        try {
+            return customerService.getCustomerByEmailId("unknown" + ThreadLocalRandom.current().nextInt(SEEDED_CUSTOMERS) + "@yopmail.com");
+        } catch (UserNotFoundException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public void addCustomer() {
+        customerService.addCustomer(new CustomerRegisterDto("Vinod Pillai", "added" + sequence.incrementAndGet() + "@yopmail.com", "Gujarat"));
+    }
+
+    @Benchmark
+    public void updateCustomer() throws UserNotFoundException, CustomerModifiedException {
+        customerService.updateCustomer(new CustomerUpdateDto("Vinod Pillai", "Pune"), emailId(ThreadLocalRandom.current().nextInt(SEEDED_CUSTOMERS)), null);
+    }
+
+    private static String emailId(int i) {
+        return "customer" + i + "@yopmail.com";
+    }
+
+    //Not a @Configuration so the application component scan does not pick it up from the test classpath.
+    @ImportAutoConfiguration({PropertyPlaceholderAutoConfiguration.class, DataSourceAutoConfiguration.class, DataSourceTransactionManagerAutoConfiguration.class,
+            HibernateJpaAutoConfiguration.class, JpaRepositoriesAutoConfiguration.class, TransactionAutoConfiguration.class, ValidationAutoConfiguration.class})
+    @EntityScan(basePackageClasses = Customer.class)
+    @EnableJpaRepositories(basePackageClasses = CustomerRepository.class)
+    @EnableConfigurationProperties(CustomerCacheProperties.class)
+    @Import({CustomerService.class, CustomerMapper.class, CustomerCreatedEvent.class, CustomerDeletedEvent.class, CustomerStatusChangedEvent.class, OutboxService.class, RabbitMQPublisherService.class})
+    static class BenchmarkConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        ICustomerCacheService customerCacheService(CustomerCacheProperties properties, ObjectProvider<MeterRegistry> meterRegistry, @Value("${cache.customer.type}") String cacheType) {
+            return "CAFFEINE".equals(cacheType) ? new CaffeineCustomerCacheService(properties, meterRegistry) : new NoOpCustomerCacheService();
+        }
+
+        @Bean
+        IQueueService queueService() {
+            return new IQueueService() {
+                @Override
+                public <T> void sendMessage(String queue, T message) {
+                }
+
+                @Override
+                public <T> List<String> sendMessages(String queue, List<T> messages) {
+                    return Collections.nCopies(messages.size(), queue);
+                }
+            };
+        }
+    }
+}
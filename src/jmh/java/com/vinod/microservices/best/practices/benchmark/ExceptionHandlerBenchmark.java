@@ -0,0 +1,81 @@
+package com.vinod.microservices.best.practices.benchmark;
+
+import com.vinod.microservices.best.practices.config.InternationalizationConfig;
+import com.vinod.microservices.best.practices.dto.CustomerRegisterDto;
+import com.vinod.microservices.best.practices.exception.GlobalExceptionHandler;
+import com.vinod.microservices.best.practices.exception.UserNotFoundException;
+import com.vinod.microservices.best.practices.util.ResourceMessage;
+import com.vinod.microservices.best.practices.util.Response;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.http.ResponseEntity;
+
+import javax.validation.ConstraintViolationException;
+import javax.validation.Validation;
+import javax.validation.ValidatorFactory;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GlobalExceptionHandler error response building, including creating the exception and its logging.
+ * The not found path is compared with the handler it replaced by running this benchmark at the parent commit of the
+ * stackless exception, see the README Benchmarks section.
+ * Console output is discarded, the rolling file is written to logs/.
+ *
+ * mvn -P benchmark test-compile exec:exec -Djmh.include=ExceptionHandlerBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExceptionHandlerBenchmark {
+
+    private PrintStream systemOut;
+    private AnnotationConfigApplicationContext context;
+    private GlobalExceptionHandler exceptionHandler;
+    private ConstraintViolationException constraintViolationException;
+    private String emailId = "vinod@yopmail.com";
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        systemOut = System.out;
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        }));
+        context = new AnnotationConfigApplicationContext(InternationalizationConfig.class, ResourceMessage.class, GlobalExceptionHandler.class);
+        exceptionHandler = context.getBean(GlobalExceptionHandler.class);
+        try (ValidatorFactory validatorFactory = Validation.buildDefaultValidatorFactory()) {
+            constraintViolationException = new ConstraintViolationException(validatorFactory.getValidator().validate(new CustomerRegisterDto("V", "vinod", "Gandhinagar")));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        System.setOut(systemOut);
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> handleUserNotFound() {
+        return exceptionHandler.handleUserNotFound(new UserNotFoundException("Get Customer details operation failed, customer not found for email id:", emailId));
+    }
+
+    @Benchmark
+    public ResponseEntity<Response> handleConstraintViolation() {
+        return exceptionHandler.handleConstraintViolation(constraintViolationException);
+    }
+
+    @Benchmark
+    public ResponseEntity<Response> handleException() {
+        return exceptionHandler.handleException(new IllegalStateException("Connection is not available, request timed out after 30000ms."));
+    }
+}
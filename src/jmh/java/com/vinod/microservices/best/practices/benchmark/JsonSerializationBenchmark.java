@@ -0,0 +1,63 @@
+package com.vinod.microservices.best.practices.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
+import com.vinod.microservices.best.practices.dto.CustomerMessageData;
+import com.vinod.microservices.best.practices.util.GlobalUtility;
+import com.vinod.microservices.best.practices.util.JsonMapperRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CustomerMessageData serialization and parsing, building the mapper per call as GlobalUtility used to
+ * against the shared JsonMapperRegistry writer / reader. Add -prof gc for the allocation rate and
+ * -jvmArgs -Djackson.afterburner.enabled=false to compare without Afterburner.
+ *
+ * mvn -P benchmark test-compile exec:exec -Djmh.include=JsonSerializationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private final CustomerMessageData message = CustomerMessageData.builder().firstName("Vinod").emailId("vinod@yopmail.com").build();
+    private final String json = GlobalUtility.convertObjectToJson(message);
+
+    @Benchmark
+    public String serializePerCallMapper() throws Exception {
+        return perCallMapper().writeValueAsString(message);
+    }
+
+    @Benchmark
+    public String serializeSharedWriter() {
+        return GlobalUtility.convertObjectToJson(message);
+    }
+
+    @Benchmark
+    public CustomerMessageData parsePerCallMapper() throws Exception {
+        return perCallMapper().readValue(json, CustomerMessageData.class);
+    }
+
+    @Benchmark
+    public CustomerMessageData parseSharedReader() throws Exception {
+        return JsonMapperRegistry.readerFor(CustomerMessageData.class).readValue(json);
+    }
+
+    private static ObjectMapper perCallMapper() {
+        JavaTimeModule javaTimeModule=new JavaTimeModule();
+        javaTimeModule.addDeserializer(LocalDateTime.class,new LocalDateTimeDeserializer(DateTimeFormatter.ISO_DATE_TIME));
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().modules(javaTimeModule).featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+        objectMapper.setSerializationInclusion(Include.NON_NULL);
+        return objectMapper;
+    }
+}
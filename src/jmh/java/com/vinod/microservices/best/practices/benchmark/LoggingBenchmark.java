@@ -0,0 +1,89 @@
+package com.vinod.microservices.best.practices.benchmark;
+
+import com.vinod.microservices.best.practices.dto.CustomerRegisterDto;
+import com.vinod.microservices.best.practices.model.Customer;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Log statements of one add customer request, POST /v1/customers, from 4 request threads with the
+ * current logging (log4j2.xml, TRACE) against the production profile (log4j2-prod.xml, INFO, with the Log4j system
+ * properties of java.sh for ENV=prod). Each profile runs in its own fork, so the properties do not leak between them.
+ * Console output is discarded, the rolling file is written to logs/.
+ *
+ * mvn -P benchmark test-compile exec:exec -Djmh.include=LoggingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class LoggingBenchmark {
+
+    private static final String PACKAGE = "com.vinod.microservices.best.practices";
+
+    @Param({"default", "prod"})
+    private String profile;
+
+    private final CustomerRegisterDto customerRegisterDto = new CustomerRegisterDto("Vinod Pillai", "vinod@yopmail.com", "Gujarat");
+    private final Customer customer = new Customer(1L, "Vinod Pillai", "vinod@yopmail.com", "Gujarat", "Registered", 0L);
+
+    private PrintStream systemOut;
+    private LoggerContext loggerContext;
+    private Logger controllerLog;
+    private Logger serviceLog;
+    private Logger eventLog;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        systemOut = System.out;
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        }));
+        boolean prod = "prod".equals(profile);
+        if (prod) {
+            System.setProperty("log4j2.enableThreadlocals", "true");
+            System.setProperty("log4j2.enableDirectEncoders", "true");
+            System.setProperty("log4j2.asyncQueueFullPolicy", "Discard");
+            System.setProperty("log4j2.discardThreshold", "INFO");
+        }
+        loggerContext = Configurator.initialize("logging-benchmark", getClass().getClassLoader(),
+                getClass().getClassLoader().getResource(prod ? "log4j2-prod.xml" : "log4j2.xml").toURI());
+        Configurator.setLevel(PACKAGE, prod ? org.apache.logging.log4j.Level.INFO : org.apache.logging.log4j.Level.TRACE);
+        controllerLog = loggerContext.getLogger(PACKAGE + ".controller.CustomerController");
+        serviceLog = loggerContext.getLogger(PACKAGE + ".service.impl.CustomerService");
+        eventLog = loggerContext.getLogger(PACKAGE + ".event.CustomerCreatedEvent");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Configurator.shutdown(loggerContext);
+        System.setOut(systemOut);
+    }
+
+    @Benchmark
+    public void addCustomerRequest() {
+        controllerLog.trace("Request came to add new customer with following details: {}", customerRegisterDto);
+        serviceLog.trace("Request came to add new customer : {}", customerRegisterDto);
+        serviceLog.trace("Request came to map and save the customer object with customer details: {}", customerRegisterDto);
+        serviceLog.trace("Request came to save the customer details to DB having customer details: {}", customer);
+        serviceLog.trace("Persisted customer details: {}", customer);
+        eventLog.trace("Request came to raise event for customer created: {}", customerRegisterDto);
+        eventLog.info("Successfully recorded event for customer created: {}", customerRegisterDto);
+        serviceLog.info("Successfully saved customer having email id: {}", customer.getEmailId());
+    }
+}
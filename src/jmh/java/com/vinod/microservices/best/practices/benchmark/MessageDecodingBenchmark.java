@@ -0,0 +1,65 @@
+package com.vinod.microservices.best.practices.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vinod.microservices.best.practices.dto.CustomerMessageData;
+import com.vinod.microservices.best.practices.util.GlobalUtility;
+import com.vinod.microservices.best.practices.util.JsonMapperRegistry;
+import com.vinod.microservices.best.practices.util.MessageDecoder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SNS notification decoding as CustomerCreatedHandler did it, reading the tree twice and the Message once more,
+ * against the single streaming pass of MessageDecoder. The envelope carries the standard SNS fields with a
+ * 344 character signature and the given number of message attributes, about 1 KB to 3 KB.
+ *
+ * mvn -P benchmark test-compile exec:exec -Djmh.include=MessageDecodingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessageDecodingBenchmark {
+
+    @Param({"0", "20"})
+    private int messageAttributes;
+
+    private final ObjectMapper objectMapper = JsonMapperRegistry.objectMapper();
+    private String envelope;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String message = GlobalUtility.convertObjectToJson(CustomerMessageData.builder().firstName("Vinod Pillai").emailId("vinod@yopmail.com").build());
+        StringBuilder attributes = new StringBuilder();
+        for (int i = 0; i < messageAttributes; i++) {
+            attributes.append(i == 0 ? "" : ",").append("\"attribute").append(i).append("\":{\"Type\":\"String\",\"Value\":\"value-").append(i).append("\"}");
+        }
+        StringBuilder signature = new StringBuilder();
+        while (signature.length() < 344) {
+            signature.append("EXAMPLEpH+DcEwjAPg8O9mY8dReBSwksfg2S7WKQcikcNKWLQjwu6A4VbeS0QHVCkhRS7fUQvi2egU3N858fiTDN6bkkOxYDVrY0Ad8L10Hs3zH81mtnPk5uvvolIC1CXGu43obcgFxeL3khZl8IKvO61GWB6jI9b5+gLPoBc1Q=");
+        }
+        envelope = "{\"Type\":\"Notification\",\"MessageId\":\"22b80b92-fdea-4c2c-8f9d-bdfb0c7bf324\","
+                + "\"TopicArn\":\"arn:aws:sns:us-east-1:000000000000:customer_created\","
+                + "\"Message\":" + GlobalUtility.convertObjectToJson(message) + ","
+                + "\"Timestamp\":\"2021-03-01T10:15:30.000Z\",\"SignatureVersion\":\"1\","
+                + "\"Signature\":\"" + signature.substring(0, 344) + "\","
+                + "\"SigningCertURL\":\"https://sns.us-east-1.amazonaws.com/SimpleNotificationService-f3ecfb7224c7233fe7bb5f59f96de52f.pem\","
+                + "\"UnsubscribeURL\":\"https://sns.us-east-1.amazonaws.com/?Action=Unsubscribe&SubscriptionArn=arn:aws:sns:us-east-1:000000000000:customer_created:2bcfbf39-05c3-41de-beaa-fcfcc21c8f55\","
+                + "\"MessageAttributes\":{" + attributes + "}}";
+    }
+
+    @Benchmark
+    public CustomerMessageData readTreeTwice() throws Exception {
+        JsonNode jsonMessage= GlobalUtility.isExists(objectMapper.readTree(envelope)) ? objectMapper.readTree(envelope).get("Message"):null;
+        return objectMapper.readValue(jsonMessage.asText(), CustomerMessageData.class);
+    }
+
+    @Benchmark
+    public CustomerMessageData streamingDecoder() throws Exception {
+        return MessageDecoder.decodeNotification(envelope, CustomerMessageData.class);
+    }
+}
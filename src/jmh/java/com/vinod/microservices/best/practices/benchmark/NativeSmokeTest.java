@@ -0,0 +1,165 @@
+package com.vinod.microservices.best.practices.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Smoke test of the native executable of mvn -P native package against H2, next to the JVM build (fat jar) with the
+ * same profiles and arguments: time to first request, the customer register, read, update, validation, not found and
+ * delete requests, and the resident set size (VmRSS, peak VmHWM) of the process once the requests are served.
+ * The native mode is skipped when the executable is missing, the exit status is 1 when a request check fails.
+ * The process output is written to target/smoke-*.log.
+ *
+ * mvn -P benchmark test-compile exec:exec@native-smoke -Dsmoke.args="--spring.datasource.url=jdbc:h2:mem:customer ..."
+ */
+public final class NativeSmokeTest {
+
+    private static final String EMAIL_ID = "smoke@yopmail.com";
+    private static final String UNKNOWN_EMAIL_ID = "unknown@yopmail.com";
+    private static final String NOT_FOUND_ERROR_CODE = "\"errorCode\":\"2001\"";
+    private static final int REQUEST_TIMEOUT = 30_000;
+
+    private NativeSmokeTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 5) {
+            System.err.println("Usage: NativeSmokeTest <jar> <native executable> <customers url> <java> <profiles> [service arguments]");
+            System.exit(2);
+        }
+        File jar = new File(args[0]);
+        File executable = new File(args[1]);
+        String url = args[2];
+        String java = args[3];
+        String profiles = "--spring.profiles.active=" + args[4];
+        List<String> serviceArgs = Arrays.asList(args).subList(5, args.length);
+
+        boolean passed = run("jvm", Arrays.asList(java, "-jar", jar.getPath(), profiles), serviceArgs, url);
+        if (executable.canExecute()) {
+            passed &= run("native", Arrays.asList(executable.getPath(), profiles), serviceArgs, url);
+        } else {
+            System.out.printf("native: skipped, %s not found, build it with mvn -P native package%n", executable);
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    private static boolean run(String mode, List<String> command, List<String> serviceArgs, String url) throws Exception {
+        File log = new File("target", "smoke-" + mode + ".log").getAbsoluteFile();
+        File pidFile = new File("target", "smoke-" + mode + ".pid").getAbsoluteFile();
+        //The shell writes its pid and is replaced by the service, so the pid is the one of the service process.
+        List<String> processCommand = new ArrayList<>(Arrays.asList("sh", "-c", "echo $$ > \"$0\"; exec \"$@\"", pidFile.getPath()));
+        processCommand.addAll(command);
+        processCommand.addAll(serviceArgs);
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(processCommand).redirectErrorStream(true).redirectOutput(log).start();
+        try {
+            long time = StartupTimeTest.firstRequest(new URL(url + "/" + UNKNOWN_EMAIL_ID), process, start);
+            if (time < 0) {
+                System.out.printf("%s: no response from %s, see %s%n", mode, url, log);
+                return false;
+            }
+            List<String> failures = checks(url);
+            String pid = new String(Files.readAllBytes(pidFile.toPath()), StandardCharsets.UTF_8).trim();
+            System.out.printf("%s: time to first request ms: %d, rss MB: %d, peak rss MB: %d, failed checks: %s%n", mode, time,
+                    memoryKb(pid, "VmRSS") / 1024, memoryKb(pid, "VmHWM") / 1024, failures.isEmpty() ? "none" : failures);
+            return failures.isEmpty();
+        } finally {
+            StartupTimeTest.stop(process);
+        }
+    }
+
+    /**
+     * Requests of the customer endpoints, each reaching the JPA entity, the Jackson DTOs or the address validation.
+     *
+     * @return  - Descriptions of the failed checks.
+     */
+    private static List<String> checks(String url) throws IOException {
+        String customer = url + "/" + EMAIL_ID;
+        List<String> failures = new ArrayList<>();
+        check(failures, "register", 200, request("POST", url, "{\"name\":\"Ashok\",\"emailId\":\"" + EMAIL_ID + "\",\"address\":\"Pune\"}", null), null);
+        check(failures, "register invalid address", 400, request("POST", url, "{\"name\":\"Ashok\",\"emailId\":\"invalid@yopmail.com\",\"address\":\"Atlantis\"}", null), null);
+        check(failures, "read", 200, request("GET", customer, null, null), "Pune");
+        check(failures, "update", 200, request("PUT", customer, "{\"name\":\"Ashok Kumar\",\"address\":\"Mumbai\"}", null), null);
+        check(failures, "read updated", 200, request("GET", customer, null, null), "Mumbai");
+        check(failures, "not found", 400, request("GET", url + "/" + UNKNOWN_EMAIL_ID, null, null), NOT_FOUND_ERROR_CODE);
+        check(failures, "not found fr", 400, request("GET", url + "/" + UNKNOWN_EMAIL_ID, null, "fr"), "Aucun");
+        check(failures, "delete", 200, request("DELETE", customer, null, null), null);
+        check(failures, "read deleted", 400, request("GET", customer, null, null), NOT_FOUND_ERROR_CODE);
+        return failures;
+    }
+
+    private static void check(List<String> failures, String name, int status, HttpResponse response, String bodyContains) {
+        if (status != response.status || (null != bodyContains && !response.body.contains(bodyContains))) {
+            failures.add(name + " (" + response.status + ": " + response.body + ")");
+        }
+    }
+
+    private static HttpResponse request(String method, String url, String body, String language) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setConnectTimeout(REQUEST_TIMEOUT);
+        connection.setReadTimeout(REQUEST_TIMEOUT);
+        connection.setRequestMethod(method);
+        if (null != language) {
+            connection.setRequestProperty("Accept-Language", language);
+        }
+        if (null != body) {
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/json");
+            try (OutputStream outputStream = connection.getOutputStream()) {
+                outputStream.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        int status = connection.getResponseCode();
+        InputStream inputStream = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        if (null != inputStream) {
+            try (InputStream in = inputStream) {
+                byte[] buffer = new byte[4096];
+                for (int read; (read = in.read(buffer)) != -1; ) {
+                    content.write(buffer, 0, read);
+                }
+            }
+        }
+        connection.disconnect();
+        return new HttpResponse(status, new String(content.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Memory of the process from /proc/pid/status.
+     *
+     * @return  - Kilobytes of the field, -1 when it cannot be read (not Linux).
+     */
+    private static long memoryKb(String pid, String field) {
+        try {
+            for (String line : Files.readAllLines(new File("/proc/" + pid + "/status").toPath())) {
+                if (line.startsWith(field + ":")) {
+                    return Long.parseLong(line.substring(field.length() + 1).replace("kB", "").trim());
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            //Not available.
+        }
+        return -1;
+    }
+
+    private static final class HttpResponse {
+
+        private final int status;
+        private final String body;
+
+        private HttpResponse(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+}
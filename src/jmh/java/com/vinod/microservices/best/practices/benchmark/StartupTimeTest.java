@@ -0,0 +1,124 @@
+package com.vinod.microservices.best.practices.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to first request of the service per startup mode, from the process start to the first response of the url
+ * with a status under 500. Each mode is started the given number of times and the median, min and max are printed:
+ * jvm (fat jar), fast-startup (fat jar, fast-startup profile) and fast-startup-appcds (thin jar with the class-data
+ * archive of mvn -P appcds package, skipped when it is missing). The process output is written to target/startup-*.log.
+ *
+ * mvn -P benchmark test-compile exec:exec@startup-time -Dstartup.runs=5 -Dstartup.args="--spring.datasource.url=..."
+ */
+public final class StartupTimeTest {
+
+    private static final String MAIN_CLASS = "com.vinod.microservices.best.practices.SpringbootMicroserviceBestPracticesApplication";
+    private static final long START_TIMEOUT_SECONDS = 180;
+    private static final int POLL_TIMEOUT = 1_000;
+    private static final long POLL_INTERVAL_MILLIS = 20;
+
+    private StartupTimeTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 5) {
+            System.err.println("Usage: StartupTimeTest <jar> <url> <runs> <java> <profiles> [service arguments]");
+            System.exit(2);
+        }
+        File jar = new File(args[0]);
+        URL url = new URL(args[1]);
+        int runs = Integer.parseInt(args[2]);
+        String java = args[3];
+        String profiles = args[4];
+        List<String> serviceArgs = Arrays.asList(args).subList(5, args.length);
+        File cds = new File(jar.getParentFile(), "cds");
+
+        List<String> jvm = command(java, "-jar", jar.getPath(), "--spring.profiles.active=" + profiles);
+        List<String> fastStartup = command(java, "-jar", jar.getPath(), "--spring.profiles.active=" + profiles + ",fast-startup");
+        measure("jvm", jvm, new File("."), serviceArgs, url, runs);
+        measure("fast-startup", fastStartup, new File("."), serviceArgs, url, runs);
+        File archive = new File(cds, "app-cds.jsa");
+        if (archive.exists()) {
+            //Same relative class path as the archive dump, run from the cds directory.
+            String classpath = "app.jar" + File.pathSeparator + new String(Files.readAllBytes(new File(cds, "classpath").toPath()), StandardCharsets.UTF_8).trim();
+            measure("fast-startup-appcds", command(java, "-XX:SharedArchiveFile=app-cds.jsa", "-cp", classpath, MAIN_CLASS,
+                    "--spring.profiles.active=" + profiles + ",fast-startup"), cds, serviceArgs, url, runs);
+        } else {
+            System.out.printf("fast-startup-appcds: skipped, %s not found, build it with mvn -P appcds package%n", archive);
+        }
+    }
+
+    private static void measure(String mode, List<String> command, File directory, List<String> serviceArgs, URL url, int runs) throws Exception {
+        List<String> processCommand = new ArrayList<>(command);
+        processCommand.addAll(serviceArgs);
+        List<Long> times = new ArrayList<>(runs);
+        for (int run = 0; run < runs; run++) {
+            File log = new File("target", "startup-" + mode + "-" + run + ".log").getAbsoluteFile();
+            long start = System.nanoTime();
+            Process process = new ProcessBuilder(processCommand).directory(directory).redirectErrorStream(true).redirectOutput(log).start();
+            try {
+                long time = firstRequest(url, process, start);
+                if (time < 0) {
+                    System.err.printf("%s run %d: no response from %s, see %s%n", mode, run, url, log);
+                } else {
+                    times.add(time);
+                }
+            } finally {
+                stop(process);
+            }
+        }
+        if (times.isEmpty()) {
+            System.out.printf("%s: no successful run%n", mode);
+            return;
+        }
+        Collections.sort(times);
+        System.out.printf("%s: time to first request ms median: %d, min: %d, max: %d (%d runs)%n", mode,
+                times.get(times.size() / 2), times.get(0), times.get(times.size() - 1), times.size());
+    }
+
+    /**
+     * Poll the url until it answers with a status under 500.
+     *
+     * @return  - Milliseconds since the start, -1 when the process exits or the service does not answer in time.
+     */
+    static long firstRequest(URL url, Process process, long start) throws InterruptedException {
+        long deadline = start + TimeUnit.SECONDS.toNanos(START_TIMEOUT_SECONDS);
+        while (System.nanoTime() < deadline && process.isAlive()) {
+            try {
+                HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+                connection.setConnectTimeout(POLL_TIMEOUT);
+                connection.setReadTimeout((int) TimeUnit.SECONDS.toMillis(START_TIMEOUT_SECONDS));
+                int status = connection.getResponseCode();
+                connection.disconnect();
+                if (status < 500) {
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                }
+            } catch (IOException e) {
+                //Not listening yet.
+            }
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+        }
+        return -1;
+    }
+
+    static void stop(Process process) throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+
+    private static List<String> command(String... command) {
+        return Arrays.asList(command);
+    }
+}
@@ -1,15 +1,25 @@
 package com.vinod.microservices.best.practices;
 
 import com.vinod.microservices.best.practices.config.aws.LocalStackProperties;
+import com.vinod.microservices.best.practices.config.aws.SNSPublisherProperties;
+import com.vinod.microservices.best.practices.config.aws.SQSConsumerProperties;
+import com.vinod.microservices.best.practices.config.cache.CustomerCacheProperties;
+import com.vinod.microservices.best.practices.config.datasource.DataSourcePoolProperties;
+import com.vinod.microservices.best.practices.config.startup.StartupProperties;
+import com.vinod.microservices.best.practices.config.web.IdempotencyProperties;
+import com.vinod.microservices.best.practices.config.web.RequestExecutionProperties;
+import com.vinod.microservices.best.practices.config.web.RequestLimitProperties;
 import io.swagger.v3.oas.annotations.OpenAPIDefinition;
 import io.swagger.v3.oas.annotations.info.Info;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @OpenAPIDefinition(info = @Info(title = "Spring Microservice Best Practices", description = "Spring Boot microservice best practices.", version = "1.0"))
-@EnableConfigurationProperties(LocalStackProperties.class)
+@EnableConfigurationProperties({LocalStackProperties.class, SNSPublisherProperties.class, SQSConsumerProperties.class, CustomerCacheProperties.class, RequestExecutionProperties.class, RequestLimitProperties.class, IdempotencyProperties.class, DataSourcePoolProperties.class, StartupProperties.class})
 @SpringBootApplication
+@EnableScheduling
 public class SpringbootMicroserviceBestPracticesApplication {
 
 	public static void main(String[] args) {
@@ -1,11 +1,16 @@
 package com.vinod.microservices.best.practices.config;
 
+import com.vinod.microservices.best.practices.service.ICustomerCacheService;
+import com.vinod.microservices.best.practices.service.IIdempotencyService;
 import com.vinod.microservices.best.practices.service.IPublisherService;
 import com.vinod.microservices.best.practices.service.IQueueService;
 import com.vinod.microservices.best.practices.service.impl.AWSSNSPublisherService;
 import com.vinod.microservices.best.practices.service.impl.AWSSQSQueueService;
+import com.vinod.microservices.best.practices.service.impl.CaffeineCustomerCacheService;
+import com.vinod.microservices.best.practices.service.impl.CaffeineIdempotencyService;
+import com.vinod.microservices.best.practices.service.impl.DatabaseIdempotencyService;
+import com.vinod.microservices.best.practices.service.impl.NoOpCustomerCacheService;
 import com.vinod.microservices.best.practices.service.impl.RabbitMQPublisherService;
-import org.modelmapper.ModelMapper;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -20,16 +25,6 @@ public class AppConfig {
         this.environment=environment;
     }
 
-    /**
-     * Model mapper.
-     *
-     * @return the model mapper
-     */
-    @Bean
-    ModelMapper modelMapper() {
-        return new ModelMapper();
-    }
-
     /**
      * Publisher Service - Object base on the property value.
      * Vendor neutral program.
@@ -61,4 +56,34 @@ public class AppConfig {
             return null;
         }
     }
+
+    /**
+     * Customer Cache Service - Object base on the property value.
+     *
+     * @param context
+     * @return
+     */
+    @Bean(name = "customerCacheService")
+    public ICustomerCacheService customerCacheService(ApplicationContext context) {
+        if ("CAFFEINE".equals(environment.getProperty("cache.customer.type", "CAFFEINE"))) {
+            return context.getBean(CaffeineCustomerCacheService.class);
+        } else {
+            return context.getBean(NoOpCustomerCacheService.class);
+        }
+    }
+
+    /**
+     * Idempotency Service - Object base on the property value.
+     *
+     * @param context
+     * @return
+     */
+    @Bean(name = "idempotencyService")
+    public IIdempotencyService idempotencyService(ApplicationContext context) {
+        if (DatabaseIdempotencyService.STORE_TYPE.equals(environment.getProperty("idempotency.store", "MEMORY"))) {
+            return context.getBean(DatabaseIdempotencyService.class);
+        } else {
+            return context.getBean(CaffeineIdempotencyService.class);
+        }
+    }
 }
@@ -1,35 +1,60 @@
 package com.vinod.microservices.best.practices.config;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.context.support.ReloadableResourceBundleMessageSource;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import org.springframework.web.servlet.i18n.AcceptHeaderLocaleResolver;
 
 import javax.servlet.http.HttpServletRequest;
-import java.util.Arrays;
-import java.util.List;
 import java.util.Locale;
+import java.util.function.Function;
+
+import static com.vinod.microservices.best.practices.util.ApplicationConstant.LOCALE_CACHE_MAX_SIZE;
+import static com.vinod.microservices.best.practices.util.ApplicationConstant.SUPPORTED_LOCALES;
 
 /**
  * Internationalization Configuration Class.
+ * The locale resolved from an Accept-Language header value is cached, clients send a handful of distinct values.
  */
 @Configuration
 public class InternationalizationConfig extends AcceptHeaderLocaleResolver implements WebMvcConfigurer {
 
-    final List<Locale> LOCALES = Arrays.asList(new Locale("en"), new Locale("fr"));
+    private final Cache<String, Locale> resolvedLocales = Caffeine.newBuilder().maximumSize(LOCALE_CACHE_MAX_SIZE).build();
+    private final Function<String, Locale> lookupLocale = InternationalizationConfig::lookupLocale;
 
     @Override
     public Locale resolveLocale(HttpServletRequest request) {
         String headerLang = request.getHeader("Accept-Language");
-        return headerLang == null || headerLang.isEmpty() ? Locale.getDefault() : Locale.lookup(Locale.LanguageRange.parse(headerLang), LOCALES);
+        return headerLang == null || headerLang.isEmpty() ? Locale.getDefault() : resolvedLocales.get(headerLang, lookupLocale);
     }
 
+    /**
+     * Messages files, looked up in the order of messages.basenames, e.g. file:/config/messages,classpath:messages so
+     * the files of an external directory can be updated and reloaded while the service runs.
+     *
+     * @param basenames - Basenames of the messages files.
+     * @return
+     */
     @Bean
-    public ResourceBundleMessageSource resourceBundle() {
-        ResourceBundleMessageSource resourceBundleMessageSource=new ResourceBundleMessageSource();
-        resourceBundleMessageSource.setBasename("messages");
+    public ReloadableResourceBundleMessageSource resourceBundle(@Value("${messages.basenames:classpath:messages}") String[] basenames) {
+        ReloadableResourceBundleMessageSource resourceBundleMessageSource=new ReloadableResourceBundleMessageSource();
+        resourceBundleMessageSource.setBasenames(basenames);
         resourceBundleMessageSource.setDefaultEncoding("UTF-8");
         return resourceBundleMessageSource;
     }
+
+    /**
+     * Best supported locale of the Accept-Language header value, the default locale when none matches.
+     *
+     * @param headerLang    - Accept-Language header value.
+     * @return              - Locale object.
+     */
+    private static Locale lookupLocale(String headerLang) {
+        Locale locale = Locale.lookup(Locale.LanguageRange.parse(headerLang), SUPPORTED_LOCALES);
+        return null != locale ? locale : Locale.getDefault();
+    }
 }
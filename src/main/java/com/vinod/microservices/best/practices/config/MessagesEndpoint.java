@@ -0,0 +1,27 @@
+package com.vinod.microservices.best.practices.config;
+
+import com.vinod.microservices.best.practices.util.ResourceMessage;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint reloading the messages files, POST /actuator/messages once the files of the external
+ * messages.basenames directory are updated. Not exposed over HTTP by default, see the README.
+ * The pre-built error responses are rebuilt on their next use.
+ */
+@Component
+@Endpoint(id = "messages")
+public class MessagesEndpoint {
+
+    private final ResourceMessage resourceMessage;
+
+    public MessagesEndpoint(ResourceMessage resourceMessage) {
+        this.resourceMessage = resourceMessage;
+    }
+
+    @WriteOperation
+    public void reload() {
+        resourceMessage.reload();
+    }
+}
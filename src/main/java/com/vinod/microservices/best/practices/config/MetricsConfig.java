@@ -0,0 +1,24 @@
+package com.vinod.microservices.best.practices.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Metrics Configuration Class, exported under /actuator/metrics and /actuator/prometheus.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Timers of the @Timed service and messaging methods, tagged with class, method and exception.
+     *
+     * @param meterRegistry
+     * @return
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
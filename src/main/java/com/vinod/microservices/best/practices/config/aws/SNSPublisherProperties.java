@@ -0,0 +1,44 @@
+package com.vinod.microservices.best.practices.config.aws;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * SNS publisher pipeline properties.
+ */
+@ConfigurationProperties("publisher.sns")
+@Data
+public class SNSPublisherProperties {
+
+    /** Buffer messages and publish them from a background worker, false publishes in the caller thread. */
+    private boolean async = true;
+
+    /** Maximum number of messages waiting in the buffer. */
+    private int bufferCapacity = 10_000;
+
+    /** Messages per PublishBatch call, SNS allows at most 10. */
+    private int batchSize = 10;
+
+    /** Maximum time a message waits for its batch to fill up. */
+    private Duration flushInterval = Duration.ofMillis(200);
+
+    /** What to do when the buffer is full. */
+    private BackpressurePolicy backpressure = BackpressurePolicy.BLOCK;
+
+    /** Maximum time the caller waits for buffer space with the BLOCK policy, the message is dropped afterwards. */
+    private Duration blockTimeout = Duration.ofSeconds(1);
+
+    /** Maximum time to drain the buffer on shutdown. */
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+
+    public enum BackpressurePolicy {
+        /** Wait up to block-timeout for buffer space. */
+        BLOCK,
+        /** Drop the message and count it. */
+        DROP,
+        /** Publish synchronously in the caller thread. */
+        CALLER_RUNS
+    }
+}
@@ -0,0 +1,50 @@
+package com.vinod.microservices.best.practices.config.aws;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * SQS consumer properties.
+ */
+@ConfigurationProperties("consumer.sqs")
+@Data
+public class SQSConsumerProperties {
+
+    /** Consume the handler queues, false leaves the messages in the queues. */
+    private boolean enabled = true;
+
+    /** Messages per ReceiveMessage call, SQS allows at most 10. */
+    private int maxMessages = 10;
+
+    /** Long polling wait time, SQS allows at most 20 seconds. */
+    private Duration waitTime = Duration.ofSeconds(20);
+
+    /** Visibility timeout of received messages, extended while the handler is still running. */
+    private Duration visibilityTimeout = Duration.ofSeconds(30);
+
+    /** Default number of messages handled in parallel per queue. */
+    private int concurrency = 4;
+
+    /** Number of messages handled in parallel by queue name, overrides the default concurrency. */
+    private Map<String, Integer> queueConcurrency = new HashMap<>();
+
+    /** Maximum time a handled message waits for its DeleteMessageBatch call. */
+    private Duration ackInterval = Duration.ofMillis(200);
+
+    /** Maximum time to finish the running handlers on shutdown. */
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Concurrency of the queue.
+     *
+     * @param queueName - Queue name.
+     * @return          - Number of messages handled in parallel.
+     */
+    public int concurrencyFor(String queueName) {
+        return Math.max(1, queueConcurrency.getOrDefault(queueName, concurrency));
+    }
+}
@@ -0,0 +1,29 @@
+package com.vinod.microservices.best.practices.config.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Customer lookup cache properties.
+ */
+@ConfigurationProperties("cache.customer")
+@Data
+public class CustomerCacheProperties {
+
+    /** Cache implementation: CAFFEINE or NONE. */
+    private String type = "CAFFEINE";
+
+    /** Maximum number of email ids kept in memory, evicted by W-TinyLFU once exceeded. */
+    private long maximumSize = 10_000;
+
+    /** Time to live of a found customer entry. */
+    private Duration ttl = Duration.ofMinutes(10);
+
+    /** Remember unknown email ids so repeated misses do not reach the database. */
+    private boolean negativeCaching = true;
+
+    /** Time to live of an unknown email id entry. */
+    private Duration negativeTtl = Duration.ofSeconds(30);
+}
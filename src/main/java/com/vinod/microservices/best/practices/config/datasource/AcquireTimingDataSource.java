@@ -0,0 +1,110 @@
+package com.vinod.microservices.best.practices.config.datasource;
+
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.util.ClassUtils;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Times the connection acquires of the pool, acquires slower than the threshold are logged and counted under
+ * datasource.connections.slow.acquire with the outermost service method on the calling thread's stack.
+ * The stack is only walked for slow acquires.
+ */
+@Log4j2
+public class AcquireTimingDataSource extends DelegatingDataSource {
+
+    static final String SLOW_ACQUIRE_METRIC = "datasource.connections.slow.acquire";
+    private static final String UNKNOWN_CALLER = "unknown";
+
+    private final String poolName;
+    private final long slowAcquireNanos;
+    private final Class<?> serviceType;
+    private final Set<String> serviceMethods;
+    private final Map<String, Boolean> serviceClasses = new ConcurrentHashMap<>();
+
+    /**
+     * @param dataSource         - Pooled datasource.
+     * @param poolName           - Pool name tag of the slow acquire counter.
+     * @param slowAcquireNanos   - Slow acquire threshold.
+     * @param serviceType        - Service interface reported as the caller of slow acquires.
+     */
+    public AcquireTimingDataSource(DataSource dataSource, String poolName, long slowAcquireNanos, Class<?> serviceType) {
+        super(dataSource);
+        this.poolName = poolName;
+        this.slowAcquireNanos = slowAcquireNanos;
+        this.serviceType = serviceType;
+        this.serviceMethods = Arrays.stream(serviceType.getMethods()).map(Method::getName).collect(Collectors.toSet());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            return super.getConnection();
+        } finally {
+            recordAcquire(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            return super.getConnection(username, password);
+        } finally {
+            recordAcquire(System.nanoTime() - start);
+        }
+    }
+
+    private void recordAcquire(long elapsedNanos) {
+        if (elapsedNanos < slowAcquireNanos) {
+            return;
+        }
+        String caller = callerMethod();
+        log.warn("Slow connection acquire from pool: {}, waited: {} ms, caller: {}", poolName, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), caller);
+        Metrics.counter(SLOW_ACQUIRE_METRIC, "pool", poolName, "method", caller).increment();
+    }
+
+    /**
+     * Outermost service method on the stack, the one called by the controller or the handler.
+     *
+     * @return - Simple class name and method name, unknown outside the service.
+     */
+    private String callerMethod() {
+        String caller = UNKNOWN_CALLER;
+        for (StackTraceElement frame : new Throwable().getStackTrace()) {
+            if (!serviceMethods.contains(frame.getMethodName())) {
+                continue;
+            }
+            //CGLIB proxy frames are reported as their target class.
+            String className = frame.getClassName();
+            int proxySuffix = className.indexOf("$$");
+            String targetClassName = proxySuffix > 0 ? className.substring(0, proxySuffix) : className;
+            if (serviceClasses.computeIfAbsent(targetClassName, this::isServiceClass)) {
+                caller = ClassUtils.getShortName(targetClassName) + "." + frame.getMethodName();
+            }
+        }
+        return caller;
+    }
+
+    private boolean isServiceClass(String className) {
+        try {
+            Class<?> type = ClassUtils.forName(className, getClass().getClassLoader());
+            return serviceType.isAssignableFrom(type) && !Proxy.isProxyClass(type);
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.vinod.microservices.best.practices.config.datasource;
+
+import com.vinod.microservices.best.practices.service.ICustomerService;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Customer datasource connection pool, adaptive sizing and slow acquire logging.
+ * Pool metrics are bound by the actuator under hikaricp.connections.*.
+ */
+@Configuration
+@Log4j2
+public class DataSourcePoolConfig {
+
+    /**
+     * Sizes the Hikari pool once bound to spring.datasource.hikari.* and wraps it to time the connection acquires.
+     *
+     * @param poolProperties
+     * @return
+     */
+    @Bean
+    public static BeanPostProcessor dataSourcePoolPostProcessor(ObjectProvider<DataSourcePoolProperties> poolProperties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource)) {
+                    return bean;
+                }
+                HikariDataSource dataSource = (HikariDataSource) bean;
+                DataSourcePoolProperties properties = poolProperties.getObject();
+                String poolName = null != dataSource.getPoolName() ? dataSource.getPoolName() : beanName;
+                if (properties.isAdaptiveSizing()) {
+                    int poolSize = properties.poolSize();
+                    dataSource.setMaximumPoolSize(poolSize);
+                    dataSource.setMinimumIdle(poolSize);
+                    log.info("Pool: {} sized to {} connections, core count: {}, effective spindle count: {}, expected concurrency: {}",
+                            poolName, poolSize, properties.getCoreCount(), properties.getEffectiveSpindleCount(), properties.getExpectedConcurrency());
+                }
+                return new AcquireTimingDataSource(dataSource, poolName, properties.getSlowAcquireThreshold().toNanos(), ICustomerService.class);
+            }
+        };
+    }
+}
@@ -0,0 +1,40 @@
+package com.vinod.microservices.best.practices.config.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Customer datasource connection pool properties.
+ */
+@ConfigurationProperties("datasource.pool")
+@Data
+public class DataSourcePoolProperties {
+
+    /** Connection acquires slower than this are logged with the calling customer service method. */
+    private Duration slowAcquireThreshold = Duration.ofMillis(50);
+
+    /** Size the pool from the core count and the expected concurrency, overrides spring.datasource.hikari.maximum-pool-size. */
+    private boolean adaptiveSizing = false;
+
+    /** Cores of the database server, 0 uses the cores available to this JVM. */
+    private int coreCount = 0;
+
+    /** Disks the database server waits on concurrently, 0 when the working set is cached. */
+    private int effectiveSpindleCount = 1;
+
+    /** Requests using a connection at the same time at peak, caps the pool size, 0 for no cap. */
+    private int expectedConcurrency = 0;
+
+    /**
+     * Pool size of (core count * 2) + effective spindle count, capped by the expected concurrency.
+     *
+     * @return - Maximum pool size.
+     */
+    public int poolSize() {
+        int cores = coreCount > 0 ? coreCount : Runtime.getRuntime().availableProcessors();
+        int size = cores * 2 + effectiveSpindleCount;
+        return expectedConcurrency > 0 ? Math.min(size, expectedConcurrency) : size;
+    }
+}
@@ -0,0 +1,96 @@
+package com.vinod.microservices.best.practices.config.startup;
+
+import liquibase.integration.spring.SpringLiquibase;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import static com.vinod.microservices.best.practices.util.ApplicationConstant.CUSTOMER_SERVICE;
+
+/**
+ * One-shot run modes, the service exits once the run is done instead of taking traffic.
+ * MIGRATE creates the Liquibase bean, which applies the changelog, TRAINING exits once the service is started and has
+ * served the training requests.
+ */
+@Component
+@Log4j2
+public class RunModeRunner implements ApplicationRunner {
+
+    private static final String TRAINING_EMAIL_ID = "training@yopmail.com";
+
+    @Autowired
+    private StartupProperties startupProperties;
+    @Autowired
+    private ObjectProvider<SpringLiquibase> liquibase;
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        switch (startupProperties.getRunMode()) {
+            case MIGRATE:
+                if (null == liquibase.getIfAvailable()) {
+                    throw new IllegalStateException("Migrate run mode requires spring.liquibase.enabled=true");
+                }
+                log.info("Liquibase changelog applied, exiting");
+                break;
+            case TRAINING:
+                trainingRequests();
+                log.info("Started and served the training requests in {} ms, exiting", ManagementFactory.getRuntimeMXBean().getUptime());
+                break;
+            default:
+                return;
+        }
+        System.exit(SpringApplication.exit(context));
+    }
+
+    /**
+     * Register, read and delete a training customer through the customer endpoints, so the classes of the request
+     * path (controller, validation, JPA, Jackson, outbox) are loaded by the training run too.
+     */
+    private void trainingRequests() {
+        String port = context.getEnvironment().getProperty("local.server.port");
+        if (null == port) {
+            return;
+        }
+        String customers = "http://localhost:" + port + CUSTOMER_SERVICE;
+        String body = "{\"name\":\"Training\",\"emailId\":\"" + TRAINING_EMAIL_ID + "\",\"address\":\"Pune\"}";
+        try {
+            log.info("Training requests answered with: POST {}, GET {}, DELETE {}", request("POST", customers, body),
+                    request("GET", customers + "/" + TRAINING_EMAIL_ID, null), request("DELETE", customers + "/" + TRAINING_EMAIL_ID, null));
+        } catch (IOException e) {
+            log.warn("Training request failed", e);
+        }
+    }
+
+    private static int request(String method, String url, String body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        try {
+            connection.setRequestMethod(method);
+            if (null != body) {
+                connection.setDoOutput(true);
+                connection.setRequestProperty(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+                try (OutputStream outputStream = connection.getOutputStream()) {
+                    outputStream.write(body.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            return connection.getResponseCode();
+        } finally {
+            connection.disconnect();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.vinod.microservices.best.practices.config.startup;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Run mode of the service, see the fast-startup and migrate profiles.
+ */
+@ConfigurationProperties("startup")
+@Data
+public class StartupProperties {
+
+    /** SERVE takes traffic, MIGRATE runs the Liquibase changelog and exits, TRAINING exits once started and the customer endpoints called (AppCDS class list). */
+    private RunMode runMode = RunMode.SERVE;
+
+    public enum RunMode {
+        SERVE,
+        MIGRATE,
+        TRAINING
+    }
+}
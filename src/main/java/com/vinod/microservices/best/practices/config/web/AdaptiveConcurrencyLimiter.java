@@ -0,0 +1,96 @@
+package com.vinod.microservices.best.practices.config.web;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Gradient concurrency limit. Every completed request compares its latency with the long term average latency,
+ * the limit shrinks as the latency grows over the tolerance and grows by its square root while the latency holds.
+ * Acquires are lock-free, samples arriving while another one is applied are skipped.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double LONG_RTT_RECOVERY = 0.95;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double rttTolerance;
+    private final int longWindow;
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final ReentrantLock sampleLock = new ReentrantLock();
+    private volatile double limit;
+    private double longRtt;
+
+    /**
+     * @param properties    - Concurrency limit properties.
+     */
+    public AdaptiveConcurrencyLimiter(RequestLimitProperties.Concurrency properties) {
+        this.minLimit = Math.max(1, properties.getMinLimit());
+        this.maxLimit = Math.max(minLimit, properties.getMaxLimit());
+        this.smoothing = properties.getSmoothing();
+        this.rttTolerance = properties.getRttTolerance();
+        this.longWindow = Math.max(1, properties.getLongWindow());
+        this.limit = Math.min(maxLimit, Math.max(minLimit, properties.getInitialLimit()));
+    }
+
+    /**
+     * Takes a slot when the requests in flight are under the limit.
+     *
+     * @return  - Requests in flight including this one, 0 when the limit is reached.
+     */
+    public int tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= getLimit()) {
+                return 0;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    /**
+     * Releases the slot and samples the latency of the request.
+     *
+     * @param rttNanos          - Latency of the request.
+     * @param inflightAtStart   - Requests in flight when the request was accepted.
+     */
+    public void release(long rttNanos, int inflightAtStart) {
+        inflight.decrementAndGet();
+        if (rttNanos <= 0 || !sampleLock.tryLock()) {
+            return;
+        }
+        try {
+            onSample(rttNanos, inflightAtStart);
+        } finally {
+            sampleLock.unlock();
+        }
+    }
+
+    private void onSample(long rtt, int inflightAtStart) {
+        longRtt = longRtt == 0 ? rtt : longRtt + (rtt - longRtt) / longWindow;
+        //Recovers from a long overload, the average would otherwise keep the limit low once the latency is back down.
+        if (longRtt / rtt > 2) {
+            longRtt *= LONG_RTT_RECOVERY;
+        }
+        double current = limit;
+        //Latency under a low load says nothing about the limit.
+        if (inflightAtStart < current / 2) {
+            return;
+        }
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, rttTolerance * longRtt / rtt));
+        double estimate = current * gradient + Math.sqrt(current);
+        limit = Math.min(maxLimit, Math.max(minLimit, current * (1 - smoothing) + estimate * smoothing));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+}
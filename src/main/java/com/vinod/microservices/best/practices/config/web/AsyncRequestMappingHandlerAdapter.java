@@ -0,0 +1,105 @@
+package com.vinod.microservices.best.practices.config.web;
+
+import org.springframework.context.i18n.LocaleContext;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.ServletInvocableHandlerMethod;
+
+import javax.servlet.ServletResponse;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Request mapping handler adapter invoking the application's rest controller handlers as MVC callables, the handler
+ * runs on the MVC async executor and the Tomcat worker thread is released until the response is written.
+ * Handlers writing the response themselves keep running on the Tomcat worker thread.
+ */
+public class AsyncRequestMappingHandlerAdapter extends RequestMappingHandlerAdapter {
+
+    private final String controllerPackage;
+    private final int maxConcurrency;
+    private final Semaphore permits;
+
+    /**
+     * @param controllerPackage - Package of the rest controllers invoked asynchronously.
+     * @param maxConcurrency    - Requests handled or waiting for a thread at the same time.
+     */
+    public AsyncRequestMappingHandlerAdapter(String controllerPackage, int maxConcurrency) {
+        this.controllerPackage = controllerPackage;
+        this.maxConcurrency = maxConcurrency;
+        this.permits = new Semaphore(maxConcurrency);
+    }
+
+    /**
+     * @return  - Permits left for new requests, maxConcurrency when no request is handled or waiting.
+     */
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    @Override
+    protected ServletInvocableHandlerMethod createInvocableHandlerMethod(HandlerMethod handlerMethod) {
+        return isAsync(handlerMethod) ? new AsyncInvocableHandlerMethod(handlerMethod) : super.createInvocableHandlerMethod(handlerMethod);
+    }
+
+    private boolean isAsync(HandlerMethod handlerMethod) {
+        Class<?> beanType = handlerMethod.getBeanType();
+        return beanType.getName().startsWith(controllerPackage + ".")
+                && beanType.isAnnotationPresent(RestController.class)
+                && Arrays.stream(handlerMethod.getMethod().getParameterTypes()).noneMatch(type ->
+                ServletResponse.class.isAssignableFrom(type) || OutputStream.class.isAssignableFrom(type) || Writer.class.isAssignableFrom(type));
+    }
+
+    /**
+     * Resolves the handler arguments on the Tomcat worker thread and returns the handler invocation as a callable,
+     * with the locale of the request. The permit is released once, when the handler returns or when the async
+     * request completes, so a callable cancelled in the executor queue by a timeout or an error gives it back too.
+     */
+    private class AsyncInvocableHandlerMethod extends ServletInvocableHandlerMethod {
+
+        AsyncInvocableHandlerMethod(HandlerMethod handlerMethod) {
+            super(handlerMethod);
+        }
+
+        @Override
+        public Object invokeForRequest(NativeWebRequest request, ModelAndViewContainer mavContainer, Object... providedArgs) throws Exception {
+            Object[] args = getMethodArgumentValues(request, mavContainer, providedArgs);
+            if (!permits.tryAcquire()) {
+                throw new TaskRejectedException("Max concurrency of " + maxConcurrency + " requests reached");
+            }
+            AtomicBoolean released = new AtomicBoolean();
+            Runnable release = () -> {
+                if (released.compareAndSet(false, true)) {
+                    permits.release();
+                }
+            };
+            WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(AsyncInvocableHandlerMethod.class.getName(), new CallableProcessingInterceptor() {
+                @Override
+                public <T> void afterCompletion(NativeWebRequest completedRequest, Callable<T> task) {
+                    release.run();
+                }
+            });
+            LocaleContext localeContext = LocaleContextHolder.getLocaleContext();
+            return (Callable<Object>) () -> {
+                LocaleContextHolder.setLocaleContext(localeContext);
+                try {
+                    return doInvoke(args);
+                } finally {
+                    LocaleContextHolder.resetLocaleContext();
+                    release.run();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.vinod.microservices.best.practices.config.web;
+
+import com.vinod.microservices.best.practices.service.IIdempotencyService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.boot.web.servlet.filter.OrderedFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static com.vinod.microservices.best.practices.util.ApplicationConstant.CUSTOMER_SERVICE;
+
+/**
+ * Idempotency-Key handling of the customer endpoints.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "idempotency", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyConfig {
+
+    @Autowired
+    private IIdempotencyService idempotencyService;
+    @Autowired
+    private IdempotencyProperties idempotencyProperties;
+
+    /**
+     * Idempotency filter of the customer endpoints, after the request limit filter so replays are rate limited too.
+     *
+     * @return
+     */
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter() {
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(new IdempotencyFilter(idempotencyService, idempotencyProperties));
+        registration.addUrlPatterns(CUSTOMER_SERVICE, CUSTOMER_SERVICE + "/*");
+        registration.setOrder(OrderedFilter.REQUEST_WRAPPER_FILTER_MAX_ORDER + 1);
+        return registration;
+    }
+}
@@ -0,0 +1,371 @@
+package com.vinod.microservices.best.practices.config.web;
+
+import com.vinod.microservices.best.practices.model.IdempotencyRecord;
+import com.vinod.microservices.best.practices.service.IIdempotencyService;
+import com.vinod.microservices.best.practices.util.ErrorCode;
+import com.vinod.microservices.best.practices.util.ResourceMessage;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static com.vinod.microservices.best.practices.util.ApplicationConstant.APPLICATION_NDJSON;
+import static com.vinod.microservices.best.practices.util.GlobalUtility.writeResponseForError;
+
+/**
+ * Replays the response of a POST, PUT or DELETE request to the retries sent with the same Idempotency-Key, without
+ * reaching the controller again. The key is claimed in the store before the request is executed, duplicates arriving
+ * while the first request is in flight wait for its response, polling the store when it runs on another node.
+ * Responses are stored when their status is under 500, a key sent again with another request is rejected with 422.
+ * Streamed NDJSON responses are not replayed.
+ */
+@Log4j2
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final String EXECUTION_ATTRIBUTE = IdempotencyFilter.class.getName() + ".EXECUTION";
+    private static final List<String> METHODS = Arrays.asList("POST", "PUT", "DELETE", "PATCH");
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final long POLL_INTERVAL_MILLIS = 100;
+
+    private final IIdempotencyService idempotencyService;
+    private final String header;
+    private final long inflightTimeoutMillis;
+    private final Map<String, Execution> inflight = new ConcurrentHashMap<>();
+
+    /**
+     * @param idempotencyService    - Response store.
+     * @param properties            - Idempotency properties.
+     */
+    public IdempotencyFilter(IIdempotencyService idempotencyService, IdempotencyProperties properties) {
+        this.idempotencyService = idempotencyService;
+        this.header = properties.getHeader();
+        this.inflightTimeoutMillis = properties.getInflightTimeout().toMillis();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return !METHODS.contains(request.getMethod()) || null == request.getHeader(header)
+                || (null != accept && accept.contains(APPLICATION_NDJSON));
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        if (isAsyncDispatch(request)) {
+            //ASYNC execution mode, the response is complete once the handler result is dispatched.
+            filterChain.doFilter(request, response);
+            Execution execution = (Execution) request.getAttribute(EXECUTION_ATTRIBUTE);
+            ContentCachingResponseWrapper responseWrapper = WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class);
+            if (null != execution && null != responseWrapper && !request.isAsyncStarted()) {
+                complete(execution, responseWrapper);
+            }
+            return;
+        }
+        String idempotencyKey = request.getHeader(header);
+        if (idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            writeResponseForError(response, HttpStatus.BAD_REQUEST.value(), String.valueOf(ErrorCode.BAD_PARAMETER.getCode()), ResourceMessage.getMessage("application.status.400"));
+            return;
+        }
+        CachedBodyRequest cachedBodyRequest = new CachedBodyRequest(request);
+        String fingerprint = fingerprint(cachedBodyRequest);
+        IdempotencyRecord idempotencyRecord = idempotencyService.find(idempotencyKey);
+        if (null != idempotencyRecord && !idempotencyRecord.isPending()) {
+            replay(response, idempotencyRecord, fingerprint);
+            return;
+        }
+        Execution execution = new Execution(idempotencyKey, fingerprint);
+        Execution running = inflight.putIfAbsent(idempotencyKey, execution);
+        if (null != running) {
+            awaitAndReplay(response, running, fingerprint);
+            return;
+        }
+        if (!idempotencyService.claim(idempotencyKey, fingerprint)) {
+            //Claimed by another node, or completed between the lookup and the registration.
+            idempotencyRecord = awaitStored(idempotencyKey, fingerprint);
+            execution.finish(null != idempotencyRecord && !idempotencyRecord.isPending() ? idempotencyRecord : null);
+            replayStored(response, idempotencyKey, idempotencyRecord, fingerprint);
+            return;
+        }
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        request.setAttribute(EXECUTION_ATTRIBUTE, execution);
+        boolean async = false;
+        try {
+            filterChain.doFilter(cachedBodyRequest, responseWrapper);
+            async = request.isAsyncStarted();
+        } finally {
+            if (async) {
+                request.getAsyncContext().addListener(new ExecutionListener(execution));
+            } else {
+                complete(execution, responseWrapper);
+            }
+        }
+    }
+
+    private void awaitAndReplay(HttpServletResponse response, Execution running, String fingerprint) throws IOException {
+        if (!running.fingerprint.equals(fingerprint)) {
+            rejectReusedKey(response, running.idempotencyKey);
+            return;
+        }
+        replayStored(response, running.idempotencyKey, running.await(inflightTimeoutMillis), fingerprint);
+    }
+
+    /**
+     * Polls the store until the request holding the key on another node has stored its response.
+     *
+     * @return  - IdempotencyRecord object, still pending after the in flight timeout, null if released.
+     */
+    private IdempotencyRecord awaitStored(String idempotencyKey, String fingerprint) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(inflightTimeoutMillis);
+        IdempotencyRecord idempotencyRecord = idempotencyService.find(idempotencyKey);
+        while (null != idempotencyRecord && idempotencyRecord.isPending() && idempotencyRecord.getFingerprint().equals(fingerprint)
+                && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(POLL_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            idempotencyRecord = idempotencyService.find(idempotencyKey);
+        }
+        return idempotencyRecord;
+    }
+
+    private void replayStored(HttpServletResponse response, String idempotencyKey, IdempotencyRecord idempotencyRecord, String fingerprint) throws IOException {
+        if (null == idempotencyRecord || (idempotencyRecord.isPending() && idempotencyRecord.getFingerprint().equals(fingerprint))) {
+            log.debug("Request with idempotency key: {} still in flight or not stored", idempotencyKey);
+            writeResponseForError(response, HttpStatus.CONFLICT.value(), String.valueOf(ErrorCode.IDEMPOTENCY_KEY_IN_PROGRESS.getCode()), ResourceMessage.getMessage("idempotency.key.in.progress"));
+            return;
+        }
+        replay(response, idempotencyRecord, fingerprint);
+    }
+
+    private void complete(Execution execution, ContentCachingResponseWrapper responseWrapper) throws IOException {
+        IdempotencyRecord idempotencyRecord = null;
+        try {
+            if (responseWrapper.getStatus() < HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+                idempotencyRecord = IdempotencyRecord.builder()
+                        .idempotencyKey(execution.idempotencyKey)
+                        .fingerprint(execution.fingerprint)
+                        .status(responseWrapper.getStatus())
+                        .contentType(responseWrapper.getContentType())
+                        .etag(responseWrapper.getHeader(HttpHeaders.ETAG))
+                        .body(new String(responseWrapper.getContentAsByteArray(), StandardCharsets.UTF_8))
+                        .createdAt(LocalDateTime.now())
+                        .build();
+                idempotencyService.save(idempotencyRecord);
+            } else {
+                execution.release();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to store the response of idempotency key: {}, error msg: {}", execution.idempotencyKey, e.getMessage());
+            execution.release();
+        } finally {
+            execution.finish(idempotencyRecord);
+            responseWrapper.copyBodyToResponse();
+        }
+    }
+
+    private void replay(HttpServletResponse response, IdempotencyRecord idempotencyRecord, String fingerprint) throws IOException {
+        if (!idempotencyRecord.getFingerprint().equals(fingerprint)) {
+            rejectReusedKey(response, idempotencyRecord.getIdempotencyKey());
+            return;
+        }
+        response.setStatus(idempotencyRecord.getStatus());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (null != idempotencyRecord.getContentType()) {
+            response.setContentType(idempotencyRecord.getContentType());
+        }
+        if (null != idempotencyRecord.getEtag()) {
+            response.setHeader(HttpHeaders.ETAG, idempotencyRecord.getEtag());
+        }
+        if (null != idempotencyRecord.getBody()) {
+            response.getOutputStream().write(idempotencyRecord.getBody().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private void rejectReusedKey(HttpServletResponse response, String idempotencyKey) throws IOException {
+        log.warn("Idempotency key: {} sent again with another request", idempotencyKey);
+        writeResponseForError(response, HttpStatus.UNPROCESSABLE_ENTITY.value(), String.valueOf(ErrorCode.IDEMPOTENCY_KEY_REUSED.getCode()), ResourceMessage.getMessage("idempotency.key.reused"));
+    }
+
+    /**
+     * SHA-256 of the method, the URI, the If-Match precondition and the body of the request.
+     */
+    private static String fingerprint(CachedBodyRequest request) {
+        MessageDigest digest = DigestUtils.getSha256Digest();
+        digest.update((request.getMethod() + ' ' + request.getRequestURI() + '?' + request.getQueryString() + '\n'
+                + request.getHeader(HttpHeaders.IF_MATCH) + '\n').getBytes(StandardCharsets.UTF_8));
+        digest.update(request.body);
+        return Hex.encodeHexString(digest.digest());
+    }
+
+    /**
+     * Request in flight, the duplicates wait for its stored response.
+     */
+    private class Execution {
+
+        private final String idempotencyKey;
+        private final String fingerprint;
+        private final CompletableFuture<IdempotencyRecord> result = new CompletableFuture<>();
+
+        Execution(String idempotencyKey, String fingerprint) {
+            this.idempotencyKey = idempotencyKey;
+            this.fingerprint = fingerprint;
+        }
+
+        void finish(IdempotencyRecord idempotencyRecord) {
+            inflight.remove(idempotencyKey, this);
+            result.complete(idempotencyRecord);
+        }
+
+        /**
+         * Releases the claim of the key, the retries are executed again.
+         */
+        void release() {
+            try {
+                idempotencyService.release(idempotencyKey);
+            } catch (RuntimeException e) {
+                log.warn("Failed to release idempotency key: {}, error msg: {}", idempotencyKey, e.getMessage());
+            }
+        }
+
+        /**
+         * Releases the claim and the duplicates of a request never completed.
+         */
+        void abandon() {
+            if (!result.isDone()) {
+                release();
+                finish(null);
+            }
+        }
+
+        IdempotencyRecord await(long timeoutMillis) {
+            try {
+                return result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            } catch (ExecutionException | TimeoutException e) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Releases the duplicates of an asynchronous request whose response was never dispatched, e.g. a client disconnect.
+     */
+    private static class ExecutionListener implements AsyncListener {
+
+        private final Execution execution;
+
+        ExecutionListener(Execution execution) {
+            this.execution = execution;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            execution.abandon();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            //Answered through the async dispatch.
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            execution.abandon();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+    /**
+     * Request whose body is read once for the fingerprint and served again to the controller.
+     */
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = StreamUtils.copyToByteArray(request.getInputStream());
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream inputStream = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return inputStream.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return inputStream.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return inputStream.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(), null != encoding ? encoding : StandardCharsets.UTF_8.name()));
+        }
+    }
+}
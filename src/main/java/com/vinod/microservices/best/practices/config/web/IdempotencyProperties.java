@@ -0,0 +1,35 @@
+package com.vinod.microservices.best.practices.config.web;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Idempotency-Key handling of the customer endpoints.
+ */
+@ConfigurationProperties("idempotency")
+@Data
+public class IdempotencyProperties {
+
+    /** Replay the responses of POST, PUT and DELETE requests sent again with the same key. */
+    private boolean enabled = true;
+
+    /** Response store: MEMORY or DATABASE. */
+    private String store = "MEMORY";
+
+    /** Request header carrying the key. */
+    private String header = "Idempotency-Key";
+
+    /** Time a response is replayed for. */
+    private Duration ttl = Duration.ofHours(24);
+
+    /** Maximum number of responses kept by the MEMORY store, the least recently used ones are evicted first. */
+    private long maximumSize = 10_000;
+
+    /** Maximum time a duplicate waits for the request in flight with the same key, answered with 409 after it. */
+    private Duration inflightTimeout = Duration.ofSeconds(30);
+
+    /** Time a key stays claimed by a request in flight in the DATABASE store, the claim of a stopped node is taken over after it. */
+    private Duration claimTimeout = Duration.ofMinutes(2);
+}
@@ -0,0 +1,77 @@
+package com.vinod.microservices.best.practices.config.web;
+
+import com.vinod.microservices.best.practices.controller.CustomerController;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcRegistrations;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * ASYNC execution mode of the customer endpoints, the Tomcat worker thread is released as soon as
+ * the request is handed over to the request executor.
+ */
+@Configuration
+@Log4j2
+@ConditionalOnProperty(prefix = "request.execution", name = "mode", havingValue = "ASYNC")
+public class RequestExecutionConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private RequestExecutionProperties requestExecutionProperties;
+
+    /**
+     * Request executor, closed with the context. Created at startup, so the fallback of VIRTUAL to platform threads
+     * is logged before the first request.
+     *
+     * @return
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService requestExecutor() {
+        if (requestExecutionProperties.getExecutor() == RequestExecutionProperties.ExecutorType.VIRTUAL) {
+            try {
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                log.warn("requestExecutor: request.execution.executor=VIRTUAL needs a Java 21 runtime, running on Java {} with a fixed pool of {} platform threads (request.execution.threads)",
+                        System.getProperty("java.version"), requestExecutionProperties.getThreads());
+            }
+        }
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("request-");
+        threadFactory.setDaemon(true);
+        return Executors.newFixedThreadPool(requestExecutionProperties.getThreads(), threadFactory);
+    }
+
+    /**
+     * Customer controller handlers invoked on the request executor.
+     *
+     * @return
+     */
+    @Bean
+    public WebMvcRegistrations asyncExecutionRegistrations() {
+        return new WebMvcRegistrations() {
+            @Override
+            public RequestMappingHandlerAdapter getRequestMappingHandlerAdapter() {
+                return new AsyncRequestMappingHandlerAdapter(CustomerController.class.getPackage().getName(), requestExecutionProperties.getMaxConcurrency());
+            }
+        };
+    }
+
+    /**
+     * Callables of the customer controller handlers run on the request executor.
+     *
+     * @param configurer - AsyncSupportConfigurer object.
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(new TaskExecutorAdapter(requestExecutor()));
+        configurer.setDefaultTimeout(requestExecutionProperties.getTimeout().toMillis());
+    }
+}
@@ -0,0 +1,41 @@
+package com.vinod.microservices.best.practices.config.web;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Execution of the customer endpoints.
+ */
+@ConfigurationProperties("request.execution")
+@Data
+public class RequestExecutionProperties {
+
+    /** SERVLET handles requests on the Tomcat worker thread, ASYNC releases it and handles them on the request executor. */
+    private Mode mode = Mode.SERVLET;
+
+    /** Executor of the ASYNC mode. */
+    private ExecutorType executor = ExecutorType.PLATFORM;
+
+    /** Platform threads of the PLATFORM executor. */
+    private int threads = 200;
+
+    /** Requests handled or waiting for a thread at the same time, requests over the limit are answered with 503. */
+    private int maxConcurrency = 10_000;
+
+    /** Async request timeout, requests not handled in time are answered with 503. */
+    private Duration timeout = Duration.ofSeconds(30);
+
+    public enum Mode {
+        SERVLET,
+        ASYNC
+    }
+
+    public enum ExecutorType {
+        /** Fixed pool of platform threads. */
+        PLATFORM,
+        /** A virtual thread per request, needs a Java 21 runtime, falls back to PLATFORM otherwise. */
+        VIRTUAL
+    }
+}
@@ -0,0 +1,36 @@
+package com.vinod.microservices.best.practices.config.web;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.boot.web.servlet.filter.OrderedFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static com.vinod.microservices.best.practices.util.ApplicationConstant.CUSTOMER_SERVICE;
+
+/**
+ * Rate limiting and load shedding of the customer endpoints.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "request.limit", name = "enabled", havingValue = "true")
+public class RequestLimitConfig {
+
+    @Autowired
+    private RequestLimitProperties requestLimitProperties;
+
+    /**
+     * Request limit filter of the customer endpoints, after the request context filter so the rejections are localized.
+     *
+     * @param meterRegistry
+     * @return
+     */
+    @Bean
+    public FilterRegistrationBean<RequestLimitFilter> requestLimitFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<RequestLimitFilter> registration = new FilterRegistrationBean<>(new RequestLimitFilter(requestLimitProperties, meterRegistry));
+        registration.addUrlPatterns(CUSTOMER_SERVICE, CUSTOMER_SERVICE + "/*");
+        registration.setOrder(OrderedFilter.REQUEST_WRAPPER_FILTER_MAX_ORDER);
+        return registration;
+    }
+}
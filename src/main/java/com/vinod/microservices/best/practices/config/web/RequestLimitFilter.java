@@ -0,0 +1,160 @@
+package com.vinod.microservices.best.practices.config.web;
+
+import com.vinod.microservices.best.practices.util.ErrorCode;
+import com.vinod.microservices.best.practices.util.ResourceMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.security.Principal;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.vinod.microservices.best.practices.util.GlobalUtility.writeResponseForError;
+
+/**
+ * Rate limits the customer endpoints per client and sheds the load over the adaptive concurrency limit, before the
+ * request reaches the controller. Decisions are counted under request.limit.decisions with the limiter and the outcome.
+ */
+@Log4j2
+public class RequestLimitFilter extends OncePerRequestFilter {
+
+    static final String DECISIONS_METRIC = "request.limit.decisions";
+
+    private final TokenBucketRateLimiter rateLimiter;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final Counter rateAccepted;
+    private final Counter rateRejected;
+    private final Counter concurrencyAccepted;
+    private final Counter concurrencyRejected;
+
+    /**
+     * @param properties    - Request limit properties.
+     * @param meterRegistry - Registry of the decision counters and the limiter gauges.
+     */
+    public RequestLimitFilter(RequestLimitProperties properties, MeterRegistry meterRegistry) {
+        RequestLimitProperties.Rate rate = properties.getRate();
+        this.rateLimiter = rate.isEnabled() ? new TokenBucketRateLimiter(rate.getPermitsPerSecond(), rate.getBurst(), rate.getMaxClients()) : null;
+        this.concurrencyLimiter = properties.getConcurrency().isEnabled() ? new AdaptiveConcurrencyLimiter(properties.getConcurrency()) : null;
+        this.rateAccepted = decisionCounter(meterRegistry, "rate", "accepted");
+        this.rateRejected = decisionCounter(meterRegistry, "rate", "rejected");
+        this.concurrencyAccepted = decisionCounter(meterRegistry, "concurrency", "accepted");
+        this.concurrencyRejected = decisionCounter(meterRegistry, "concurrency", "rejected");
+        if (null != rateLimiter) {
+            Gauge.builder("request.limit.rate.clients", rateLimiter, TokenBucketRateLimiter::clients).register(meterRegistry);
+        }
+        if (null != concurrencyLimiter) {
+            Gauge.builder("request.limit.concurrency.limit", concurrencyLimiter, AdaptiveConcurrencyLimiter::getLimit).register(meterRegistry);
+            Gauge.builder("request.limit.concurrency.inflight", concurrencyLimiter, AdaptiveConcurrencyLimiter::getInflight).register(meterRegistry);
+        }
+    }
+
+    private static Counter decisionCounter(MeterRegistry meterRegistry, String limiter, String outcome) {
+        return Counter.builder(DECISIONS_METRIC).tag("limiter", limiter).tag("outcome", outcome).register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        if (null != rateLimiter) {
+            long wait = rateLimiter.tryAcquire(clientKey(request));
+            if (wait > 0) {
+                rateRejected.increment();
+                response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(TimeUnit.NANOSECONDS.toSeconds(wait - 1) + 1));
+                reject(response, HttpStatus.TOO_MANY_REQUESTS, ErrorCode.TOO_MANY_REQUESTS, "application.status.429");
+                return;
+            }
+            rateAccepted.increment();
+        }
+        if (null == concurrencyLimiter) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        int inflight = concurrencyLimiter.tryAcquire();
+        if (inflight == 0) {
+            concurrencyRejected.increment();
+            log.debug("Request: {} shed, concurrency limit: {}", request.getRequestURI(), concurrencyLimiter.getLimit());
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, ErrorCode.SERVICE_UNAVAILABLE, "application.status.503");
+            return;
+        }
+        concurrencyAccepted.increment();
+        long start = System.nanoTime();
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            async = request.isAsyncStarted();
+        } finally {
+            if (async) {
+                request.getAsyncContext().addListener(new ReleaseListener(start, inflight));
+            } else {
+                concurrencyLimiter.release(System.nanoTime() - start, inflight);
+            }
+        }
+    }
+
+    /**
+     * Client of the rate limit, the authenticated user or else the remote address. Behind a load balancer the remote
+     * address is the client forwarded by the trusted proxies with server.forward-headers-strategy, headers sent by the
+     * client itself are not used as they would let it pick a new bucket per request.
+     */
+    private static String clientKey(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        return null != principal ? "user:" + principal.getName() : "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, ErrorCode errorCode, String messageCode) throws IOException {
+        writeResponseForError(response, status.value(), String.valueOf(errorCode.getCode()), ResourceMessage.getMessage(messageCode));
+    }
+
+    /**
+     * Releases the concurrency slot of a request handled asynchronously once its response is complete.
+     */
+    private class ReleaseListener implements AsyncListener {
+
+        private final long start;
+        private final int inflight;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        ReleaseListener(long start, int inflight) {
+            this.start = start;
+            this.inflight = inflight;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            //Still the same request.
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                concurrencyLimiter.release(System.nanoTime() - start, inflight);
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.vinod.microservices.best.practices.config.web;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Rate limiting and load shedding of the customer endpoints.
+ */
+@ConfigurationProperties("request.limit")
+@Data
+public class RequestLimitProperties {
+
+    /** Limit the customer endpoints, false (default) lets every request through. */
+    private boolean enabled;
+
+    private Rate rate = new Rate();
+
+    private Concurrency concurrency = new Concurrency();
+
+    /**
+     * Token bucket per client, the authenticated user or the remote address, requests over the rate are answered with 429.
+     */
+    @Data
+    public static class Rate {
+
+        private boolean enabled = true;
+
+        /** Tokens added to the bucket of a client per second. */
+        private double permitsPerSecond = 100;
+
+        /** Bucket capacity, requests a client can send at once. */
+        private int burst = 200;
+
+        /** Buckets kept in memory, the least recently used ones are dropped first. */
+        private int maxClients = 100_000;
+    }
+
+    /**
+     * Adaptive concurrency limit, requests over the limit are answered with 503.
+     */
+    @Data
+    public static class Concurrency {
+
+        private boolean enabled = true;
+
+        /** Limit before the first latency samples. */
+        private int initialLimit = 200;
+
+        private int minLimit = 20;
+
+        private int maxLimit = 1_000;
+
+        /** Weight of the new limit estimate, 1 applies it at once. */
+        private double smoothing = 0.2;
+
+        /** Latency increase over the long term average tolerated before the limit is reduced. */
+        private double rttTolerance = 1.5;
+
+        /** Number of samples of the long term latency average. */
+        private int longWindow = 600;
+    }
+}
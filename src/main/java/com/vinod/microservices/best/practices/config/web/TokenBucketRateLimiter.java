@@ -0,0 +1,64 @@
+package com.vinod.microservices.best.practices.config.web;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket per client, lock-free. A bucket is a single theoretical arrival time (GCRA), taking a token moves it
+ * one emission interval forward with a compare and set, the bucket is empty once it is more than the burst ahead of now.
+ * Buckets idle long enough to be full again are dropped.
+ */
+public class TokenBucketRateLimiter {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final Cache<String, AtomicLong> buckets;
+
+    /**
+     * @param permitsPerSecond  - Tokens added per second.
+     * @param burst             - Bucket capacity.
+     * @param maxClients        - Buckets kept in memory.
+     */
+    public TokenBucketRateLimiter(double permitsPerSecond, int burst, int maxClients) {
+        this.emissionIntervalNanos = Math.max(1L, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.burstToleranceNanos = emissionIntervalNanos * Math.max(1, burst);
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(burstToleranceNanos, TimeUnit.NANOSECONDS)
+                .build();
+    }
+
+    /**
+     * Takes a token from the bucket of the client.
+     *
+     * @param client    - Client key.
+     * @return          - 0 when the token is taken, otherwise the nanos until the next token.
+     */
+    public long tryAcquire(String client) {
+        long now = System.nanoTime();
+        AtomicLong arrival = buckets.get(client, key -> new AtomicLong(now));
+        while (true) {
+            long current = arrival.get();
+            long next = Math.max(current, now) + emissionIntervalNanos;
+            long wait = next - burstToleranceNanos - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Buckets in memory.
+     *
+     * @return
+     */
+    public long clients() {
+        return buckets.estimatedSize();
+    }
+}
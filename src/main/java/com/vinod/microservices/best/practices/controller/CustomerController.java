@@ -1,10 +1,23 @@
 package com.vinod.microservices.best.practices.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.vinod.microservices.best.practices.dto.CustomerBatchResponseDto;
+import com.vinod.microservices.best.practices.dto.CustomerBatchResultDto;
+import com.vinod.microservices.best.practices.dto.CustomerBulkDto;
+import com.vinod.microservices.best.practices.dto.CustomerBulkResultDto;
 import com.vinod.microservices.best.practices.dto.CustomerDto;
+import com.vinod.microservices.best.practices.dto.CustomerPageDto;
 import com.vinod.microservices.best.practices.dto.CustomerRegisterDto;
 import com.vinod.microservices.best.practices.dto.CustomerUpdateDto;
+import com.vinod.microservices.best.practices.exception.CustomerModifiedException;
 import com.vinod.microservices.best.practices.exception.UserNotFoundException;
 import com.vinod.microservices.best.practices.service.ICustomerService;
+import com.vinod.microservices.best.practices.util.ErrorCode;
 import com.vinod.microservices.best.practices.util.ResourceMessage;
 import com.vinod.microservices.best.practices.util.Response;
 import io.swagger.v3.oas.annotations.Operation;
@@ -15,14 +28,39 @@ import lombok.extern.log4j.Log4j2;
 import org.apache.http.HttpStatus;
 import org.apache.skywalking.apm.toolkit.trace.Trace;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.Email;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
 
+import static com.vinod.microservices.best.practices.util.ApplicationConstant.APPLICATION_NDJSON;
+import static com.vinod.microservices.best.practices.util.ApplicationConstant.CUSTOMER_BATCH_MAX_ITEMS;
+import static com.vinod.microservices.best.practices.util.ApplicationConstant.CUSTOMER_EXPORT_FETCH_SIZE;
+import static com.vinod.microservices.best.practices.util.ApplicationConstant.CUSTOMER_PAGE_DEFAULT_LIMIT;
+import static com.vinod.microservices.best.practices.util.ApplicationConstant.CUSTOMER_PAGE_MAX_LIMIT;
 import static com.vinod.microservices.best.practices.util.ApplicationConstant.CUSTOMER_SERVICE;
+import static com.vinod.microservices.best.practices.util.ApplicationConstant.CUSTOMER_STATUS_PATTERN;
+import static com.vinod.microservices.best.practices.util.GlobalUtility.buildETag;
 import static com.vinod.microservices.best.practices.util.GlobalUtility.buildResponseForSuccess;
 
 @RestController
@@ -35,6 +73,11 @@ public class CustomerController {
     private ICustomerService customerService;
     @Autowired
     private ResourceMessage resourceMessage;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${customer.batch.size:50}")
+    private int batchSize;
 
     /**
      * This endpoint is for adding new customer information into the system.
@@ -56,24 +99,95 @@ public class CustomerController {
     }
 
     /**
-     * This endpoint is for updating the existing customer details into the system.
+     * This endpoint is for adding a batch of new customers into the system, result is reported per customer.
+     *
+     * @param customerRegisterDtos  - CustomerRegisterDto objects.
+     * @return                      - Response with CustomerBatchResponseDto.
+     */
+    @Operation(summary = "This endpoint is for adding a batch of new customers into the system.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Processed the batch, see the result of each customer.",content = {@Content(mediaType = "application/json")}),
+            @ApiResponse(responseCode = "400", description = "Empty batch or batch larger than the allowed size.",content = {@Content(mediaType = "application/json")}),
+            @ApiResponse(responseCode = "500", description = "Exception occurred while adding the customer batch to the system.",content = {@Content(mediaType = "application/json")}),
+    })
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Trace
+    public ResponseEntity<Response> addNewCustomers(@RequestBody @NotEmpty(message = "Customer batch is empty.") @Size(max = CUSTOMER_BATCH_MAX_ITEMS, message = "Customer batch is too large, use application/x-ndjson for large imports.") List<CustomerRegisterDto> customerRegisterDtos) {
+        log.trace("Request came to add batch of {} customers", customerRegisterDtos.size());
+        List<CustomerBatchResultDto> results = customerService.addCustomers(customerRegisterDtos);
+        return buildResponseForSuccess(HttpStatus.SC_OK,resourceMessage.getMessage("customer.batch.processed"),CustomerBatchResponseDto.of(results));
+    }
+
+    /**
+     * This endpoint is for streaming import of new customers, one JSON customer per line.
+     * Customers are saved every customer.batch.size lines and one JSON result per line is streamed back.
+     *
+     * @param request   - NDJSON request.
+     * @param response  - NDJSON response.
+     * @throws IOException
+     */
+    @Operation(summary = "This endpoint is for streaming import of new customers, one JSON customer per line.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "One result per customer line.",content = {@Content(mediaType = APPLICATION_NDJSON)}),
+    })
+    @PostMapping(value = "/batch", consumes = APPLICATION_NDJSON, produces = APPLICATION_NDJSON)
+    @Trace
+    public void addNewCustomersStream(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        log.trace("Request came to add stream of customers");
+        ObjectReader reader = objectMapper.readerFor(CustomerRegisterDto.class);
+        ObjectWriter writer = objectMapper.writerFor(CustomerBatchResultDto.class);
+        response.setStatus(HttpStatus.SC_OK);
+        response.setContentType(APPLICATION_NDJSON);
+        response.setCharacterEncoding("UTF-8");
+        BufferedReader lines = request.getReader();
+        Writer out = response.getWriter();
+        List<CustomerRegisterDto> chunk = new ArrayList<>(batchSize);
+        List<Integer> chunkIndexes = new ArrayList<>(batchSize);
+        int index = 0;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            try {
+                chunk.add(reader.readValue(line));
+                chunkIndexes.add(index);
+            } catch (JsonProcessingException e) {
+                writeLine(out, writer, CustomerBatchResultDto.builder().index(index).created(false).errorCode(String.valueOf(ErrorCode.BAD_PARAMETER.getCode())).errors(Collections.singletonList(e.getOriginalMessage())).build());
+            }
+            index++;
+            if (chunk.size() == batchSize) {
+                writeChunk(out, writer, chunk, chunkIndexes);
+            }
+        }
+        writeChunk(out, writer, chunk, chunkIndexes);
+        log.info("Successfully processed stream of {} customers", index);
+    }
+
+    /**
+     * This endpoint is for updating the existing customer details into the system. With If-Match the customer is
+     * only updated when it still has one of the given ETags, the response carries the ETag of the updated customer.
      *
      * @param emailId               - Customer Email Id.
      * @param customerUpdateDto     - CustomerUpdateDto object.
+     * @param ifMatch               - If-Match header, optional.
      * @return                      - Response.
      */
     @Operation(summary = "This endpoint is for updating the existing customer details into the system.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully updated the customer details.",content = {@Content(mediaType = "application/json")}),
             @ApiResponse(responseCode = "400", description = "Given customer information not found in the system.",content = {@Content(mediaType = "application/json")}),
+            @ApiResponse(responseCode = "409", description = "Customer updated by a concurrent request.",content = {@Content(mediaType = "application/json")}),
+            @ApiResponse(responseCode = "412", description = "Customer does not match the If-Match ETag.",content = {@Content(mediaType = "application/json")}),
             @ApiResponse(responseCode = "500", description = "Exception occurred while updating the customer details into the system.",content = {@Content(mediaType = "application/json")}),
     })
     @PutMapping("/{emailId}")
     @Trace
-    public ResponseEntity<Response> updateCustomer(@PathVariable("emailId") @Email(message = "Please email enter a valid email address.") String emailId, @Valid  @RequestBody CustomerUpdateDto customerUpdateDto) throws UserNotFoundException {
+    public ResponseEntity<Response> updateCustomer(@PathVariable("emailId") @Email(message = "Please email enter a valid email address.") String emailId, @Valid  @RequestBody CustomerUpdateDto customerUpdateDto,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) throws UserNotFoundException, CustomerModifiedException {
         log.trace("Request came to update customer details: {}", customerUpdateDto);
-        customerService.updateCustomer(customerUpdateDto, emailId);
-        return buildResponseForSuccess(HttpStatus.SC_OK,resourceMessage.getMessage("customer.updated.successfully"),null);
+        CustomerDto customerDto = customerService.updateCustomer(customerUpdateDto, emailId, ifMatch);
+        return buildResponseForSuccess(HttpStatus.SC_OK,resourceMessage.getMessage("customer.updated.successfully"),null,buildETag(customerDto.getId(), customerDto.getVersion()));
     }
 
     /**
@@ -97,7 +211,8 @@ public class CustomerController {
     }
 
     /**
-     * Get customer details base on the customer Email id.
+     * Get customer details base on the customer Email id. The response carries the ETag of the customer,
+     * a request with a matching If-None-Match gets a 304 without body.
      *
      * @param emailId   - Customer Email Id.
      * @return          - CustomerDto object.
@@ -106,14 +221,215 @@ public class CustomerController {
     @Operation(summary = "This endpoint to get the customer details information from the system.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully fetched customer details.",content = {@Content(mediaType = "application/json")}),
+            @ApiResponse(responseCode = "304", description = "Customer not modified since the If-None-Match ETag."),
             @ApiResponse(responseCode = "400", description = "Given customer information not found in the system.",content = {@Content(mediaType = "application/json")}),
             @ApiResponse(responseCode = "500", description = "Exception occurred while fetching the customer details from the system.",content = {@Content(mediaType = "application/json")}),
     })
     @GetMapping("/{emailId}")
     @Trace
     public ResponseEntity<Response> getCustomer(@PathVariable("emailId") @Email(message = "Please email enter a valid email address.") String emailId) throws UserNotFoundException {
-        log.info("Request came to get the customer details having the email id: {}", emailId);
+        log.trace("Request came to get the customer details having the email id: {}", emailId);
         CustomerDto customerDto= customerService.getCustomerByEmailId(emailId);
-        return buildResponseForSuccess(HttpStatus.SC_OK,resourceMessage.getMessage("customer.fetched.successfully"),customerDto);
+        return buildResponseForSuccess(HttpStatus.SC_OK,resourceMessage.getMessage("customer.fetched.successfully"),customerDto,buildETag(customerDto.getId(), customerDto.getVersion()));
+    }
+
+    /**
+     * This endpoint is for listing the customers page by page, ordered by id. The next page is requested with
+     * afterId set to the nextAfterId of the current page, null once the last page is reached.
+     *
+     * @param status    - Customer status filter, optional.
+     * @param afterId   - Last id of the previous page, 0 for the first page.
+     * @param limit     - Page size.
+     * @return          - Response with CustomerPageDto.
+     */
+    @Operation(summary = "This endpoint is for listing the customers page by page.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully fetched the customer page.",content = {@Content(mediaType = "application/json")}),
+            @ApiResponse(responseCode = "400", description = "Invalid status, afterId or limit.",content = {@Content(mediaType = "application/json")}),
+            @ApiResponse(responseCode = "500", description = "Exception occurred while fetching the customers from the system.",content = {@Content(mediaType = "application/json")}),
+    })
+    @GetMapping
+    @Trace
+    public ResponseEntity<Response> getCustomers(@RequestParam(value = "status", required = false) @Pattern(regexp = CUSTOMER_STATUS_PATTERN, message = "Please enter a valid customer status.") String status,
+                                                 @RequestParam(value = "afterId", defaultValue = "0") @Min(value = 0, message = "afterId must not be negative.") long afterId,
+                                                 @RequestParam(value = "limit", defaultValue = "" + CUSTOMER_PAGE_DEFAULT_LIMIT) @Min(value = 1, message = "limit must be at least 1.") @Max(value = CUSTOMER_PAGE_MAX_LIMIT, message = "limit is too large, use the export endpoint.") int limit) {
+        log.trace("Request came to get {} customers after id: {} having status: {}", limit, afterId, status);
+        CustomerPageDto customerPageDto = customerService.getCustomers(status, afterId, limit);
+        return buildResponseForSuccess(HttpStatus.SC_OK,resourceMessage.getMessage("customer.listed.successfully"),customerPageDto);
+    }
+
+    /**
+     * This endpoint is for exporting every customer, one JSON customer per line ordered by id.
+     * Rows are written to the response as they are read from the database cursor.
+     *
+     * @param status    - Customer status filter, optional.
+     * @param response  - NDJSON response.
+     * @throws IOException
+     */
+    @Operation(summary = "This endpoint is for exporting every customer, one JSON customer per line.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "One customer per line.",content = {@Content(mediaType = APPLICATION_NDJSON)}),
+    })
+    @GetMapping(value = "/export", produces = APPLICATION_NDJSON)
+    @Trace
+    public void exportCustomers(@RequestParam(value = "status", required = false) @Pattern(regexp = CUSTOMER_STATUS_PATTERN, message = "Please enter a valid customer status.") String status,
+                                HttpServletResponse response) throws IOException {
+        log.trace("Request came to export customers having status: {}", status);
+        ObjectWriter writer = objectMapper.writerFor(CustomerDto.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        response.setStatus(HttpStatus.SC_OK);
+        response.setContentType(APPLICATION_NDJSON);
+        response.setCharacterEncoding("UTF-8");
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getWriter())) {
+            generator.setRootValueSeparator(null);
+            long[] written = {0};
+            customerService.exportCustomers(status, customerDto -> {
+                try {
+                    writer.writeValue(generator, customerDto);
+                    generator.writeRaw('\n');
+                    if (++written[0] % CUSTOMER_EXPORT_FETCH_SIZE == 0) {
+                        generator.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * This endpoint is for deleting the customers selected by email id or by status, chunk by chunk.
+     *
+     * @param customerBulkDto   - CustomerBulkDto object.
+     * @return                  - Response with CustomerBulkResultDto.
+     */
+    @Operation(summary = "This endpoint is for deleting the customers selected by email id or by status.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully deleted the customers.",content = {@Content(mediaType = "application/json")}),
+            @ApiResponse(responseCode = "400", description = "Invalid customer selection.",content = {@Content(mediaType = "application/json")}),
+            @ApiResponse(responseCode = "500", description = "Exception occurred while deleting the customers from the system.",content = {@Content(mediaType = "application/json")}),
+    })
+    @PostMapping(value = "/bulk/delete", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Trace
+    public ResponseEntity<Response> deleteCustomers(@Valid @RequestBody CustomerBulkDto customerBulkDto) {
+        log.trace("Request came to delete customers: {}", customerBulkDto);
+        CustomerBulkResultDto result = customerService.deleteCustomers(customerBulkDto, progress -> log.debug("Bulk delete progress: {}", progress));
+        return buildResponseForSuccess(HttpStatus.SC_OK,resourceMessage.getMessage("customer.bulk.deleted"),result);
+    }
+
+    /**
+     * This endpoint is for deleting the customers selected by email id or by status, one JSON progress line is streamed per chunk.
+     *
+     * @param customerBulkDto   - CustomerBulkDto object.
+     * @param response          - NDJSON response.
+     * @throws IOException
+     */
+    @Operation(summary = "This endpoint is for deleting the customers selected by email id or by status, with the progress of each chunk.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "One progress line per chunk.",content = {@Content(mediaType = APPLICATION_NDJSON)}),
+    })
+    @PostMapping(value = "/bulk/delete", consumes = MediaType.APPLICATION_JSON_VALUE, produces = APPLICATION_NDJSON)
+    @Trace
+    public void deleteCustomersStream(@Valid @RequestBody CustomerBulkDto customerBulkDto, HttpServletResponse response) throws IOException {
+        log.trace("Request came to delete customers with progress: {}", customerBulkDto);
+        writeProgress(response, progress -> customerService.deleteCustomers(customerBulkDto, progress));
+    }
+
+    /**
+     * This endpoint is for changing the status of the customers selected by email id or by status, chunk by chunk.
+     *
+     * @param status            - New customer status.
+     * @param customerBulkDto   - CustomerBulkDto object.
+     * @return                  - Response with CustomerBulkResultDto.
+     */
+    @Operation(summary = "This endpoint is for changing the status of the customers selected by email id or by status.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully changed the customer status.",content = {@Content(mediaType = "application/json")}),
+            @ApiResponse(responseCode = "400", description = "Invalid status or customer selection.",content = {@Content(mediaType = "application/json")}),
+            @ApiResponse(responseCode = "500", description = "Exception occurred while changing the customer status.",content = {@Content(mediaType = "application/json")}),
+    })
+    @PostMapping(value = "/bulk/status/{status}", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Trace
+    public ResponseEntity<Response> changeCustomerStatus(@PathVariable("status") @Pattern(regexp = CUSTOMER_STATUS_PATTERN, message = "Please enter a valid customer status.") String status,
+                                                         @Valid @RequestBody CustomerBulkDto customerBulkDto) {
+        log.trace("Request came to change the status of customers: {} to: {}", customerBulkDto, status);
+        CustomerBulkResultDto result = customerService.changeCustomerStatus(customerBulkDto, status, progress -> log.debug("Bulk status change progress: {}", progress));
+        return buildResponseForSuccess(HttpStatus.SC_OK,resourceMessage.getMessage("customer.bulk.status.changed"),result);
+    }
+
+    /**
+     * This endpoint is for changing the status of the customers selected by email id or by status, one JSON progress line is streamed per chunk.
+     *
+     * @param status            - New customer status.
+     * @param customerBulkDto   - CustomerBulkDto object.
+     * @param response          - NDJSON response.
+     * @throws IOException
+     */
+    @Operation(summary = "This endpoint is for changing the status of the customers selected by email id or by status, with the progress of each chunk.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "One progress line per chunk.",content = {@Content(mediaType = APPLICATION_NDJSON)}),
+    })
+    @PostMapping(value = "/bulk/status/{status}", consumes = MediaType.APPLICATION_JSON_VALUE, produces = APPLICATION_NDJSON)
+    @Trace
+    public void changeCustomerStatusStream(@PathVariable("status") @Pattern(regexp = CUSTOMER_STATUS_PATTERN, message = "Please enter a valid customer status.") String status,
+                                           @Valid @RequestBody CustomerBulkDto customerBulkDto, HttpServletResponse response) throws IOException {
+        log.trace("Request came to change the status of customers with progress: {} to: {}", customerBulkDto, status);
+        writeProgress(response, progress -> customerService.changeCustomerStatus(customerBulkDto, status, progress));
+    }
+
+    /**
+     * Run the bulk operation and stream one progress line per committed chunk.
+     *
+     * @param response  - NDJSON response.
+     * @param operation - Bulk operation, called with the progress consumer.
+     * @throws IOException
+     */
+    private void writeProgress(HttpServletResponse response, Consumer<Consumer<CustomerBulkResultDto>> operation) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(CustomerBulkResultDto.class);
+        response.setStatus(HttpStatus.SC_OK);
+        response.setContentType(APPLICATION_NDJSON);
+        response.setCharacterEncoding("UTF-8");
+        Writer out = response.getWriter();
+        try {
+            operation.accept(progress -> {
+                try {
+                    out.write(writer.writeValueAsString(progress));
+                    out.write('\n');
+                    out.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Save the collected chunk and stream its results.
+     *
+     * @param out           - Response writer.
+     * @param writer        - Result writer.
+     * @param chunk         - Customers of the chunk, cleared afterwards.
+     * @param chunkIndexes  - Line index of each customer, cleared afterwards.
+     * @throws IOException
+     */
+    private void writeChunk(Writer out, ObjectWriter writer, List<CustomerRegisterDto> chunk, List<Integer> chunkIndexes) throws IOException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        for (CustomerBatchResultDto result : customerService.addCustomers(chunk)) {
+            result.setIndex(chunkIndexes.get(result.getIndex()));
+            writeLine(out, writer, result);
+        }
+        out.flush();
+        chunk.clear();
+        chunkIndexes.clear();
+    }
+
+    private void writeLine(Writer out, ObjectWriter writer, CustomerBatchResultDto result) throws IOException {
+        out.write(writer.writeValueAsString(result));
+        out.write('\n');
     }
 }
@@ -0,0 +1,32 @@
+package com.vinod.microservices.best.practices.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Summary of a customer batch registration.
+ */
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerBatchResponseDto {
+    private int total;
+    private int created;
+    private int failed;
+    private List<CustomerBatchResultDto> results;
+
+    public static CustomerBatchResponseDto of(List<CustomerBatchResultDto> results) {
+        int created = (int) results.stream().filter(CustomerBatchResultDto::isCreated).count();
+        return CustomerBatchResponseDto.builder()
+                .total(results.size())
+                .created(created)
+                .failed(results.size() - created)
+                .results(results)
+                .build();
+    }
+}
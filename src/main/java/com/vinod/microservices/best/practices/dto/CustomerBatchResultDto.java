@@ -0,0 +1,26 @@
+package com.vinod.microservices.best.practices.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Result of a single item of a customer batch registration.
+ */
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CustomerBatchResultDto {
+    private int index;
+    private String emailId;
+    private Long id;
+    private boolean created;
+    private String errorCode;
+    private List<String> errors;
+}
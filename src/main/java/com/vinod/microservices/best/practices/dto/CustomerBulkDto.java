@@ -0,0 +1,38 @@
+package com.vinod.microservices.best.practices.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.AssertTrue;
+import javax.validation.constraints.Email;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+import static com.vinod.microservices.best.practices.util.ApplicationConstant.CUSTOMER_BULK_MAX_EMAIL_IDS;
+import static com.vinod.microservices.best.practices.util.ApplicationConstant.CUSTOMER_STATUS_PATTERN;
+
+/**
+ * Customers of a bulk operation, selected either by email id or by status.
+ */
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerBulkDto {
+
+    @Size(max = CUSTOMER_BULK_MAX_EMAIL_IDS, message = "Too many email ids, select the customers by status.")
+    private List<@Email(message = "Please email enter a valid email address.") String> emailIds;
+
+    @Pattern(regexp = CUSTOMER_STATUS_PATTERN, message = "Please enter a valid customer status.")
+    private String status;
+
+    @JsonIgnore
+    @AssertTrue(message = "Please select the customers either by emailIds or by status.")
+    public boolean isSelectionValid() {
+        return (null != emailIds && !emailIds.isEmpty()) != (null != status);
+    }
+}
@@ -0,0 +1,18 @@
+package com.vinod.microservices.best.practices.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Progress of a bulk operation, customers affected by the chunks committed so far.
+ */
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerBulkResultDto {
+    private int chunks;
+    private long affected;
+}
@@ -1,5 +1,6 @@
 package com.vinod.microservices.best.practices.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -14,4 +15,7 @@ public class CustomerDto {
     private String name;
     private String emailId;
     private String address;
+    /** Version of the ETag, not part of the JSON body. */
+    @JsonIgnore
+    private Long version;
 }
@@ -15,4 +15,5 @@ public class CustomerMessageData implements Serializable {
 
     private String firstName;
     private String emailId;
+    private String status;
 }
@@ -0,0 +1,29 @@
+package com.vinod.microservices.best.practices.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Keyset page of customers, the next page is requested with afterId set to nextAfterId.
+ */
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerPageDto {
+    private List<CustomerDto> customers;
+    private int size;
+    private Long nextAfterId;
+
+    public static CustomerPageDto of(List<CustomerDto> customers, int limit) {
+        return CustomerPageDto.builder()
+                .customers(customers)
+                .size(customers.size())
+                .nextAfterId(customers.size() == limit ? customers.get(customers.size() - 1).getId() : null)
+                .build();
+    }
+}
@@ -1,6 +1,7 @@
 package com.vinod.microservices.best.practices.event;
 
 import com.vinod.microservices.best.practices.dto.CustomerMessageData;
+import com.vinod.microservices.best.practices.service.IOutboxService;
 import com.vinod.microservices.best.practices.service.IPublisherService;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,15 +14,30 @@ public class CustomerCreatedEvent {
 
     @Autowired
     private IPublisherService publisherEvent;
+    @Autowired
+    private IOutboxService outboxService;
 
     @Value("${event.topic.customer.created}")
     private String eventCustomerCreated;
+    @Value("${outbox.enabled:true}")
+    private boolean outboxEnabled;
 
+    /**
+     * Raise customer created event. With the outbox enabled it is recorded in the caller transaction
+     * and published by the outbox relay, otherwise it is published directly.
+     *
+     * @param msgData - Customer message data.
+     */
     public void on(CustomerMessageData msgData) {
         log.trace("Request came to raise event for customer created: {}",msgData);
+        if (outboxEnabled) {
+            outboxService.recordEvent(eventCustomerCreated, msgData);
+            log.info("Successfully recorded event for customer created: {}",msgData);
+            return;
+        }
         try{
             publisherEvent.publish(eventCustomerCreated, msgData);
-            log.info("Successfully publish message for customer created: {}",msgData);
+            log.info("Successfully raised event for customer created: {}",msgData);
         } catch (Exception e) {
             log.error("Error occurred while raising event for customer created: {}",msgData,e);
         }
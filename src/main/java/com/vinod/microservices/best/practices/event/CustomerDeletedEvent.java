@@ -0,0 +1,64 @@
+package com.vinod.microservices.best.practices.event;
+
+import com.vinod.microservices.best.practices.dto.CustomerMessageData;
+import com.vinod.microservices.best.practices.service.IOutboxService;
+import com.vinod.microservices.best.practices.service.IQueueService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Objects;
+
+@Service
+@Log4j2
+public class CustomerDeletedEvent {
+
+    @Autowired
+    private IQueueService queueService;
+    @Autowired
+    private IOutboxService outboxService;
+
+    @Value("${queue.customer.deleted}")
+    private String queueCustomerDeleted;
+    @Value("${outbox.enabled:true}")
+    private boolean outboxEnabled;
+
+    /**
+     * Raise customer deleted message. With the outbox enabled it is recorded in the caller transaction
+     * and sent by the outbox relay, otherwise it is sent directly.
+     *
+     * @param msgData - Customer message data.
+     */
+    public void on(CustomerMessageData msgData) {
+        log.trace("Request came to raise message for customer deleted: {}",msgData);
+        if (outboxEnabled) {
+            outboxService.recordQueueMessage(queueCustomerDeleted, msgData);
+            log.info("Successfully recorded message for customer deleted: {}",msgData);
+            return;
+        }
+        queueService.sendMessage(queueCustomerDeleted, msgData);
+        log.info("Successfully sent message for customer deleted: {}",msgData);
+    }
+
+    /**
+     * Raise one customer deleted message per customer, recorded in the outbox in JDBC batches
+     * or sent directly with batched queue sends.
+     *
+     * @param msgDatas - Customer message data.
+     */
+    public void onAll(List<CustomerMessageData> msgDatas) {
+        log.trace("Request came to raise {} messages for customers deleted",msgDatas.size());
+        if (msgDatas.isEmpty()) {
+            return;
+        }
+        if (outboxEnabled) {
+            outboxService.recordQueueMessages(queueCustomerDeleted, msgDatas);
+            log.info("Successfully recorded {} messages for customers deleted",msgDatas.size());
+            return;
+        }
+        long sent = queueService.sendMessages(queueCustomerDeleted, msgDatas).stream().filter(Objects::nonNull).count();
+        log.info("Successfully sent {} out of {} messages for customers deleted",sent,msgDatas.size());
+    }
+}
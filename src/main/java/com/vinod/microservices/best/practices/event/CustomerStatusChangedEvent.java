@@ -0,0 +1,47 @@
+package com.vinod.microservices.best.practices.event;
+
+import com.vinod.microservices.best.practices.dto.CustomerMessageData;
+import com.vinod.microservices.best.practices.service.IOutboxService;
+import com.vinod.microservices.best.practices.service.IQueueService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Objects;
+
+@Service
+@Log4j2
+public class CustomerStatusChangedEvent {
+
+    @Autowired
+    private IQueueService queueService;
+    @Autowired
+    private IOutboxService outboxService;
+
+    @Value("${queue.customer.status-changed}")
+    private String queueCustomerStatusChanged;
+    @Value("${outbox.enabled:true}")
+    private boolean outboxEnabled;
+
+    /**
+     * Raise one customer status changed message per customer. With the outbox enabled they are recorded in the caller
+     * transaction in JDBC batches and sent by the outbox relay, otherwise they are sent directly with batched queue sends.
+     *
+     * @param msgDatas - Customer message data, with the new status.
+     */
+    public void onAll(List<CustomerMessageData> msgDatas) {
+        log.trace("Request came to raise {} messages for customers status changed",msgDatas.size());
+        if (msgDatas.isEmpty()) {
+            return;
+        }
+        if (outboxEnabled) {
+            outboxService.recordQueueMessages(queueCustomerStatusChanged, msgDatas);
+            log.info("Successfully recorded {} messages for customers status changed",msgDatas.size());
+            return;
+        }
+        long sent = queueService.sendMessages(queueCustomerStatusChanged, msgDatas).stream().filter(Objects::nonNull).count();
+        log.info("Successfully sent {} out of {} messages for customers status changed",sent,msgDatas.size());
+    }
+}
@@ -0,0 +1,11 @@
+package com.vinod.microservices.best.practices.exception;
+
+/**
+ * Customer does not match the version expected by the request exception class, created without a stack trace.
+ */
+public class CustomerModifiedException extends Exception {
+
+    public CustomerModifiedException(String message) {
+        super(message, null, false, false);
+    }
+}
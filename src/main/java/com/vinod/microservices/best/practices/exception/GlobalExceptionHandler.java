@@ -1,25 +1,38 @@
 package com.vinod.microservices.best.practices.exception;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.vinod.microservices.best.practices.util.ErrorCode;
+import com.vinod.microservices.best.practices.util.JsonMapperRegistry;
+import com.vinod.microservices.best.practices.util.LogSampler;
 import com.vinod.microservices.best.practices.util.ResourceMessage;
 import com.vinod.microservices.best.practices.util.Response;
 import lombok.extern.log4j.Log4j2;
 import org.apache.http.HttpStatus;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
+import javax.annotation.PostConstruct;
 import javax.validation.ConstraintViolation;
 import javax.validation.ConstraintViolationException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import static com.vinod.microservices.best.practices.util.GlobalUtility.buildResponseForError;
@@ -32,15 +45,64 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
     @Autowired
     private ResourceMessage resourceMessage;
 
+    @Value("${error.log.max-per-second:10}")
+    private int errorLogMaxPerSecond;
+
+    private final PrebuiltErrorResponse userNotFound = new PrebuiltErrorResponse(HttpStatus.SC_BAD_REQUEST, ErrorCode.USER_NOT_FOUND, "customer.not.found.emailId");
+    private final PrebuiltErrorResponse customerModified = new PrebuiltErrorResponse(HttpStatus.SC_PRECONDITION_FAILED, ErrorCode.USER_MODIFIED, "customer.modified");
+    private final PrebuiltErrorResponse customerConflict = new PrebuiltErrorResponse(HttpStatus.SC_CONFLICT, ErrorCode.USER_MODIFIED, "customer.modified");
+    private final PrebuiltErrorResponse serviceUnavailable = new PrebuiltErrorResponse(HttpStatus.SC_SERVICE_UNAVAILABLE, ErrorCode.SERVICE_UNAVAILABLE, "application.status.503");
+    private LogSampler userNotFoundLog;
+    private LogSampler customerModifiedLog;
+    private LogSampler serviceUnavailableLog;
+
+    @PostConstruct
+    void init() {
+        userNotFoundLog = new LogSampler(errorLogMaxPerSecond);
+        customerModifiedLog = new LogSampler(errorLogMaxPerSecond);
+        serviceUnavailableLog = new LogSampler(errorLogMaxPerSecond);
+    }
+
     /**
-     * User not found exception handling.
+     * User not found exception handling, an expected error logged at most error.log.max-per-second times per second.
      * @param e - UserNotFoundException object.
      * @return  - ResponseEntity object.
      */
     @ExceptionHandler(UserNotFoundException.class)
-    public ResponseEntity<Response> handleUserNotFound(UserNotFoundException e) {
-        log.warn("UserNotFoundException occurred, error msg: {}, error details: {}", e.getMessage(), e);
-        return buildResponseForError(HttpStatus.SC_BAD_REQUEST, String.valueOf(ErrorCode.USER_NOT_FOUND.getCode()),resourceMessage.getMessage("customer.not.found.emailId"),null);
+    public ResponseEntity<byte[]> handleUserNotFound(UserNotFoundException e) {
+        long suppressed = userNotFoundLog.sample();
+        if (suppressed >= 0) {
+            log.warn("UserNotFoundException occurred, error msg: {}, suppressed since last: {}", e.getMessage(), suppressed);
+        }
+        return userNotFound.response();
+    }
+
+    /**
+     * Customer does not match the If-Match ETag.
+     * @param e - CustomerModifiedException object.
+     * @return  - ResponseEntity object.
+     */
+    @ExceptionHandler(CustomerModifiedException.class)
+    public ResponseEntity<byte[]> handleCustomerModified(CustomerModifiedException e) {
+        long suppressed = customerModifiedLog.sample();
+        if (suppressed >= 0) {
+            log.warn("CustomerModifiedException occurred, error msg: {}, suppressed since last: {}", e.getMessage(), suppressed);
+        }
+        return customerModified.response();
+    }
+
+    /**
+     * Customer updated by a concurrent request between the read and the write.
+     * @param e - OptimisticLockingFailureException object.
+     * @return  - ResponseEntity object.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<byte[]> handleOptimisticLockingFailure(OptimisticLockingFailureException e) {
+        long suppressed = customerModifiedLog.sample();
+        if (suppressed >= 0) {
+            log.warn("OptimisticLockingFailureException occurred, error msg: {}, suppressed since last: {}", e.getMessage(), suppressed);
+        }
+        return customerConflict.response();
     }
 
     /**
@@ -87,6 +149,37 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
     }
 
 
+    /**
+     * Request executor saturated, ASYNC request execution mode.
+     *
+     * @param e - TaskRejectedException object.
+     * @return  - ResponseEntity object.
+     */
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<byte[]> handleTaskRejected(TaskRejectedException e) {
+        long suppressed = serviceUnavailableLog.sample();
+        if (suppressed >= 0) {
+            log.warn("TaskRejectedException occurred, error msg: {}, suppressed since last: {}", e.getMessage(), suppressed);
+        }
+        return serviceUnavailable.response();
+    }
+
+    /**
+     * Request not handled in time, ASYNC request execution mode.
+     *
+     * @param ex
+     * @param headers
+     * @param status
+     * @param request
+     * @return
+     */
+    @Override
+    protected ResponseEntity<Object> handleAsyncRequestTimeoutException(AsyncRequestTimeoutException ex, HttpHeaders headers, org.springframework.http.HttpStatus status, WebRequest request) {
+        log.warn("AsyncRequestTimeoutException occurred, request: {}", request.getDescription(false));
+        Response apiError = Response.builder().status(HttpStatus.SC_SERVICE_UNAVAILABLE).errorCode(String.valueOf(ErrorCode.SERVICE_UNAVAILABLE.getCode())).errorMessage(resourceMessage.getMessage("application.status.503")).build();
+        return handleExceptionInternal(ex, apiError, headers, status, request);
+    }
+
     /**
      * General Exception handling.
      *
@@ -98,4 +191,61 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         log.error("Exception occurred, error msg: {}", e.getMessage(), e);
         return buildResponseForError(HttpStatus.SC_INTERNAL_SERVER_ERROR, String.valueOf(ErrorCode.INTERNAL_ERROR.getCode()),resourceMessage.getMessage("application.status.500"),null);
     }
+
+    /**
+     * Error response of an expected error, serialized once per locale. The message does not depend on the request,
+     * so the same JSON bytes, never modified once built, are returned to every request of the locale until the
+     * messages are reloaded.
+     */
+    private static class PrebuiltErrorResponse {
+
+        /** Locales cached per response, the Accept-Language header is sent by the client. */
+        private static final int MAX_LOCALES = 16;
+
+        private final int statusCode;
+        private final String errorCode;
+        private final String messageCode;
+        private final Map<Locale, LocalizedErrorResponse> responses = new ConcurrentHashMap<>();
+
+        PrebuiltErrorResponse(int statusCode, ErrorCode errorCode, String messageCode) {
+            this.statusCode = statusCode;
+            this.errorCode = String.valueOf(errorCode.getCode());
+            this.messageCode = messageCode;
+        }
+
+        ResponseEntity<byte[]> response() {
+            Locale locale = LocaleContextHolder.getLocale();
+            String message = ResourceMessage.getMessage(messageCode);
+            LocalizedErrorResponse response = responses.get(locale);
+            if (null == response || !message.equals(response.message)) {
+                response = new LocalizedErrorResponse(message, ResponseEntity.status(statusCode).contentType(MediaType.APPLICATION_JSON).body(serialize(message)));
+                if (responses.size() < MAX_LOCALES || responses.containsKey(locale)) {
+                    responses.put(locale, response);
+                }
+            }
+            return response.entity;
+        }
+
+        private byte[] serialize(String message) {
+            try {
+                return JsonMapperRegistry.writerFor(Response.class).writeValueAsBytes(Response.builder().status(statusCode).errorCode(errorCode).errorMessage(message).build());
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Error response of " + messageCode + " not serializable", e);
+            }
+        }
+    }
+
+    /**
+     * Serialized error response with the message it was built from.
+     */
+    private static class LocalizedErrorResponse {
+
+        private final String message;
+        private final ResponseEntity<byte[]> entity;
+
+        LocalizedErrorResponse(String message, ResponseEntity<byte[]> entity) {
+            this.message = message;
+            this.entity = entity;
+        }
+    }
 }
@@ -1,11 +1,32 @@
 package com.vinod.microservices.best.practices.exception;
 
 /**
- * Customer not found exception class.
+ * Customer not found exception class, an expected outcome of the lookups, created without a stack trace.
+ * The message is only built when it is read.
  */
 public class UserNotFoundException extends Exception {
 
+    private final String emailId;
+
     public UserNotFoundException(String message) {
-        super(message);
+        this(message, null);
+    }
+
+    /**
+     * @param message   - Message, followed by the email id.
+     * @param emailId   - Customer Email ID.
+     */
+    public UserNotFoundException(String message, String emailId) {
+        super(message, null, false, false);
+        this.emailId = emailId;
+    }
+
+    public String getEmailId() {
+        return emailId;
+    }
+
+    @Override
+    public String getMessage() {
+        return null != emailId ? super.getMessage() + emailId : super.getMessage();
     }
 }
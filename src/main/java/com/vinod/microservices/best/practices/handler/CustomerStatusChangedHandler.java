@@ -0,0 +1,46 @@
+package com.vinod.microservices.best.practices.handler;
+
+import com.vinod.microservices.best.practices.dto.CustomerMessageData;
+import com.vinod.microservices.best.practices.service.ICustomerCacheService;
+import com.vinod.microservices.best.practices.util.GlobalUtility;
+import com.vinod.microservices.best.practices.util.MessageDecoder;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Handler of the customer status changed messages, the bulk status change bumps the version of the customers so the
+ * customer cached by this node is evicted and the next lookup reads the new status and ETag.
+ */
+@Service
+@Log4j2
+public class CustomerStatusChangedHandler implements IQueueMessageHandler {
+
+    @Value("${queue.customer.status-changed}")
+    private String queueCustomerStatusChanged;
+    @Autowired
+    private ICustomerCacheService customerCacheService;
+
+    @Override
+    public String getQueueName() {
+        return queueCustomerStatusChanged;
+    }
+
+    @Override
+    public void handle(String message, String senderId) throws Exception {
+        log.trace("Message received a customer status is changed message body: {}, having sender id: {}",message, senderId);
+        if(GlobalUtility.isExists(message)){
+            CustomerMessageData receivedCustomerObject=MessageDecoder.decode(message, CustomerMessageData.class);
+            log.trace("Customer status changed: {}",receivedCustomerObject);
+            if(null == receivedCustomerObject || !GlobalUtility.isExists(receivedCustomerObject.getEmailId())){
+                log.warn("No customer email id found in the queue: {} and the message: {}", queueCustomerStatusChanged, message);
+                return;
+            }
+            customerCacheService.evict(receivedCustomerObject.getEmailId());
+            log.info("Customer: {} status changed to: {}, cached customer evicted", receivedCustomerObject.getEmailId(), receivedCustomerObject.getStatus());
+        } else {
+            log.warn("No message found in the queue: {} and the message: {}", queueCustomerStatusChanged, message);
+        }
+    }
+}
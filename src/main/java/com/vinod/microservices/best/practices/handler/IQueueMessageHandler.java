@@ -0,0 +1,24 @@
+package com.vinod.microservices.best.practices.handler;
+
+/**
+ * Handler of the messages of one queue, called by the queue consumer.
+ * The message is acknowledged when the handler returns and redelivered when it throws.
+ */
+public interface IQueueMessageHandler {
+
+    /**
+     * Queue to consume.
+     *
+     * @return  - Queue name.
+     */
+    String getQueueName();
+
+    /**
+     * Handle one message.
+     *
+     * @param message   - Message body.
+     * @param senderId  - Sender id attribute of the message.
+     * @throws Exception
+     */
+    void handle(String message, String senderId) throws Exception;
+}
@@ -0,0 +1,88 @@
+package com.vinod.microservices.best.practices.mapper;
+
+import com.vinod.microservices.best.practices.dto.CustomerDto;
+import com.vinod.microservices.best.practices.dto.CustomerRegisterDto;
+import com.vinod.microservices.best.practices.dto.CustomerUpdateDto;
+import com.vinod.microservices.best.practices.model.Customer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Customer mappings written out field by field, no reflection or type map lookup per call.
+ * Output matches the ModelMapper mappings it replaces, see CustomerMapperTest.
+ */
+@Component
+public class CustomerMapper {
+
+    /**
+     * Map CustomerRegisterDto to a new Customer object, id is left to the generator.
+     *
+     * @param customerRegisterDto   - Customer register dto object.
+     * @return                      - Customer object.
+     */
+    public Customer toCustomer(CustomerRegisterDto customerRegisterDto) {
+        if (null == customerRegisterDto) {
+            return null;
+        }
+        Customer customer = new Customer();
+        customer.setName(customerRegisterDto.getName());
+        customer.setEmailId(customerRegisterDto.getEmailId());
+        customer.setAddress(customerRegisterDto.getAddress());
+        return customer;
+    }
+
+    /**
+     * Map CustomerDto to Customer object.
+     *
+     * @param customerDto   - Customer dto object.
+     * @return              - Customer object.
+     */
+    public Customer toCustomer(CustomerDto customerDto) {
+        if (null == customerDto) {
+            return null;
+        }
+        Customer customer = new Customer();
+        customer.setId(customerDto.getId());
+        customer.setName(customerDto.getName());
+        customer.setEmailId(customerDto.getEmailId());
+        customer.setAddress(customerDto.getAddress());
+        customer.setVersion(customerDto.getVersion());
+        return customer;
+    }
+
+    /**
+     * Map Customer to CustomerDto object.
+     *
+     * @param customer  - Customer object.
+     * @return          - Customer dto object.
+     */
+    public CustomerDto toCustomerDto(Customer customer) {
+        if (null == customer) {
+            return null;
+        }
+        return new CustomerDto(customer.getId(), customer.getName(), customer.getEmailId(), customer.getAddress(), customer.getVersion());
+    }
+
+    /**
+     * Map CustomerDto to CustomerRegisterDto object.
+     *
+     * @param customerDto   - Customer dto object.
+     * @return              - Customer register dto object.
+     */
+    public CustomerRegisterDto toCustomerRegisterDto(CustomerDto customerDto) {
+        if (null == customerDto) {
+            return null;
+        }
+        return new CustomerRegisterDto(customerDto.getName(), customerDto.getEmailId(), customerDto.getAddress());
+    }
+
+    /**
+     * Copy the updatable fields of CustomerUpdateDto onto the customer.
+     *
+     * @param customerUpdateDto - Customer update dto object.
+     * @param customer          - Customer object.
+     */
+    public void updateCustomer(CustomerUpdateDto customerUpdateDto, Customer customer) {
+        customer.setName(customerUpdateDto.getName());
+        customer.setAddress(customerUpdateDto.getAddress());
+    }
+}
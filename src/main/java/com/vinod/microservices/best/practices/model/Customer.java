@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 import javax.persistence.*;
 import javax.validation.constraints.NotBlank;
@@ -16,13 +18,18 @@ import java.io.Serializable;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name="customer")
+@Table(name="customer", indexes = {@Index(name = "uk_customer_email_id", columnList = "emailId", unique = true), @Index(name = "idx_customer_status_id", columnList = "status, id")})
 public class Customer implements Serializable {
 
     @Schema(description = "Unique identifier of the Customer.", example = "1", required = true)
     @Id
     @Column
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customer_seq")
+    @GenericGenerator(name = "customer_seq", strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator", parameters = {
+            @Parameter(name = "sequence_name", value = "customer_seq"),
+            @Parameter(name = "increment_size", value = "50"),
+            @Parameter(name = "optimizer", value = "pooled-lo")
+    })
     private Long id;
 
     @Schema(description = "Name of the customer.", example = "Vinod Pillai", required = true)
@@ -45,4 +52,9 @@ public class Customer implements Serializable {
     @Size(max = 50)
     @Column
     private String status;
+
+    @Schema(description = "Optimistic lock version of the customer, incremented by every update.", example = "0", required = false)
+    @Version
+    @Column
+    private Long version;
 }
@@ -0,0 +1,57 @@
+package com.vinod.microservices.best.practices.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Response of a request sent with an Idempotency-Key, replayed to the retries of the request. The record is pending,
+ * without response, while the request holding the key is in flight.
+ */
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name="idempotency_record")
+public class IdempotencyRecord implements Serializable {
+
+    /** Status of the key claimed by a request still in flight. */
+    public static final int PENDING_STATUS = 0;
+
+    @Id
+    @Column
+    private String idempotencyKey;
+
+    /** SHA-256 of the request, a key sent again with another request is rejected. */
+    @Column
+    private String fingerprint;
+
+    @Column
+    private int status;
+
+    @Column
+    private String contentType;
+
+    @Column
+    private String etag;
+
+    @Lob
+    @Column
+    private String body;
+
+    @Column
+    private LocalDateTime createdAt;
+
+    /**
+     * @return  - True while the request holding the key is in flight.
+     */
+    public boolean isPending() {
+        return PENDING_STATUS == status;
+    }
+}
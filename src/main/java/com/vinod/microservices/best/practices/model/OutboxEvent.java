@@ -0,0 +1,63 @@
+package com.vinod.microservices.best.practices.model;
+
+import com.vinod.microservices.best.practices.util.ApplicationConstant.OutboxDestinationType;
+import com.vinod.microservices.best.practices.util.ApplicationConstant.OutboxStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Message waiting to be delivered, written in the same transaction as the change it describes.
+ * Failed deliveries are retried at nextAttemptAt, after outbox.relay.max-attempts the event is moved to DEAD.
+ */
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name="outbox_event")
+public class OutboxEvent implements Serializable {
+
+    @Id
+    @Column
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_event_seq")
+    @GenericGenerator(name = "outbox_event_seq", strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator", parameters = {
+            @Parameter(name = "sequence_name", value = "outbox_event_seq"),
+            @Parameter(name = "increment_size", value = "50"),
+            @Parameter(name = "optimizer", value = "pooled-lo")
+    })
+    private Long id;
+
+    @Column
+    @Enumerated(EnumType.STRING)
+    private OutboxDestinationType destinationType;
+
+    @Column
+    private String destination;
+
+    @Column
+    private String payloadType;
+
+    @Column
+    private String payload;
+
+    @Column
+    private LocalDateTime createdAt;
+
+    @Column
+    private int attempts;
+
+    @Column
+    @Enumerated(EnumType.STRING)
+    private OutboxStatus status;
+
+    @Column
+    private LocalDateTime nextAttemptAt;
+}
@@ -1,11 +1,127 @@
 package com.vinod.microservices.best.practices.repository;
 
+import com.vinod.microservices.best.practices.dto.CustomerDto;
 import com.vinod.microservices.best.practices.model.Customer;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static com.vinod.microservices.best.practices.util.ApplicationConstant.CUSTOMER_EXPORT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 public interface CustomerRepository extends JpaRepository<Customer,Long> {
 
     Optional<Customer> findCustomerByEmailId(String emailId);
+
+    /**
+     * Read only lookup of the CustomerDto columns, served by the uk_customer_email_id index
+     * without hydrating a managed Customer entity.
+     *
+     * @param emailId   - Customer Email ID.
+     * @return          - Customer query object.
+     */
+    @Query("select new com.vinod.microservices.best.practices.dto.CustomerDto(c.id, c.name, c.emailId, c.address, c.version) from Customer c where c.emailId = :emailId")
+    Optional<CustomerDto> findCustomerDtoByEmailId(@Param("emailId") String emailId);
+
+    /**
+     * Email ids out of the given ones which are already registered.
+     *
+     * @param emailIds  - Customer Email IDs.
+     * @return          - Registered Email IDs.
+     */
+    @Query("select c.emailId from Customer c where c.emailId in :emailIds")
+    List<String> findExistingEmailIds(@Param("emailIds") Collection<String> emailIds);
+
+    /**
+     * Keyset page of the customers after the given id, seeks on the primary key instead of skipping an offset.
+     *
+     * @param afterId   - Last id of the previous page, 0 for the first page.
+     * @param pageable  - Page size, always the first page.
+     * @return          - Customer query objects ordered by id.
+     */
+    @Query("select new com.vinod.microservices.best.practices.dto.CustomerDto(c.id, c.name, c.emailId, c.address, c.version) from Customer c where c.id > :afterId order by c.id")
+    List<CustomerDto> findCustomerDtoPage(@Param("afterId") long afterId, Pageable pageable);
+
+    /**
+     * Keyset page of the customers having the status after the given id, served by the idx_customer_status_id index.
+     *
+     * @param status    - Customer status.
+     * @param afterId   - Last id of the previous page, 0 for the first page.
+     * @param pageable  - Page size, always the first page.
+     * @return          - Customer query objects ordered by id.
+     */
+    @Query("select new com.vinod.microservices.best.practices.dto.CustomerDto(c.id, c.name, c.emailId, c.address, c.version) from Customer c where c.status = :status and c.id > :afterId order by c.id")
+    List<CustomerDto> findCustomerDtoPageByStatus(@Param("status") String status, @Param("afterId") long afterId, Pageable pageable);
+
+    /**
+     * All customers through a forward only cursor fetching CUSTOMER_EXPORT_FETCH_SIZE rows at a time,
+     * the projections are not managed so the persistence context does not grow. Needs a surrounding transaction
+     * and the stream must be closed.
+     *
+     * @return          - Customer query objects ordered by id.
+     */
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "" + CUSTOMER_EXPORT_FETCH_SIZE), @QueryHint(name = HINT_READONLY, value = "true")})
+    @Query("select new com.vinod.microservices.best.practices.dto.CustomerDto(c.id, c.name, c.emailId, c.address, c.version) from Customer c order by c.id")
+    Stream<CustomerDto> streamCustomerDtos();
+
+    /**
+     * Customers having the status through a forward only cursor, see streamCustomerDtos.
+     *
+     * @param status    - Customer status.
+     * @return          - Customer query objects ordered by id.
+     */
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "" + CUSTOMER_EXPORT_FETCH_SIZE), @QueryHint(name = HINT_READONLY, value = "true")})
+    @Query("select new com.vinod.microservices.best.practices.dto.CustomerDto(c.id, c.name, c.emailId, c.address, c.version) from Customer c where c.status = :status order by c.id")
+    Stream<CustomerDto> streamCustomerDtosByStatus(@Param("status") String status);
+
+    /**
+     * Customers out of the given email ids, selects the rows of one bulk chunk.
+     *
+     * @param emailIds  - Customer Email IDs.
+     * @return          - Customer query objects ordered by id.
+     */
+    @Query("select new com.vinod.microservices.best.practices.dto.CustomerDto(c.id, c.name, c.emailId, c.address, c.version) from Customer c where c.emailId in :emailIds order by c.id")
+    List<CustomerDto> findCustomerDtosByEmailIds(@Param("emailIds") Collection<String> emailIds);
+
+    /**
+     * Customers out of the given email ids not having the status yet, selects the rows of one bulk status change chunk.
+     *
+     * @param emailIds  - Customer Email IDs.
+     * @param status    - New customer status.
+     * @return          - Customer query objects ordered by id.
+     */
+    @Query("select new com.vinod.microservices.best.practices.dto.CustomerDto(c.id, c.name, c.emailId, c.address, c.version) from Customer c where c.emailId in :emailIds and c.status <> :status order by c.id")
+    List<CustomerDto> findCustomerDtosByEmailIdsAndStatusNot(@Param("emailIds") Collection<String> emailIds, @Param("status") String status);
+
+    /**
+     * Set based delete of the customers, one statement per chunk. Bypasses the persistence context,
+     * managed Customer entities are detached once the statement has run.
+     *
+     * @param ids   - Customer ids.
+     * @return      - Number of deleted customers.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Customer c where c.id in :ids")
+    int deleteCustomersByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Set based status change of the customers, one statement per chunk, see deleteCustomersByIds. Increments the version like an entity update.
+     *
+     * @param ids       - Customer ids.
+     * @param status    - New customer status.
+     * @return          - Number of updated customers.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Customer c set c.status = :status, c.version = c.version + 1 where c.id in :ids and c.status <> :status")
+    int updateCustomerStatusByIds(@Param("ids") Collection<Long> ids, @Param("status") String status);
 }
@@ -0,0 +1,76 @@
+package com.vinod.microservices.best.practices.repository;
+
+import com.vinod.microservices.best.practices.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord,String> {
+
+    /**
+     * Insert the pending record claiming the key, fails with a duplicate key error when the key is already claimed.
+     *
+     * @param idempotencyKey    - Idempotency key.
+     * @param fingerprint       - SHA-256 of the request.
+     * @param createdAt         - Claim time.
+     * @return                  - Number of inserted records.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_record (idempotency_key, fingerprint, status, created_at) VALUES (:idempotencyKey, :fingerprint, "
+            + IdempotencyRecord.PENDING_STATUS + ", :createdAt)", nativeQuery = true)
+    int insertPending(@Param("idempotencyKey") String idempotencyKey, @Param("fingerprint") String fingerprint, @Param("createdAt") LocalDateTime createdAt);
+
+    /**
+     * Store the response in the pending record of the key, left unchanged when the record is not pending.
+     *
+     * @param idempotencyRecord - IdempotencyRecord object.
+     * @return                  - Number of updated records, 0 if the claim was lost.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = :#{#record.status}, r.contentType = :#{#record.contentType}, r.etag = :#{#record.etag}, "
+            + "r.body = :#{#record.body}, r.createdAt = :#{#record.createdAt} WHERE r.idempotencyKey = :#{#record.idempotencyKey} "
+            + "AND r.fingerprint = :#{#record.fingerprint} AND r.status = " + IdempotencyRecord.PENDING_STATUS)
+    int complete(@Param("record") IdempotencyRecord idempotencyRecord);
+
+    /**
+     * Delete the pending record of the key.
+     *
+     * @param idempotencyKey    - Idempotency key.
+     * @return                  - Number of deleted records.
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.idempotencyKey = :idempotencyKey AND r.status = " + IdempotencyRecord.PENDING_STATUS)
+    int deletePending(@Param("idempotencyKey") String idempotencyKey);
+
+    /**
+     * Delete the record of the key when expired, or when pending since before the claim expiry (node stopped).
+     *
+     * @param idempotencyKey    - Idempotency key.
+     * @param createdAt         - Oldest creation time of a stored response kept.
+     * @param claimedAt         - Oldest claim time of a pending record kept.
+     * @return                  - Number of deleted records.
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.idempotencyKey = :idempotencyKey AND (r.createdAt < :createdAt "
+            + "OR (r.status = " + IdempotencyRecord.PENDING_STATUS + " AND r.createdAt < :claimedAt))")
+    int deleteAbandoned(@Param("idempotencyKey") String idempotencyKey, @Param("createdAt") LocalDateTime createdAt, @Param("claimedAt") LocalDateTime claimedAt);
+
+    /**
+     * Delete the records created before the given time.
+     *
+     * @param createdAt - Oldest creation time kept.
+     * @return          - Number of deleted records.
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :createdAt")
+    int deleteCreatedBefore(@Param("createdAt") LocalDateTime createdAt);
+}
@@ -0,0 +1,24 @@
+package com.vinod.microservices.best.practices.repository;
+
+import com.vinod.microservices.best.practices.model.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent,Long> {
+
+    /**
+     * Lock the pending outbox events due for an attempt, oldest attempt first, rows locked by another relay are skipped
+     * so relays on several nodes do not wait on each other. Failed events are moved back by their backoff, so they do
+     * not block the events behind them. Must be called inside a transaction, the lock is held until it ends.
+     *
+     * @param now   - Current time, events with a later next attempt are not locked.
+     * @param limit - Maximum number of events.
+     * @return      - Locked outbox events.
+     */
+    @Query(value = "SELECT * FROM outbox_event WHERE status = 'PENDING' AND next_attempt_at <= :now ORDER BY next_attempt_at, id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
@@ -0,0 +1,25 @@
+package com.vinod.microservices.best.practices.service;
+
+import com.vinod.microservices.best.practices.dto.CustomerDto;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+public interface ICustomerCacheService {
+
+    /**
+     * Get customer from cache, loading it on a miss.
+     *
+     * @param emailId   - Customer Email ID.
+     * @param loader    - Loader called on a cache miss.
+     * @return          - Customer query object, empty if customer not exists.
+     */
+    Optional<CustomerDto> get(String emailId, Function<String, Optional<CustomerDto>> loader);
+
+    /**
+     * Remove the cached entry of the customer.
+     *
+     * @param emailId   - Customer Email ID.
+     */
+    void evict(String emailId);
+}
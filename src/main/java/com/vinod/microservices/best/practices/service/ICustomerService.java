@@ -1,11 +1,19 @@
 package com.vinod.microservices.best.practices.service;
 
 
+import com.vinod.microservices.best.practices.dto.CustomerBatchResultDto;
+import com.vinod.microservices.best.practices.dto.CustomerBulkDto;
+import com.vinod.microservices.best.practices.dto.CustomerBulkResultDto;
 import com.vinod.microservices.best.practices.dto.CustomerDto;
+import com.vinod.microservices.best.practices.dto.CustomerPageDto;
 import com.vinod.microservices.best.practices.dto.CustomerRegisterDto;
 import com.vinod.microservices.best.practices.dto.CustomerUpdateDto;
+import com.vinod.microservices.best.practices.exception.CustomerModifiedException;
 import com.vinod.microservices.best.practices.exception.UserNotFoundException;
 
+import java.util.List;
+import java.util.function.Consumer;
+
 public interface ICustomerService {
 
     /**
@@ -24,11 +32,22 @@ public interface ICustomerService {
     void addCustomer(final CustomerRegisterDto customerRegisterDto);
 
     /**
-     * Add customer object to database.
-     *  @param customerUpdateDto - Customer update object.
-     * @param emailId
+     * Add customer objects to database in JDBC batches, one failed item does not abort the others.
+     *
+     * @param customerRegisterDtos - Customer register objects.
+     * @return                     - Result per item, index relative to the given list.
+     */
+    List<CustomerBatchResultDto> addCustomers(final List<CustomerRegisterDto> customerRegisterDtos);
+
+    /**
+     * Update customer object to database, concurrent updates are detected with the customer version.
+     *
+     * @param customerUpdateDto - Customer update object.
+     * @param emailId           - Customer Email id.
+     * @param ifMatch           - If-Match ETags the customer must match, null to update whatever the version.
+     * @return                  - Updated customer query object.
      */
-    void updateCustomer(final CustomerUpdateDto customerUpdateDto, final String emailId) throws UserNotFoundException;
+    CustomerDto updateCustomer(final CustomerUpdateDto customerUpdateDto, final String emailId, final String ifMatch) throws UserNotFoundException, CustomerModifiedException;
 
     /**
      * Delete customer by customer email id.
@@ -36,4 +55,42 @@ public interface ICustomerService {
      * @param emailId - Customer Email id.
      */
     void deleteCustomer(final String emailId) throws UserNotFoundException;
+
+    /**
+     * Keyset page of customers ordered by id.
+     *
+     * @param status    - Customer status, null for every status.
+     * @param afterId   - Last id of the previous page, 0 for the first page.
+     * @param limit     - Page size.
+     * @return          - Customer page object.
+     */
+    CustomerPageDto getCustomers(final String status, final long afterId, final int limit);
+
+    /**
+     * Stream every customer ordered by id to the consumer, read through a forward only cursor.
+     *
+     * @param status    - Customer status, null for every status.
+     * @param consumer  - Customer consumer, called once per customer.
+     * @return          - Number of exported customers.
+     */
+    long exportCustomers(final String status, final Consumer<CustomerDto> consumer);
+
+    /**
+     * Delete the selected customers with one set based DELETE per chunk, raising their customer deleted messages.
+     *
+     * @param customerBulkDto   - Customers selected by email id or by status.
+     * @param progress          - Called after each committed chunk.
+     * @return                  - Chunks and deleted customers.
+     */
+    CustomerBulkResultDto deleteCustomers(final CustomerBulkDto customerBulkDto, final Consumer<CustomerBulkResultDto> progress);
+
+    /**
+     * Change the status of the selected customers with one set based UPDATE per chunk, raising their customer status changed messages.
+     *
+     * @param customerBulkDto   - Customers selected by email id or by status.
+     * @param status            - New customer status.
+     * @param progress          - Called after each committed chunk.
+     * @return                  - Chunks and updated customers.
+     */
+    CustomerBulkResultDto changeCustomerStatus(final CustomerBulkDto customerBulkDto, final String status, final Consumer<CustomerBulkResultDto> progress);
 }
@@ -0,0 +1,37 @@
+package com.vinod.microservices.best.practices.service;
+
+import com.vinod.microservices.best.practices.model.IdempotencyRecord;
+
+public interface IIdempotencyService {
+
+    /**
+     * Get the stored response of the key.
+     *
+     * @param idempotencyKey    - Idempotency key.
+     * @return                  - IdempotencyRecord object, pending while the key is claimed, null if not stored or expired.
+     */
+    IdempotencyRecord find(String idempotencyKey);
+
+    /**
+     * Claim the key for the request about to be executed, a pending record is stored until its response.
+     *
+     * @param idempotencyKey    - Idempotency key.
+     * @param fingerprint       - SHA-256 of the request.
+     * @return                  - True if claimed, false if the key is already claimed or stored.
+     */
+    boolean claim(String idempotencyKey, String fingerprint);
+
+    /**
+     * Store the response of the claimed key.
+     *
+     * @param idempotencyRecord - IdempotencyRecord object.
+     */
+    void save(IdempotencyRecord idempotencyRecord);
+
+    /**
+     * Release the claim of a request whose response is not stored, the retries are executed again.
+     *
+     * @param idempotencyKey    - Idempotency key.
+     */
+    void release(String idempotencyKey);
+}
@@ -0,0 +1,30 @@
+package com.vinod.microservices.best.practices.service;
+
+import java.util.List;
+
+public interface IOutboxService {
+
+    /**
+     * Record event to be published to the topic once the current transaction commits.
+     *
+     * @param topicName - Topic.
+     * @param message   - Message.
+     */
+    <T> void recordEvent(String topicName, T message);
+
+    /**
+     * Record message to be sent to the queue once the current transaction commits.
+     *
+     * @param queue     - Queue name.
+     * @param message   - Message.
+     */
+    <T> void recordQueueMessage(String queue, T message);
+
+    /**
+     * Record messages to be sent to the queue once the current transaction commits, inserted in JDBC batches.
+     *
+     * @param queue     - Queue name.
+     * @param messages  - Messages.
+     */
+    <T> void recordQueueMessages(String queue, List<T> messages);
+}
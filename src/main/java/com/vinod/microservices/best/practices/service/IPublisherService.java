@@ -1,5 +1,8 @@
 package com.vinod.microservices.best.practices.service;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public interface IPublisherService {
     /**
      * Publish message.
@@ -10,4 +13,20 @@ public interface IPublisherService {
      * @return              - Result String.
      */
     <T> String publish(String topicName, T message);
-}
\ No newline at end of file
+
+    /**
+     * Publish messages synchronously, one publish per message unless the broker has a batch call.
+     *
+     * @param topicName     - Topic.
+     * @param messages      - Messages.
+     * @param <T>           - Message Type.
+     * @return              - Message id per message, null for the failed ones.
+     */
+    default <T> List<String> publishAll(String topicName, List<T> messages) {
+        List<String> messageIds = new ArrayList<>(messages.size());
+        for (T message : messages) {
+            messageIds.add(publish(topicName, message));
+        }
+        return messageIds;
+    }
+}
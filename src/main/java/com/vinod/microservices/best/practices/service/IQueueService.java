@@ -1,5 +1,7 @@
 package com.vinod.microservices.best.practices.service;
 
+import java.util.List;
+
 public interface IQueueService {
 
     /**
@@ -9,4 +11,13 @@ public interface IQueueService {
      * @param message   -   Message.
      */
     public <T> void sendMessage(String queue, T message);
+
+    /**
+     * Send messages to Queue synchronously, batched where the broker supports it.
+     *
+     * @param queue     -   Queue name.
+     * @param messages  -   Messages.
+     * @return          -   Message id per message, null for the failed ones.
+     */
+    public <T> List<String> sendMessages(String queue, List<T> messages);
 }
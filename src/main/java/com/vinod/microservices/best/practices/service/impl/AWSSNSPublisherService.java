@@ -1,33 +1,287 @@
 package com.vinod.microservices.best.practices.service.impl;
 
-import com.amazonaws.services.sns.AmazonSNSClient;
+import com.amazonaws.services.sns.AmazonSNS;
+import com.amazonaws.services.sns.model.PublishBatchRequest;
+import com.amazonaws.services.sns.model.PublishBatchRequestEntry;
+import com.amazonaws.services.sns.model.PublishBatchResult;
 import com.amazonaws.services.sns.model.PublishRequest;
+import com.vinod.microservices.best.practices.config.aws.SNSPublisherProperties;
 import com.vinod.microservices.best.practices.service.IPublisherService;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.extern.log4j.Log4j2;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import static com.vinod.microservices.best.practices.util.GlobalUtility.convertObjectToJson;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
+import static com.vinod.microservices.best.practices.util.GlobalUtility.convertObjectToJson;
 
+/**
+ * SNS publisher. Messages are buffered and published by a background worker with PublishBatch,
+ * so the caller does not wait for the SNS round trip. Topic ARNs are resolved once per topic.
+ */
 @Service
 @Log4j2
 public class AWSSNSPublisherService implements IPublisherService {
 
-    @Autowired
-    private AmazonSNSClient amazonSNSClient;
+    private static final int MAX_BATCH_SIZE = 10;
+
+    private final AmazonSNS amazonSNS;
+    private final SNSPublisherProperties properties;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Map<String, String> topicArns = new ConcurrentHashMap<>();
+    private final BlockingQueue<PendingMessage> buffer;
+
+    private final DistributionSummary batchSizeSummary;
+    private final Timer publishTimer;
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final Counter droppedCounter;
+
+    private volatile boolean running;
+    private volatile boolean stopped;
+    private Thread worker;
+
+    public AWSSNSPublisherService(AmazonSNS amazonSNS, SNSPublisherProperties properties, MeterRegistry meterRegistry) {
+        this.amazonSNS = amazonSNS;
+        this.properties = properties;
+        this.batchSize = Math.max(1, Math.min(MAX_BATCH_SIZE, properties.getBatchSize()));
+        this.flushIntervalNanos = properties.getFlushInterval().toNanos();
+        this.buffer = new ArrayBlockingQueue<>(properties.getBufferCapacity());
+        Gauge.builder("publisher.sns.queue.depth", buffer, Collection::size).description("Messages waiting to be published to SNS").register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("publisher.sns.batch.size").description("Messages per SNS PublishBatch call").register(meterRegistry);
+        this.publishTimer = Timer.builder("publisher.sns.publish.latency").description("SNS publish call latency").publishPercentileHistogram().register(meterRegistry);
+        this.publishedCounter = meterRegistry.counter("publisher.sns.messages", "result", "published");
+        this.failedCounter = meterRegistry.counter("publisher.sns.messages", "result", "failed");
+        this.droppedCounter = meterRegistry.counter("publisher.sns.messages", "result", "dropped");
+    }
+
+    /**
+     * Start the background worker when publishing asynchronously.
+     */
+    @PostConstruct
+    public void start() {
+        if (properties.isAsync()) {
+            running = true;
+            worker = new Thread(this::drain, "sns-publisher");
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+
+    /**
+     * Stop the background worker after it has published the buffered messages, later messages are published synchronously.
+     *
+     * @throws InterruptedException
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        stopped = true;
+        running = false;
+        if (null != worker) {
+            worker.join(properties.getShutdownTimeout().toMillis());
+            if (!buffer.isEmpty()) {
+                log.error("SNS publisher stopped with {} messages not published", buffer.size());
+            }
+        }
+    }
 
+    /**
+     * Publish message. Returns the message id when published synchronously, null when buffered or dropped.
+     *
+     * @param topicName     - Topic.
+     * @param message       - Message.
+     * @param <T>           - Message Type.
+     * @return              - Message id.
+     */
     @Override
+    @Timed(value = "messaging.publish", histogram = true)
     public <T> String publish(String topicName, T message) {
-        log.trace("Request came to publish message to :{} with subject: {}",topicName);
-        try{
-            PublishRequest publishRequest=new PublishRequest(amazonSNSClient.createTopic(topicName).getTopicArn(),convertObjectToJson(message));
-            String resultMessageId= amazonSNSClient.publish(publishRequest).getMessageId();
-            log.trace("Successfully publish message to :{} message id: {}",topicName, resultMessageId);
+        log.trace("Request came to publish message to :{}", topicName);
+        PendingMessage pendingMessage = new PendingMessage(topicName, convertObjectToJson(message));
+        if (!properties.isAsync() || stopped) {
+            return publishNow(pendingMessage);
+        }
+        switch (properties.getBackpressure()) {
+            case DROP:
+                if (buffer.offer(pendingMessage)) {
+                    return null;
+                }
+                break;
+            case CALLER_RUNS:
+                if (buffer.offer(pendingMessage)) {
+                    return null;
+                }
+                return publishNow(pendingMessage);
+            default:
+                try {
+                    if (buffer.offer(pendingMessage, properties.getBlockTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                        return null;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+        }
+        droppedCounter.increment();
+        log.error("SNS publisher buffer is full, dropped message to :{}", topicName);
+        return null;
+    }
+
+    /**
+     * Publish single message in the caller thread.
+     *
+     * @param pendingMessage    - Message.
+     * @return                  - Message id, null when failed.
+     */
+    private String publishNow(PendingMessage pendingMessage) {
+        long start = System.nanoTime();
+        try {
+            PublishRequest publishRequest = new PublishRequest(topicArn(pendingMessage.getTopicName()), pendingMessage.getMessage());
+            String resultMessageId = amazonSNS.publish(publishRequest).getMessageId();
+            publishedCounter.increment();
+            log.trace("Successfully publish message to :{} message id: {}", pendingMessage.getTopicName(), resultMessageId);
             return resultMessageId;
         } catch (Exception exception) {
-            log.trace("Error occurred while publishing message to :{}",topicName,exception);
+            failedCounter.increment();
+            log.error("Error occurred while publishing message to :{}", pendingMessage.getTopicName(), exception);
+        } finally {
+            publishTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        return null;
+    }
+
+    /**
+     * Worker loop, collects up to batch size messages or waits at most flush interval, then publishes them.
+     */
+    private void drain() {
+        List<PendingMessage> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                PendingMessage first = buffer.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (null == first) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    buffer.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                        break;
+                    }
+                    PendingMessage next = buffer.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (null == next) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                publishBatch(batch);
+                log.error("SNS publisher interrupted with {} messages not published", buffer.size());
+                return;
+            }
+            publishBatch(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Publish messages synchronously with PublishBatch calls of up to 10 messages.
+     *
+     * @param topicName     - Topic.
+     * @param messages      - Messages.
+     * @param <T>           - Message Type.
+     * @return              - Message id per message, null for the failed ones.
+     */
+    @Override
+    @Timed(value = "messaging.publish", histogram = true)
+    public <T> List<String> publishAll(String topicName, List<T> messages) {
+        log.trace("Request came to publish {} messages to :{}", messages.size(), topicName);
+        List<String> messageIds = new ArrayList<>(messages.size());
+        for (int from = 0; from < messages.size(); from += MAX_BATCH_SIZE) {
+            List<String> jsonMessages = messages.subList(from, Math.min(from + MAX_BATCH_SIZE, messages.size())).stream()
+                    .map(message -> convertObjectToJson(message))
+                    .collect(Collectors.toList());
+            messageIds.addAll(Arrays.asList(publishBatchNow(topicName, jsonMessages)));
+        }
+        return messageIds;
+    }
+
+    /**
+     * Publish the buffered batch with one PublishBatch call per topic.
+     *
+     * @param batch - Messages.
+     */
+    private void publishBatch(List<PendingMessage> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        batchSizeSummary.record(batch.size());
+        Map<String, List<String>> messagesByTopic = batch.stream().collect(Collectors.groupingBy(PendingMessage::getTopicName, LinkedHashMap::new, Collectors.mapping(PendingMessage::getMessage, Collectors.toList())));
+        messagesByTopic.forEach(this::publishBatchNow);
+    }
+
+    /**
+     * One PublishBatch call.
+     *
+     * @param topicName     - Topic.
+     * @param messages      - At most 10 JSON messages.
+     * @return              - Message id per message, null for the failed ones.
+     */
+    private String[] publishBatchNow(String topicName, List<String> messages) {
+        String[] messageIds = new String[messages.size()];
+        List<PublishBatchRequestEntry> entries = new ArrayList<>(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            entries.add(new PublishBatchRequestEntry().withId(String.valueOf(i)).withMessage(messages.get(i)));
+        }
+        long start = System.nanoTime();
+        try {
+            PublishBatchResult result = amazonSNS.publishBatch(new PublishBatchRequest().withTopicArn(topicArn(topicName)).withPublishBatchRequestEntries(entries));
+            result.getSuccessful().forEach(successful -> messageIds[Integer.parseInt(successful.getId())] = successful.getMessageId());
+            publishedCounter.increment(result.getSuccessful().size());
+            if (!result.getFailed().isEmpty()) {
+                failedCounter.increment(result.getFailed().size());
+                result.getFailed().forEach(failed -> log.error("Error occurred while publishing message to :{} code: {} error msg: {}", topicName, failed.getCode(), failed.getMessage()));
+            }
+            log.trace("Successfully publish batch of {} messages to :{}", messages.size(), topicName);
+        } catch (Exception exception) {
+            failedCounter.increment(messages.size());
+            log.error("Error occurred while publishing batch of {} messages to :{}", messages.size(), topicName, exception);
+        } finally {
+            publishTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
-        return  null;
+        return messageIds;
+    }
+
+    /**
+     * Topic ARN, resolved with CreateTopic (idempotent) the first time a topic is used.
+     *
+     * @param topicName - Topic.
+     * @return          - Topic ARN.
+     */
+    private String topicArn(String topicName) {
+        return topicArns.computeIfAbsent(topicName, name -> amazonSNS.createTopic(name).getTopicArn());
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static final class PendingMessage {
+        private final String topicName;
+        private final String message;
     }
 }
@@ -0,0 +1,288 @@
+package com.vinod.microservices.best.practices.service.impl;
+
+import com.amazonaws.services.sqs.AmazonSQS;
+import com.amazonaws.services.sqs.model.BatchResultErrorEntry;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequest;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchResult;
+import com.amazonaws.services.sqs.model.Message;
+import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
+import com.vinod.microservices.best.practices.config.aws.SQSConsumerProperties;
+import com.vinod.microservices.best.practices.handler.IQueueMessageHandler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Consumes the queue of every IQueueMessageHandler with long polling and ReceiveMessage batches,
+ * a bounded number of messages handled in parallel per queue and DeleteMessageBatch acknowledgement.
+ * The visibility timeout of a message is extended while its handler is running.
+ */
+@Service
+@Log4j2
+@ConditionalOnExpression("'${message.queue:}' == 'AWS_SQS' and ${consumer.sqs.enabled:true}")
+public class AWSSQSConsumerService {
+
+    private static final int MAX_MESSAGES = 10;
+    private static final int MAX_WAIT_SECONDS = 20;
+    private static final long RETRY_DELAY_MILLIS = 1000;
+    private static final String SENDER_ID = "SenderId";
+
+    private final AmazonSQS amazonSQS;
+    private final SQSConsumerProperties properties;
+    private final List<IQueueMessageHandler> handlers;
+    private final MeterRegistry meterRegistry;
+    private final int maxMessages;
+    private final int waitTimeSeconds;
+    private final int visibilityTimeoutSeconds;
+    private final List<QueueConsumer> consumers = new ArrayList<>();
+
+    private volatile boolean running;
+    private ScheduledExecutorService scheduler;
+
+    public AWSSQSConsumerService(AmazonSQS amazonSQS, SQSConsumerProperties properties, List<IQueueMessageHandler> handlers, MeterRegistry meterRegistry) {
+        this.amazonSQS = amazonSQS;
+        this.properties = properties;
+        this.handlers = handlers;
+        this.meterRegistry = meterRegistry;
+        this.maxMessages = Math.max(1, Math.min(MAX_MESSAGES, properties.getMaxMessages()));
+        this.waitTimeSeconds = (int) Math.max(0, Math.min(MAX_WAIT_SECONDS, properties.getWaitTime().getSeconds()));
+        this.visibilityTimeoutSeconds = (int) Math.max(1, properties.getVisibilityTimeout().getSeconds());
+    }
+
+    /**
+     * Start one poller per handler queue.
+     */
+    @PostConstruct
+    public void start() {
+        running = true;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("sqs-consumer-scheduler-");
+        threadFactory.setDaemon(true);
+        scheduler = Executors.newScheduledThreadPool(2, threadFactory);
+        for (IQueueMessageHandler handler : handlers) {
+            QueueConsumer consumer = new QueueConsumer(handler);
+            consumers.add(consumer);
+            consumer.start();
+        }
+    }
+
+    /**
+     * Stop polling, wait for the running handlers and acknowledge the handled messages.
+     *
+     * @throws InterruptedException
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        consumers.forEach(QueueConsumer::stopPolling);
+        long deadline = System.nanoTime() + properties.getShutdownTimeout().toNanos();
+        for (QueueConsumer consumer : consumers) {
+            consumer.stopHandlers(deadline);
+        }
+        scheduler.shutdownNow();
+    }
+
+    private final class QueueConsumer {
+
+        private final IQueueMessageHandler handler;
+        private final String queueName;
+        private final Semaphore permits;
+        private final ExecutorService workers;
+        private final BlockingQueue<Message> acks = new LinkedBlockingQueue<>();
+        private final Thread poller;
+        private final Timer handledTimer;
+        private final Timer failedTimer;
+
+        private volatile String queueUrl;
+        private ScheduledFuture<?> ackFlusher;
+
+        private QueueConsumer(IQueueMessageHandler handler) {
+            this.handler = handler;
+            this.queueName = handler.getQueueName();
+            int concurrency = properties.concurrencyFor(queueName);
+            this.permits = new Semaphore(concurrency);
+            CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("sqs-handler-" + queueName + "-");
+            threadFactory.setDaemon(true);
+            this.workers = Executors.newFixedThreadPool(concurrency, threadFactory);
+            this.poller = new Thread(this::poll, "sqs-consumer-" + queueName);
+            this.handledTimer = handlerTimer("handled");
+            this.failedTimer = handlerTimer("failed");
+            this.poller.setDaemon(true);
+        }
+
+        private void start() {
+            long ackInterval = properties.getAckInterval().toMillis();
+            ackFlusher = scheduler.scheduleWithFixedDelay(this::flushAcks, ackInterval, ackInterval, TimeUnit.MILLISECONDS);
+            poller.start();
+        }
+
+        private void stopPolling() {
+            poller.interrupt();
+        }
+
+        private void stopHandlers(long deadline) throws InterruptedException {
+            workers.shutdown();
+            if (!workers.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                log.error("SQS consumer of queue: {} stopped with handlers still running", queueName);
+            }
+            ackFlusher.cancel(false);
+            flushAcks();
+        }
+
+        /**
+         * Receive as many messages as there are free handlers, at most the batch size.
+         */
+        private void poll() {
+            while (running) {
+                try {
+                    if (null == queueUrl) {
+                        queueUrl = amazonSQS.getQueueUrl(queueName).getQueueUrl();
+                    }
+                    permits.acquire();
+                    int extra = Math.min(maxMessages - 1, permits.availablePermits());
+                    int requested = 1 + (permits.tryAcquire(extra) ? extra : 0);
+                    List<Message> messages;
+                    try {
+                        messages = receive(requested);
+                    } catch (RuntimeException e) {
+                        permits.release(requested);
+                        throw e;
+                    }
+                    permits.release(requested - messages.size());
+                    submit(messages);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (RuntimeException e) {
+                    if (!running) {
+                        return;
+                    }
+                    log.error("Error occurred while receiving messages of queue: {}", queueName, e);
+                    try {
+                        Thread.sleep(RETRY_DELAY_MILLIS);
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Hand the received messages to the handlers, the permits of the messages not submitted are released and
+         * those messages are received again once their visibility timeout expires.
+         *
+         * @param messages  - Received messages, one permit each.
+         */
+        private void submit(List<Message> messages) {
+            int submitted = 0;
+            try {
+                for (Message message : messages) {
+                    workers.execute(() -> process(message));
+                    submitted++;
+                }
+            } finally {
+                permits.release(messages.size() - submitted);
+            }
+        }
+
+        private List<Message> receive(int requested) {
+            ReceiveMessageRequest request = new ReceiveMessageRequest(queueUrl)
+                    .withMaxNumberOfMessages(requested)
+                    .withWaitTimeSeconds(waitTimeSeconds)
+                    .withVisibilityTimeout(visibilityTimeoutSeconds)
+                    .withAttributeNames(SENDER_ID);
+            return amazonSQS.receiveMessage(request).getMessages();
+        }
+
+        private void process(Message message) {
+            try {
+                if (handle(message)) {
+                    acks.add(message);
+                    if (acks.size() >= MAX_MESSAGES) {
+                        flushAcks();
+                    }
+                }
+            } finally {
+                permits.release();
+            }
+        }
+
+        /**
+         * Run the handler while the visibility of the message is extended.
+         *
+         * @param message   - Received message.
+         * @return          - true when the message is handled and can be deleted.
+         */
+        private boolean handle(Message message) {
+            long extendPeriod = TimeUnit.SECONDS.toMillis(visibilityTimeoutSeconds) / 2;
+            ScheduledFuture<?> extension = null;
+            boolean handled = false;
+            long start = System.nanoTime();
+            try {
+                extension = scheduler.scheduleAtFixedRate(() -> extendVisibility(message), extendPeriod, extendPeriod, TimeUnit.MILLISECONDS);
+                handler.handle(message.getBody(), message.getAttributes().get(SENDER_ID));
+                handled = true;
+            } catch (Exception e) {
+                log.error("Error occurred while handling message: {} of queue: {}", message.getMessageId(), queueName, e);
+            } finally {
+                if (null != extension) {
+                    extension.cancel(false);
+                }
+                (handled ? handledTimer : failedTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            return handled;
+        }
+
+        private Timer handlerTimer(String result) {
+            return Timer.builder("consumer.sqs.handle").description("SQS message handler processing time")
+                    .tags("queue", queueName, "result", result).publishPercentileHistogram().register(meterRegistry);
+        }
+
+        private void extendVisibility(Message message) {
+            try {
+                amazonSQS.changeMessageVisibility(queueUrl, message.getReceiptHandle(), visibilityTimeoutSeconds);
+            } catch (RuntimeException e) {
+                log.warn("Error occurred while extending visibility of message: {} of queue: {}", message.getMessageId(), queueName, e);
+            }
+        }
+
+        private void flushAcks() {
+            List<Message> batch = new ArrayList<>(MAX_MESSAGES);
+            while (acks.drainTo(batch, MAX_MESSAGES) > 0) {
+                deleteBatch(batch);
+                batch = new ArrayList<>(MAX_MESSAGES);
+            }
+        }
+
+        /**
+         * One DeleteMessageBatch call, the entry ids are the indexes in the batch as a standard queue can deliver
+         * the same message twice and SQS rejects a batch with duplicate ids.
+         *
+         * @param batch - At most 10 handled messages.
+         */
+        private void deleteBatch(List<Message> batch) {
+            List<DeleteMessageBatchRequestEntry> entries = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                entries.add(new DeleteMessageBatchRequestEntry(String.valueOf(i), batch.get(i).getReceiptHandle()));
+            }
+            try {
+                DeleteMessageBatchResult result = amazonSQS.deleteMessageBatch(new DeleteMessageBatchRequest(queueUrl, entries));
+                for (BatchResultErrorEntry failed : result.getFailed()) {
+                    log.warn("Message: {} of queue: {} not deleted: {}", batch.get(Integer.parseInt(failed.getId())).getMessageId(), queueName, failed.getMessage());
+                }
+            } catch (RuntimeException e) {
+                log.error("Error occurred while deleting {} messages of queue: {}", batch.size(), queueName, e);
+            }
+        }
+    }
+}
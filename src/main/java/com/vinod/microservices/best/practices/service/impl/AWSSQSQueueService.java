@@ -1,21 +1,118 @@
 package com.vinod.microservices.best.practices.service.impl;
 
+import com.amazonaws.services.sqs.AmazonSQS;
+import com.amazonaws.services.sqs.model.MessageAttributeValue;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequest;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.SendMessageBatchResult;
 import com.vinod.microservices.best.practices.service.IQueueService;
+import io.awspring.cloud.messaging.core.MessageAttributeDataTypes;
 import io.awspring.cloud.messaging.core.QueueMessagingTemplate;
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 @Service
 @Log4j2
 public class AWSSQSQueueService implements IQueueService {
 
+    private static final int MAX_BATCH_SIZE = 10;
+
     @Autowired
     private QueueMessagingTemplate queueMessagingTemplate;
+    @Autowired
+    private AmazonSQS amazonSQS;
+
+    private final Map<String, String> queueUrls = new ConcurrentHashMap<>();
 
     @Override
+    @Timed(value = "messaging.send", histogram = true)
     public <T> void sendMessage(String queue, T message) {
         log.trace("Request came to send message to SQS queue: {} and the message is: {}",queue, message);
         queueMessagingTemplate.convertAndSend(queue, message);
     }
+
+    /**
+     * Send messages with SendMessageBatch calls of up to 10 messages, the body and the message attributes are the ones
+     * of sendMessage, converted by the message converter of the queue messaging template.
+     *
+     * @param queue     -   Queue name.
+     * @param messages  -   Messages.
+     * @param <T>       -   Message Type.
+     * @return          -   Message id per message, null for the failed ones.
+     */
+    @Override
+    @Timed(value = "messaging.send", histogram = true)
+    public <T> List<String> sendMessages(String queue, List<T> messages) {
+        log.trace("Request came to send {} messages to SQS queue: {}", messages.size(), queue);
+        List<String> messageIds = new ArrayList<>(messages.size());
+        for (int from = 0; from < messages.size(); from += MAX_BATCH_SIZE) {
+            messageIds.addAll(Arrays.asList(sendBatchNow(queue, messages.subList(from, Math.min(from + MAX_BATCH_SIZE, messages.size())))));
+        }
+        return messageIds;
+    }
+
+    /**
+     * One SendMessageBatch call.
+     *
+     * @param queue     -   Queue name.
+     * @param messages  -   At most 10 messages.
+     * @return          -   Message id per message, null for the failed ones.
+     */
+    private <T> String[] sendBatchNow(String queue, List<T> messages) {
+        String[] messageIds = new String[messages.size()];
+        List<SendMessageBatchRequestEntry> entries = new ArrayList<>(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            Message<?> message = queueMessagingTemplate.getMessageConverter().toMessage(messages.get(i), null);
+            entries.add(new SendMessageBatchRequestEntry(String.valueOf(i), String.valueOf(message.getPayload()))
+                    .withMessageAttributes(messageAttributes(message.getHeaders())));
+        }
+        try {
+            SendMessageBatchResult result = amazonSQS.sendMessageBatch(new SendMessageBatchRequest(queueUrl(queue), entries));
+            result.getSuccessful().forEach(successful -> messageIds[Integer.parseInt(successful.getId())] = successful.getMessageId());
+            result.getFailed().forEach(failed -> log.error("Error occurred while sending message to SQS queue: {} code: {} error msg: {}", queue, failed.getCode(), failed.getMessage()));
+            log.trace("Successfully sent batch of {} messages to SQS queue: {}", messages.size(), queue);
+        } catch (Exception exception) {
+            log.error("Error occurred while sending batch of {} messages to SQS queue: {}", messages.size(), queue, exception);
+        }
+        return messageIds;
+    }
+
+    /**
+     * Message attributes of the converted message headers, mapped as the queue message channel of convertAndSend does.
+     *
+     * @param headers   -   Headers of the converted message.
+     * @return          -   Message attributes.
+     */
+    private static Map<String, MessageAttributeValue> messageAttributes(MessageHeaders headers) {
+        Map<String, MessageAttributeValue> attributes = new HashMap<>();
+        headers.forEach((name, value) -> {
+            if (MessageHeaders.CONTENT_TYPE.equals(name) || MessageHeaders.ID.equals(name) || value instanceof String) {
+                attributes.put(name, new MessageAttributeValue().withDataType(MessageAttributeDataTypes.STRING).withStringValue(value.toString()));
+            } else if (value instanceof Number) {
+                attributes.put(name, new MessageAttributeValue().withDataType(MessageAttributeDataTypes.NUMBER + "." + value.getClass().getName()).withStringValue(value.toString()));
+            }
+        });
+        return attributes;
+    }
+
+    /**
+     * Queue URL, resolved once per queue.
+     *
+     * @param queue - Queue name.
+     * @return      - Queue URL.
+     */
+    private String queueUrl(String queue) {
+        return queueUrls.computeIfAbsent(queue, name -> amazonSQS.getQueueUrl(name).getQueueUrl());
+    }
 }
@@ -0,0 +1,94 @@
+package com.vinod.microservices.best.practices.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.vinod.microservices.best.practices.config.cache.CustomerCacheProperties;
+import com.vinod.microservices.best.practices.dto.CustomerDto;
+import com.vinod.microservices.best.practices.service.ICustomerCacheService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * In-process customer cache, bounded by size (W-TinyLFU) and expired by TTL.
+ * Unknown email ids are cached with a shorter TTL when negative caching is enabled.
+ */
+@Service
+@Log4j2
+public class CaffeineCustomerCacheService implements ICustomerCacheService {
+
+    public static final String CACHE_NAME = "customer";
+
+    private final Cache<String, Optional<CustomerDto>> cache;
+    private final boolean negativeCaching;
+
+    public CaffeineCustomerCacheService(CustomerCacheProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.negativeCaching = properties.isNegativeCaching();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfter(new CustomerExpiry(properties.getTtl().toNanos(), properties.getNegativeTtl().toNanos()))
+                .recordStats()
+                .build();
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME));
+    }
+
+    @Override
+    public Optional<CustomerDto> get(String emailId, Function<String, Optional<CustomerDto>> loader) {
+        Optional<CustomerDto> customerDto = cache.get(emailId, key -> {
+            Optional<CustomerDto> loaded = loader.apply(key);
+            return loaded.isPresent() || negativeCaching ? loaded : null;
+        });
+        return null != customerDto ? customerDto : Optional.empty();
+    }
+
+    @Override
+    public void evict(String emailId) {
+        log.trace("Evict customer cache entry for customer email id: {}", emailId);
+        cache.invalidate(emailId);
+    }
+
+    /**
+     * Cache statistics - hit, miss, eviction count.
+     *
+     * @return  - CacheStats object.
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * Per entry expiry, found customers live for ttl and unknown email ids for negative ttl.
+     */
+    private static final class CustomerExpiry implements Expiry<String, Optional<CustomerDto>> {
+
+        private final long ttlNanos;
+        private final long negativeTtlNanos;
+
+        private CustomerExpiry(long ttlNanos, long negativeTtlNanos) {
+            this.ttlNanos = ttlNanos;
+            this.negativeTtlNanos = negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(String key, Optional<CustomerDto> value, long currentTime) {
+            return value.isPresent() ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Optional<CustomerDto> value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Optional<CustomerDto> value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.vinod.microservices.best.practices.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vinod.microservices.best.practices.config.web.IdempotencyProperties;
+import com.vinod.microservices.best.practices.model.IdempotencyRecord;
+import com.vinod.microservices.best.practices.service.IIdempotencyService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+/**
+ * In-process idempotency store, bounded by size and expired by TTL, responses are only replayed by the node storing them.
+ */
+@Service
+public class CaffeineIdempotencyService implements IIdempotencyService {
+
+    public static final String CACHE_NAME = "idempotency";
+
+    private final Cache<String, IdempotencyRecord> cache;
+
+    public CaffeineIdempotencyService(IdempotencyProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME));
+    }
+
+    @Override
+    public IdempotencyRecord find(String idempotencyKey) {
+        return cache.getIfPresent(idempotencyKey);
+    }
+
+    @Override
+    public boolean claim(String idempotencyKey, String fingerprint) {
+        IdempotencyRecord pending = IdempotencyRecord.builder().idempotencyKey(idempotencyKey).fingerprint(fingerprint)
+                .status(IdempotencyRecord.PENDING_STATUS).createdAt(LocalDateTime.now()).build();
+        return null == cache.asMap().putIfAbsent(idempotencyKey, pending);
+    }
+
+    @Override
+    public void save(IdempotencyRecord idempotencyRecord) {
+        cache.put(idempotencyRecord.getIdempotencyKey(), idempotencyRecord);
+    }
+
+    @Override
+    public void release(String idempotencyKey) {
+        cache.asMap().computeIfPresent(idempotencyKey, (key, idempotencyRecord) -> idempotencyRecord.isPending() ? null : idempotencyRecord);
+    }
+}
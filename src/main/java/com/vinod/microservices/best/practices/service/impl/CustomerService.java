@@ -1,114 +1,313 @@
 package com.vinod.microservices.best.practices.service.impl;
 
 
+import com.vinod.microservices.best.practices.dto.CustomerBatchResultDto;
+import com.vinod.microservices.best.practices.dto.CustomerBulkDto;
+import com.vinod.microservices.best.practices.dto.CustomerBulkResultDto;
 import com.vinod.microservices.best.practices.dto.CustomerDto;
 import com.vinod.microservices.best.practices.dto.CustomerMessageData;
+import com.vinod.microservices.best.practices.dto.CustomerPageDto;
 import com.vinod.microservices.best.practices.dto.CustomerRegisterDto;
 import com.vinod.microservices.best.practices.dto.CustomerUpdateDto;
 import com.vinod.microservices.best.practices.event.CustomerCreatedEvent;
+import com.vinod.microservices.best.practices.event.CustomerDeletedEvent;
+import com.vinod.microservices.best.practices.event.CustomerStatusChangedEvent;
+import com.vinod.microservices.best.practices.exception.CustomerModifiedException;
 import com.vinod.microservices.best.practices.exception.UserNotFoundException;
+import com.vinod.microservices.best.practices.mapper.CustomerMapper;
 import com.vinod.microservices.best.practices.model.Customer;
 import com.vinod.microservices.best.practices.repository.CustomerRepository;
+import com.vinod.microservices.best.practices.service.ICustomerCacheService;
 import com.vinod.microservices.best.practices.service.ICustomerService;
-import com.vinod.microservices.best.practices.service.IQueueService;
+import com.vinod.microservices.best.practices.util.ErrorCode;
+import com.vinod.microservices.best.practices.util.SingleFlight;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.log4j.Log4j2;
 import org.apache.skywalking.apm.toolkit.trace.Trace;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.Optional;
+import javax.annotation.PostConstruct;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.vinod.microservices.best.practices.util.ApplicationConstant.CustomerStatus.REGISTERED;
+import static com.vinod.microservices.best.practices.util.GlobalUtility.buildETag;
+import static com.vinod.microservices.best.practices.util.GlobalUtility.matchesETag;
 
 @Service
 @Log4j2
 public class CustomerService implements ICustomerService {
 
+    static final String CUSTOMER_SERVICE_METRIC = "customer.service";
+    static final String USER_NOT_FOUND_METRIC = "customer.not.found";
+    static final String LOOKUP_SINGLE_FLIGHT_METRIC = "customer.lookup.single.flight";
+
     @Autowired
     private CustomerRepository customerRepository;
     @Autowired
-    private ModelMapper modelMapper;
+    private CustomerMapper customerMapper;
     @Autowired
     private CustomerCreatedEvent customerCreatedEvent;
     @Autowired
-    private IQueueService queueService;
+    private CustomerDeletedEvent customerDeletedEvent;
+    @Autowired
+    private CustomerStatusChangedEvent customerStatusChangedEvent;
+    @Autowired
+    private ICustomerCacheService customerCacheService;
+    @Autowired
+    private Validator validator;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${customer.batch.size:50}")
+    private int batchSize;
+    @Value("${customer.bulk.chunk-size:500}")
+    private int bulkChunkSize;
+
+    private SingleFlight<String, Optional<CustomerDto>> customerLookups;
+    private final Map<String, Counter> notFoundCounters = new ConcurrentHashMap<>();
 
-    @Value("${queue.customer.deleted}")
-    private String queue_customer_deleted;
+    @PostConstruct
+    void init() {
+        customerLookups = new SingleFlight<>(meterRegistry, LOOKUP_SINGLE_FLIGHT_METRIC);
+    }
 
     /**
-     * Add customer object to database and raise event.
+     * Add customer object to database and raise event in the same transaction.
      *
      * @param customerRegisterDto - Customer register command object.
      */
     @Override
     @Trace
+    @Timed(value = CUSTOMER_SERVICE_METRIC, histogram = true)
+    @Transactional
     public void addCustomer(CustomerRegisterDto customerRegisterDto) {
         log.trace("Request came to add new customer : {}", customerRegisterDto);
         Customer customer = mapAndSaveCustomerDetails(customerRegisterDto);
-        customerCreatedEvent.on(CustomerMessageData.builder().emailId(customer.getEmailId()).firstName(customer.getName()).build());
-        log.info("Successfully saved customer object: {}", customer);
+        evictAfterCommit(customer.getEmailId());
+        raiseCustomerCreated(customer);
+        log.info("Successfully saved customer having email id: {}", customer.getEmailId());
     }
 
     /**
-     * Update the customer object to database.
+     * Add customer objects to database in chunks of customer.batch.size and raise event per created customer.
+     *
+     * @param customerRegisterDtos - Customer register command objects.
+     * @return                     - Result per item.
+     */
+    @Override
+    @Trace
+    @Timed(value = CUSTOMER_SERVICE_METRIC, histogram = true)
+    public List<CustomerBatchResultDto> addCustomers(List<CustomerRegisterDto> customerRegisterDtos) {
+        log.trace("Request came to add {} customers in batch", customerRegisterDtos.size());
+        List<CustomerBatchResultDto> results = new ArrayList<>(customerRegisterDtos.size());
+        for (int from = 0; from < customerRegisterDtos.size(); from += batchSize) {
+            List<CustomerRegisterDto> chunk = customerRegisterDtos.subList(from, Math.min(from + batchSize, customerRegisterDtos.size()));
+            results.addAll(addCustomerChunk(chunk, from));
+        }
+        log.info("Successfully processed customer batch of {} customers", customerRegisterDtos.size());
+        return results;
+    }
+
+    /**
+     * Update the customer object to database. The customer is saved with the version it was read with,
+     * so an update committed in between fails with an optimistic lock failure instead of being overwritten.
+     * The update is flushed so the returned customer carries the incremented version.
      *
      * @param customerUpdateDto - Customer update dto object.
      * @param emailId           - Customer Email ID.
+     * @param ifMatch           - If-Match ETags the customer must match, null to update whatever the version.
+     * @return                  - Updated customer query object.
      */
     @Override
     @Trace
-    public void updateCustomer(CustomerUpdateDto customerUpdateDto, String emailId) throws UserNotFoundException {
+    @Timed(value = CUSTOMER_SERVICE_METRIC, histogram = true)
+    @Transactional
+    public CustomerDto updateCustomer(CustomerUpdateDto customerUpdateDto, String emailId, String ifMatch) throws UserNotFoundException, CustomerModifiedException {
         log.trace("Request came to update customer details for: {}", customerUpdateDto);
-        Customer customer = mapDataToCustomer(customerUpdateDto, emailId);
-        if(null!=customer) {
-            Customer persistedCustomer=customerRepository.save(customer);
-            log.info("Successfully updated customer details: {}", persistedCustomer);
-        } else {
-            throw new UserNotFoundException("Customer update operation failed, customer not found for email id:"+emailId);
+        Customer customer = fetchCustomerDetailsByEmailId(emailId);
+        if(null==customer) {
+            throw userNotFound("updateCustomer", "Customer update operation failed, customer not found for email id:", emailId);
         }
+        if(null!=ifMatch && !matchesETag(ifMatch, buildETag(customer.getId(), customer.getVersion()))) {
+            throw new CustomerModifiedException("Customer update operation failed, customer having email id: "+emailId+" does not match: "+ifMatch);
+        }
+        customerMapper.updateCustomer(customerUpdateDto, customer);
+        Customer persistedCustomer=customerRepository.saveAndFlush(customer);
+        evictAfterCommit(emailId);
+        log.info("Successfully updated customer details for customer email id: {}", persistedCustomer.getEmailId());
+        return customerMapper.toCustomerDto(persistedCustomer);
     }
 
     /**
-     * Delete customer by customer emailId.
+     * Delete customer by customer emailId and raise deleted message in the same transaction.
      *
      * @param emailId - Customer emailId.
      */
     @Override
     @Trace
+    @Timed(value = CUSTOMER_SERVICE_METRIC, histogram = true)
+    @Transactional
     public void deleteCustomer(String emailId) throws UserNotFoundException {
         log.trace("Request came to delete customer having emailId: {}", emailId);
         Optional<Customer> optionalCustomer=customerRepository.findCustomerByEmailId(emailId);
         if(optionalCustomer.isPresent()) {
             Customer  customer = optionalCustomer.get();
             customerRepository.delete(customer);
-            queueService.sendMessage(queue_customer_deleted, CustomerMessageData.builder().emailId(customer.getEmailId()).firstName(customer.getName()).build());
+            evictAfterCommit(emailId);
+            customerDeletedEvent.on(CustomerMessageData.builder().emailId(customer.getEmailId()).firstName(customer.getName()).build());
             log.info("Successfully deleted the customer details for customer email id: {}", emailId);
         } else {
-            throw new UserNotFoundException("Customer delete operation failed, customer not found for email id:"+emailId);
+            throw userNotFound("deleteCustomer", "Customer delete operation failed, customer not found for email id:", emailId);
         }
     }
 
     /**
-     * Get customer object by Email ID.
+     * Get customer object by Email ID, served from the customer cache when present.
      *
      * @param emailId    - Customer Email ID.
      * @return      - Customer Query object.
      */
     @Override
     @Trace
+    @Timed(value = CUSTOMER_SERVICE_METRIC, histogram = true)
     public CustomerDto getCustomerByEmailId(String emailId) throws UserNotFoundException {
         log.trace("Request came to get customer details for customer email id: {}", emailId);
-        Customer customer = fetchCustomerDetailsByEmailId(emailId);
-        if(null!=customer) {
-            return mapDataToCustomerDto(customer);
+        Optional<CustomerDto> optionalCustomerDto = customerCacheService.get(emailId, this::fetchCustomerDtoByEmailId);
+        if(optionalCustomerDto.isPresent()) {
+            return optionalCustomerDto.get();
         } else {
-            throw new UserNotFoundException("Get Customer details operation failed, customer not found for email id:"+emailId);
+            throw userNotFound("getCustomerByEmailId", "Get Customer details operation failed, customer not found for email id:", emailId);
         }
     }
 
+    /**
+     * Keyset page of customers ordered by id, the page after afterId is read with an index seek.
+     *
+     * @param status    - Customer status, null for every status.
+     * @param afterId   - Last id of the previous page, 0 for the first page.
+     * @param limit     - Page size.
+     * @return          - Customer page object.
+     */
+    @Override
+    @Trace
+    @Timed(value = CUSTOMER_SERVICE_METRIC, histogram = true)
+    public CustomerPageDto getCustomers(String status, long afterId, int limit) {
+        log.trace("Request came to get {} customers after id: {} having status: {}", limit, afterId, status);
+        PageRequest page = PageRequest.of(0, limit);
+        List<CustomerDto> customers = null != status ? customerRepository.findCustomerDtoPageByStatus(status, afterId, page) : customerRepository.findCustomerDtoPage(afterId, page);
+        return CustomerPageDto.of(customers, limit);
+    }
+
+    /**
+     * Stream every customer ordered by id to the consumer, rows are fetched CUSTOMER_EXPORT_FETCH_SIZE at a time
+     * in a read only transaction, so memory stays flat whatever the number of customers.
+     *
+     * @param status    - Customer status, null for every status.
+     * @param consumer  - Customer consumer, called once per customer.
+     * @return          - Number of exported customers.
+     */
+    @Override
+    @Trace
+    @Timed(value = CUSTOMER_SERVICE_METRIC, histogram = true)
+    @Transactional(readOnly = true)
+    public long exportCustomers(String status, Consumer<CustomerDto> consumer) {
+        log.trace("Request came to export customers having status: {}", status);
+        long count = 0;
+        try (Stream<CustomerDto> customers = null != status ? customerRepository.streamCustomerDtosByStatus(status) : customerRepository.streamCustomerDtos()) {
+            Iterator<CustomerDto> iterator = customers.iterator();
+            while (iterator.hasNext()) {
+                consumer.accept(iterator.next());
+                count++;
+            }
+        }
+        log.info("Successfully exported {} customers", count);
+        return count;
+    }
+
+    /**
+     * Delete the selected customers chunk by chunk, each chunk is selected, deleted with one DELETE statement
+     * and its customer deleted messages recorded in its own transaction.
+     *
+     * @param customerBulkDto   - Customers selected by email id or by status.
+     * @param progress          - Called after each committed chunk.
+     * @return                  - Chunks and deleted customers.
+     */
+    @Override
+    @Trace
+    @Timed(value = CUSTOMER_SERVICE_METRIC, histogram = true)
+    public CustomerBulkResultDto deleteCustomers(CustomerBulkDto customerBulkDto, Consumer<CustomerBulkResultDto> progress) {
+        log.trace("Request came to delete customers: {}", customerBulkDto);
+        CustomerBulkResultDto result = applyInChunks(customerBulkDto, customerRepository::findCustomerDtosByEmailIds, customers -> {
+            int deleted = customerRepository.deleteCustomersByIds(customerIds(customers));
+            evictAfterCommit(customers);
+            customerDeletedEvent.onAll(customerMessageData(customers, null));
+            return deleted;
+        }, progress);
+        log.info("Successfully deleted {} customers in {} chunks", result.getAffected(), result.getChunks());
+        return result;
+    }
+
+    /**
+     * Change the status of the selected customers chunk by chunk, each chunk is selected, updated with one UPDATE statement
+     * and its customer status changed messages recorded in its own transaction. Customers already having the status are skipped.
+     *
+     * @param customerBulkDto   - Customers selected by email id or by status.
+     * @param status            - New customer status.
+     * @param progress          - Called after each committed chunk.
+     * @return                  - Chunks and updated customers.
+     */
+    @Override
+    @Trace
+    @Timed(value = CUSTOMER_SERVICE_METRIC, histogram = true)
+    public CustomerBulkResultDto changeCustomerStatus(CustomerBulkDto customerBulkDto, String status, Consumer<CustomerBulkResultDto> progress) {
+        log.trace("Request came to change the status of customers: {} to: {}", customerBulkDto, status);
+        if (status.equals(customerBulkDto.getStatus())) {
+            return CustomerBulkResultDto.builder().build();
+        }
+        CustomerBulkResultDto result = applyInChunks(customerBulkDto, emailIds -> customerRepository.findCustomerDtosByEmailIdsAndStatusNot(emailIds, status), customers -> {
+            int updated = customerRepository.updateCustomerStatusByIds(customerIds(customers), status);
+            evictAfterCommit(customers);
+            customerStatusChangedEvent.onAll(customerMessageData(customers, status));
+            return updated;
+        }, progress);
+        log.info("Successfully changed the status of {} customers to: {} in {} chunks", result.getAffected(), status, result.getChunks());
+        return result;
+    }
+
+    /**
+     * Count the customer not found per operation.
+     *
+     * @param operation - ICustomerService operation.
+     * @param message   - Exception message, followed by the email id.
+     * @param emailId   - Customer Email ID.
+     * @return          - UserNotFoundException object.
+     */
+    private UserNotFoundException userNotFound(String operation, String message, String emailId) {
+        notFoundCounters.computeIfAbsent(operation, key -> meterRegistry.counter(USER_NOT_FOUND_METRIC, "operation", key)).increment();
+        return new UserNotFoundException(message, emailId);
+    }
+
     /**
      * Fetch the customer object from DB using customer email id.
      *
@@ -121,6 +320,20 @@ public class CustomerService implements ICustomerService {
         return optionalCustomer.isPresent() ? optionalCustomer.get() : null;
     }
 
+    /**
+     * Fetch only the customer query columns from DB using customer email id, concurrent lookups of the same email id
+     * share one query.
+     *
+     * @param emailId
+     * @return
+     */
+    private Optional<CustomerDto> fetchCustomerDtoByEmailId(String emailId) {
+        return customerLookups.execute(emailId, key -> {
+            log.trace("Fetch customer query details from DB for customer email id: {}", key);
+            return customerRepository.findCustomerDtoByEmailId(key);
+        });
+    }
+
     /**
      * Save the customer object to DB.
      *
@@ -134,6 +347,203 @@ public class CustomerService implements ICustomerService {
         return persistedCustomer;
     }
 
+    /**
+     * Validate, map and save one chunk of customers in a single transaction.
+     * If the chunk fails, the customers are saved one by one to isolate the failed items.
+     *
+     * @param chunk         - Customer register dto objects.
+     * @param firstIndex    - Index of the first item of the chunk.
+     * @return              - Result per item.
+     */
+    private List<CustomerBatchResultDto> addCustomerChunk(List<CustomerRegisterDto> chunk, int firstIndex) {
+        CustomerBatchResultDto[] results = new CustomerBatchResultDto[chunk.size()];
+        Map<Integer, Customer> customers = new LinkedHashMap<>();
+        Set<String> emailIds = new HashSet<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            CustomerRegisterDto customerRegisterDto = chunk.get(i);
+            if (null == customerRegisterDto) {
+                results[i] = failedResult(firstIndex + i, null, ErrorCode.BAD_PARAMETER, null);
+                continue;
+            }
+            Set<ConstraintViolation<CustomerRegisterDto>> violations = validator.validate(customerRegisterDto);
+            if (!violations.isEmpty()) {
+                List<String> errors = violations.stream().map(ConstraintViolation::getMessage).collect(Collectors.toList());
+                results[i] = failedResult(firstIndex + i, customerRegisterDto.getEmailId(), ErrorCode.BAD_PARAMETER, errors);
+            } else if (!emailIds.add(customerRegisterDto.getEmailId())) {
+                results[i] = failedResult(firstIndex + i, customerRegisterDto.getEmailId(), ErrorCode.DUPLICATE_USER, null);
+            } else {
+                customers.put(i, mapDataToCustomer(customerRegisterDto));
+            }
+        }
+        if (!customers.isEmpty()) {
+            Set<String> existingEmailIds = new HashSet<>(customerRepository.findExistingEmailIds(emailIds));
+            customers.entrySet().removeIf(entry -> {
+                boolean exists = existingEmailIds.contains(entry.getValue().getEmailId());
+                if (exists) {
+                    results[entry.getKey()] = failedResult(firstIndex + entry.getKey(), entry.getValue().getEmailId(), ErrorCode.DUPLICATE_USER, null);
+                }
+                return exists;
+            });
+        }
+        if (!customers.isEmpty()) {
+            try {
+                transactionTemplate.execute(status -> {
+                    customerRepository.saveAll(customers.values());
+                    customers.values().forEach(this::raiseCustomerCreated);
+                    return null;
+                });
+            } catch (DataAccessException e) {
+                log.warn("Customer batch insert failed, retrying item by item, error msg: {}", e.getMessage());
+                //Reset the id and version assigned by the rolled back insert, so each customer is saved as new again.
+                customers.values().forEach(customer -> {
+                    customer.setId(null);
+                    customer.setVersion(null);
+                });
+                customers.entrySet().removeIf(entry -> {
+                    try {
+                        transactionTemplate.execute(status -> {
+                            customerRepository.save(entry.getValue());
+                            raiseCustomerCreated(entry.getValue());
+                            return null;
+                        });
+                        return false;
+                    } catch (DataAccessException itemException) {
+                        ErrorCode errorCode = itemException instanceof DataIntegrityViolationException ? ErrorCode.DUPLICATE_USER : ErrorCode.INTERNAL_ERROR;
+                        results[entry.getKey()] = failedResult(firstIndex + entry.getKey(), entry.getValue().getEmailId(), errorCode, null);
+                        return true;
+                    }
+                });
+            }
+        }
+        customers.forEach((i, customer) -> {
+            evict(customer.getEmailId());
+            results[i] = CustomerBatchResultDto.builder().index(firstIndex + i).emailId(customer.getEmailId()).id(customer.getId()).created(true).build();
+        });
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Apply the bulk operation to the selected customers, customer.bulk.chunk-size customers per transaction.
+     * Customers selected by status are read with keyset pages, so each chunk is an index seek whatever the number of customers.
+     *
+     * @param customerBulkDto   - Customers selected by email id or by status.
+     * @param emailIdSelection  - Customers of one chunk of email ids.
+     * @param operation         - Set based change of one chunk of customers, returns the number of affected rows.
+     * @param progress          - Called after each committed chunk.
+     * @return                  - Chunks and affected customers.
+     */
+    private CustomerBulkResultDto applyInChunks(CustomerBulkDto customerBulkDto, Function<List<String>, List<CustomerDto>> emailIdSelection,
+                                                ToIntFunction<List<CustomerDto>> operation, Consumer<CustomerBulkResultDto> progress) {
+        int chunks = 0;
+        long affected = 0;
+        int[] chunkAffected = {0};
+        if (null != customerBulkDto.getStatus()) {
+            PageRequest page = PageRequest.of(0, bulkChunkSize);
+            long afterId = 0;
+            List<CustomerDto> customers;
+            do {
+                long chunkAfterId = afterId;
+                customers = transactionTemplate.execute(status -> {
+                    List<CustomerDto> selected = customerRepository.findCustomerDtoPageByStatus(customerBulkDto.getStatus(), chunkAfterId, page);
+                    chunkAffected[0] = selected.isEmpty() ? 0 : operation.applyAsInt(selected);
+                    return selected;
+                });
+                if (customers.isEmpty()) {
+                    break;
+                }
+                afterId = customers.get(customers.size() - 1).getId();
+                affected += chunkAffected[0];
+                progress.accept(CustomerBulkResultDto.builder().chunks(++chunks).affected(affected).build());
+            } while (customers.size() == bulkChunkSize);
+        } else {
+            List<String> emailIds = new ArrayList<>(new LinkedHashSet<>(customerBulkDto.getEmailIds()));
+            for (int from = 0; from < emailIds.size(); from += bulkChunkSize) {
+                List<String> chunk = emailIds.subList(from, Math.min(from + bulkChunkSize, emailIds.size()));
+                affected += transactionTemplate.execute(status -> {
+                    List<CustomerDto> selected = emailIdSelection.apply(chunk);
+                    return selected.isEmpty() ? 0 : operation.applyAsInt(selected);
+                });
+                progress.accept(CustomerBulkResultDto.builder().chunks(++chunks).affected(affected).build());
+            }
+        }
+        return CustomerBulkResultDto.builder().chunks(chunks).affected(affected).build();
+    }
+
+    private List<Long> customerIds(List<CustomerDto> customers) {
+        return customers.stream().map(CustomerDto::getId).collect(Collectors.toList());
+    }
+
+    private List<CustomerMessageData> customerMessageData(List<CustomerDto> customers, String status) {
+        return customers.stream()
+                .map(customer -> CustomerMessageData.builder().emailId(customer.getEmailId()).firstName(customer.getName()).status(status).build())
+                .collect(Collectors.toList());
+    }
+
+    private void raiseCustomerCreated(Customer customer) {
+        customerCreatedEvent.on(CustomerMessageData.builder().emailId(customer.getEmailId()).firstName(customer.getName()).build());
+    }
+
+    /**
+     * Evict the cached customer once the current transaction commits, so a concurrent lookup cannot cache the old row again.
+     *
+     * @param emailId - Customer Email ID.
+     */
+    private void evictAfterCommit(String emailId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    evict(emailId);
+                }
+            });
+        } else {
+            evict(emailId);
+        }
+    }
+
+    /**
+     * Evict the cached customer, lookups in flight are not shared with the next callers.
+     *
+     * @param emailId   - Customer Email ID.
+     */
+    private void evict(String emailId) {
+        customerLookups.forget(emailId);
+        customerCacheService.evict(emailId);
+    }
+
+    /**
+     * Evict the cached customers once the current transaction commits, with a single synchronization for the chunk.
+     *
+     * @param customers - Customer query objects.
+     */
+    private void evictAfterCommit(List<CustomerDto> customers) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                customers.forEach(customer -> evict(customer.getEmailId()));
+            }
+        });
+    }
+
+    /**
+     * Failed item result of a customer batch.
+     *
+     * @param index     - Item index.
+     * @param emailId   - Customer Email ID.
+     * @param errorCode - Error code.
+     * @param errors    - Error messages, error code description when null.
+     * @return          - CustomerBatchResultDto object.
+     */
+    private CustomerBatchResultDto failedResult(int index, String emailId, ErrorCode errorCode, List<String> errors) {
+        return CustomerBatchResultDto.builder()
+                .index(index)
+                .emailId(emailId)
+                .created(false)
+                .errorCode(String.valueOf(errorCode.getCode()))
+                .errors(null != errors ? errors : Collections.singletonList(errorCode.getDescription()))
+                .build();
+    }
+
     /**
      * Save the customer object to database.
      *
@@ -155,39 +565,8 @@ public class CustomerService implements ICustomerService {
      */
     @Trace
     private Customer mapDataToCustomer(CustomerRegisterDto customerRegisterDto) {
-        modelMapper.typeMap(CustomerRegisterDto.class, Customer.class).addMappings(mapper -> mapper.skip(Customer::setId));
-        Customer customer = modelMapper.map(customerRegisterDto, Customer.class);
+        Customer customer = customerMapper.toCustomer(customerRegisterDto);
         customer.setStatus(REGISTERED.value());
         return customer;
     }
-
-    /**
-     * Map Customer to CustomerDto object.
-     *
-     * @param customer - Customer object.
-     * @return  - Customer Query object.
-     */
-    private CustomerDto mapDataToCustomerDto(Customer customer) {
-        modelMapper.typeMap(Customer.class, CustomerDto.class).addMappings(mapper -> mapper.skip(CustomerDto::setId));
-        CustomerDto customerDto = modelMapper.map(customer, CustomerDto.class);
-        customerDto.setId(customer.getId());
-        return customerDto;
-    }
-
-    /**
-     * Map CustomerUpdateDto to Customer object.
-     *
-     * @param customerUpdateDto - customerUpdateDto object.
-     * @param emailId
-     * @return  - Customer object.
-     */
-    private Customer mapDataToCustomer(CustomerUpdateDto customerUpdateDto, String emailId) {
-        Customer customer = fetchCustomerDetailsByEmailId(emailId);
-        if(null!=customer) {
-            customer.setAddress(customerUpdateDto.getAddress());
-            customer.setName(customerUpdateDto.getName());
-            return customer;
-        }
-        return null;
-    }
 }
@@ -0,0 +1,90 @@
+package com.vinod.microservices.best.practices.service.impl;
+
+import com.vinod.microservices.best.practices.config.web.IdempotencyProperties;
+import com.vinod.microservices.best.practices.model.IdempotencyRecord;
+import com.vinod.microservices.best.practices.repository.IdempotencyRecordRepository;
+import com.vinod.microservices.best.practices.service.IIdempotencyService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Idempotency store in the idempotency_record table, responses are replayed by every node. A key is claimed across the
+ * nodes by inserting its pending record, the insert of another node fails on the primary key until the record is
+ * expired or, still pending after idempotency.claim-timeout, left by a stopped node.
+ * Expired records are purged periodically when the store is in use.
+ */
+@Service
+@Log4j2
+public class DatabaseIdempotencyService implements IIdempotencyService {
+
+    public static final String STORE_TYPE = "DATABASE";
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+    @Autowired
+    private IdempotencyProperties idempotencyProperties;
+
+    @Override
+    public IdempotencyRecord find(String idempotencyKey) {
+        return idempotencyRecordRepository.findById(idempotencyKey)
+                .filter(idempotencyRecord -> idempotencyRecord.getCreatedAt().isAfter(idempotencyRecord.isPending() ? claimExpiredBefore() : expiredBefore()))
+                .orElse(null);
+    }
+
+    @Override
+    public boolean claim(String idempotencyKey, String fingerprint) {
+        if (insertPending(idempotencyKey, fingerprint)) {
+            return true;
+        }
+        //Taken over when the record left is expired or claimed by a stopped node.
+        return idempotencyRecordRepository.deleteAbandoned(idempotencyKey, expiredBefore(), claimExpiredBefore()) > 0
+                && insertPending(idempotencyKey, fingerprint);
+    }
+
+    @Override
+    public void save(IdempotencyRecord idempotencyRecord) {
+        if (0 == idempotencyRecordRepository.complete(idempotencyRecord)) {
+            log.warn("Claim of idempotency key: {} lost before its response was stored", idempotencyRecord.getIdempotencyKey());
+        }
+    }
+
+    @Override
+    public void release(String idempotencyKey) {
+        idempotencyRecordRepository.deletePending(idempotencyKey);
+    }
+
+    private boolean insertPending(String idempotencyKey, String fingerprint) {
+        try {
+            return idempotencyRecordRepository.insertPending(idempotencyKey, fingerprint, LocalDateTime.now()) > 0;
+        } catch (DataIntegrityViolationException e) {
+            //Claimed by another node, or stored.
+            log.debug("Idempotency key: {} already claimed", idempotencyKey);
+            return false;
+        }
+    }
+
+    /**
+     * Delete the expired records.
+     */
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval:3600000}")
+    public void purgeExpired() {
+        if (!idempotencyProperties.isEnabled() || !STORE_TYPE.equals(idempotencyProperties.getStore())) {
+            return;
+        }
+        int deleted = idempotencyRecordRepository.deleteCreatedBefore(expiredBefore());
+        log.debug("Purged {} expired idempotency records", deleted);
+    }
+
+    private LocalDateTime expiredBefore() {
+        return LocalDateTime.now().minus(idempotencyProperties.getTtl());
+    }
+
+    private LocalDateTime claimExpiredBefore() {
+        return LocalDateTime.now().minus(idempotencyProperties.getClaimTimeout());
+    }
+}
@@ -0,0 +1,25 @@
+package com.vinod.microservices.best.practices.service.impl;
+
+import com.vinod.microservices.best.practices.dto.CustomerDto;
+import com.vinod.microservices.best.practices.service.ICustomerCacheService;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Pass-through customer cache, every lookup goes to the loader.
+ */
+@Service
+public class NoOpCustomerCacheService implements ICustomerCacheService {
+
+    @Override
+    public Optional<CustomerDto> get(String emailId, Function<String, Optional<CustomerDto>> loader) {
+        return loader.apply(emailId);
+    }
+
+    @Override
+    public void evict(String emailId) {
+        //Nothing cached.
+    }
+}
@@ -0,0 +1,153 @@
+package com.vinod.microservices.best.practices.service.impl;
+
+import com.vinod.microservices.best.practices.model.OutboxEvent;
+import com.vinod.microservices.best.practices.repository.OutboxEventRepository;
+import com.vinod.microservices.best.practices.service.IPublisherService;
+import com.vinod.microservices.best.practices.service.IQueueService;
+import com.vinod.microservices.best.practices.util.ApplicationConstant.OutboxDestinationType;
+import com.vinod.microservices.best.practices.util.ApplicationConstant.OutboxStatus;
+import com.vinod.microservices.best.practices.util.JsonMapperRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Outbox relay, polls the outbox table and delivers the events in batches per topic / queue through IPublisherService / IQueueService.
+ * Each batch is locked with SELECT ... FOR UPDATE SKIP LOCKED, so relays on several nodes share the work.
+ * Delivered events are deleted in the same transaction, delivery is at-least-once. Failed events are retried with an
+ * exponential backoff and moved to DEAD after outbox.relay.max-attempts, counted under outbox.events.dead.
+ */
+@Service
+@Log4j2
+@ConditionalOnExpression("${outbox.enabled:true} and ${outbox.relay.enabled:true}")
+public class OutboxRelayService {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    @Autowired
+    private IPublisherService publisherEvent;
+    @Autowired
+    private IQueueService queueService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${outbox.relay.batch-size:100}")
+    private int batchSize;
+    @Value("${outbox.relay.max-attempts:10}")
+    private int maxAttempts;
+    @Value("${outbox.relay.backoff:1s}")
+    private Duration backoff;
+    @Value("${outbox.relay.max-backoff:5m}")
+    private Duration maxBackoff;
+
+    /**
+     * Relay outbox events until no event is due.
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay.poll-interval:500}")
+    public void relay() {
+        int processed;
+        do {
+            processed = transactionTemplate.execute(status -> relayBatch());
+        } while (processed == batchSize);
+    }
+
+    /**
+     * Lock, deliver and delete one batch of outbox events, the failed ones are rescheduled, must run inside a transaction.
+     *
+     * @return  - Number of locked events, delivered or not.
+     */
+    private int relayBatch() {
+        List<OutboxEvent> outboxEvents = outboxEventRepository.lockNextBatch(LocalDateTime.now(), batchSize);
+        if (outboxEvents.isEmpty()) {
+            return 0;
+        }
+        log.trace("Relay {} outbox events", outboxEvents.size());
+        List<OutboxEvent> delivered = new ArrayList<>(outboxEvents.size());
+        Map<String, List<OutboxEvent>> eventsByTopic = outboxEvents.stream()
+                .filter(outboxEvent -> OutboxDestinationType.EVENT == outboxEvent.getDestinationType())
+                .collect(Collectors.groupingBy(OutboxEvent::getDestination, LinkedHashMap::new, Collectors.toList()));
+        eventsByTopic.forEach((topicName, events) -> delivered.addAll(deliver(events, messages -> publisherEvent.publishAll(topicName, messages))));
+        Map<String, List<OutboxEvent>> messagesByQueue = outboxEvents.stream()
+                .filter(outboxEvent -> OutboxDestinationType.QUEUE == outboxEvent.getDestinationType())
+                .collect(Collectors.groupingBy(OutboxEvent::getDestination, LinkedHashMap::new, Collectors.toList()));
+        messagesByQueue.forEach((queue, events) -> delivered.addAll(deliver(events, messages -> queueService.sendMessages(queue, messages))));
+        outboxEvents.stream()
+                .filter(outboxEvent -> !delivered.contains(outboxEvent))
+                .forEach(this::failed);
+        outboxEventRepository.deleteInBatch(delivered);
+        log.info("Successfully relayed {} out of {} outbox events", delivered.size(), outboxEvents.size());
+        return outboxEvents.size();
+    }
+
+    /**
+     * Reschedule the failed event with an exponential backoff, or move it to DEAD once it has used its attempts.
+     *
+     * @param event - Outbox event not delivered.
+     */
+    private void failed(OutboxEvent event) {
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        if (attempts >= maxAttempts) {
+            event.setStatus(OutboxStatus.DEAD);
+            meterRegistry.counter("outbox.events.dead", "destination", event.getDestination()).increment();
+            log.error("Outbox event: {} to: {} not delivered after {} attempts, moved to {}", event.getId(), event.getDestination(), attempts, OutboxStatus.DEAD);
+            return;
+        }
+        Duration delay = attempts > 20 ? maxBackoff : backoff.multipliedBy(1L << (attempts - 1));
+        event.setNextAttemptAt(LocalDateTime.now().plus(delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay));
+    }
+
+    /**
+     * Deliver the outbox events of one topic or queue with a single batched call.
+     *
+     * @param events    - Outbox events.
+     * @param sender    - Batched publish or send call, returns the message id per message, null for the failed ones.
+     * @return          - Delivered outbox events.
+     */
+    private List<OutboxEvent> deliver(List<OutboxEvent> events, Function<List<Object>, List<String>> sender) {
+        List<OutboxEvent> readable = new ArrayList<>(events.size());
+        List<Object> messages = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            Object message = readPayload(event);
+            if (null != message) {
+                readable.add(event);
+                messages.add(message);
+            }
+        }
+        List<OutboxEvent> delivered = new ArrayList<>(readable.size());
+        if (!messages.isEmpty()) {
+            List<String> messageIds = sender.apply(messages);
+            for (int i = 0; i < readable.size(); i++) {
+                if (null != messageIds.get(i)) {
+                    delivered.add(readable.get(i));
+                }
+            }
+        }
+        return delivered;
+    }
+
+    private Object readPayload(OutboxEvent event) {
+        try {
+            return JsonMapperRegistry.readerFor(Class.forName(event.getPayloadType())).readValue(event.getPayload());
+        } catch (Exception e) {
+            log.error("Error occurred while reading outbox event: {} payload of type: {}", event.getId(), event.getPayloadType(), e);
+            return null;
+        }
+    }
+}
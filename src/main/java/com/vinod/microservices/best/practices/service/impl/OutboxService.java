@@ -0,0 +1,68 @@
+package com.vinod.microservices.best.practices.service.impl;
+
+import com.vinod.microservices.best.practices.model.OutboxEvent;
+import com.vinod.microservices.best.practices.repository.OutboxEventRepository;
+import com.vinod.microservices.best.practices.service.IOutboxService;
+import com.vinod.microservices.best.practices.util.ApplicationConstant.OutboxDestinationType;
+import com.vinod.microservices.best.practices.util.ApplicationConstant.OutboxStatus;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.vinod.microservices.best.practices.util.GlobalUtility.convertObjectToJson;
+
+/**
+ * Transactional outbox, messages are stored in the caller transaction and delivered by OutboxRelayService.
+ */
+@Service
+@Log4j2
+public class OutboxService implements IOutboxService {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public <T> void recordEvent(String topicName, T message) {
+        record(OutboxDestinationType.EVENT, topicName, message);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public <T> void recordQueueMessage(String queue, T message) {
+        record(OutboxDestinationType.QUEUE, queue, message);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public <T> void recordQueueMessages(String queue, List<T> messages) {
+        log.trace("Request came to record {} outbox messages to {}", messages.size(), queue);
+        outboxEventRepository.saveAll(messages.stream()
+                .map(message -> outboxEvent(OutboxDestinationType.QUEUE, queue, message))
+                .collect(Collectors.toList()));
+    }
+
+    private <T> void record(OutboxDestinationType destinationType, String destination, T message) {
+        log.trace("Request came to record outbox message to {}: {}", destination, message);
+        outboxEventRepository.save(outboxEvent(destinationType, destination, message));
+    }
+
+    private <T> OutboxEvent outboxEvent(OutboxDestinationType destinationType, String destination, T message) {
+        LocalDateTime now = LocalDateTime.now();
+        return OutboxEvent.builder()
+                .destinationType(destinationType)
+                .destination(destination)
+                .payloadType(message.getClass().getName())
+                .payload(convertObjectToJson(message))
+                .createdAt(now)
+                .status(OutboxStatus.PENDING)
+                .nextAttemptAt(now)
+                .build();
+    }
+}
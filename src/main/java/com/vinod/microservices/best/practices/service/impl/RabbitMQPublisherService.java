@@ -1,6 +1,7 @@
 package com.vinod.microservices.best.practices.service.impl;
 
 import com.vinod.microservices.best.practices.service.IPublisherService;
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.stereotype.Service;
 
@@ -9,6 +10,7 @@ import org.springframework.stereotype.Service;
 public class RabbitMQPublisherService implements IPublisherService {
 
     @Override
+    @Timed(value = "messaging.publish", histogram = true)
     public <T> String publish(String topicName, T message) {
         log.info("Request came to publish the following msg: {} to the topic: {}", message, topicName);
 
@@ -16,4 +18,5 @@ public class RabbitMQPublisherService implements IPublisherService {
 
         return null;
     }
+
 }
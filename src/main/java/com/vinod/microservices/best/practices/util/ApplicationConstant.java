@@ -1,5 +1,10 @@
 package com.vinod.microservices.best.practices.util;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
 public final class ApplicationConstant {
 
     /**
@@ -18,6 +23,25 @@ public final class ApplicationConstant {
     //Endpoint
     public static final String CUSTOMER_SERVICE = "/v1/customers";
 
+    //Media Type
+    public static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    //Batch
+    public static final int CUSTOMER_BATCH_MAX_ITEMS = 1000;
+
+    //Listing
+    public static final int CUSTOMER_PAGE_DEFAULT_LIMIT = 100;
+    public static final int CUSTOMER_PAGE_MAX_LIMIT = 1000;
+    public static final int CUSTOMER_EXPORT_FETCH_SIZE = 500;
+    public static final String CUSTOMER_STATUS_PATTERN = "Pending|Registered|Blocked";
+
+    //Bulk
+    public static final int CUSTOMER_BULK_MAX_EMAIL_IDS = 10000;
+
+    //Internationalization
+    public static final List<Locale> SUPPORTED_LOCALES = Collections.unmodifiableList(Arrays.asList(new Locale("en"), new Locale("fr")));
+    public static final int LOCALE_CACHE_MAX_SIZE = 1000;
+
 
     /**
      * The Enum Customer Status.
@@ -38,4 +62,24 @@ public final class ApplicationConstant {
             return this.value;
         }
     }
+
+    /**
+     * The Enum Outbox Destination Type.
+     */
+    public enum OutboxDestinationType {
+        /** Topic, published through IPublisherService. */
+        EVENT,
+        /** Queue, sent through IQueueService. */
+        QUEUE
+    }
+
+    /**
+     * The Enum Outbox Status.
+     */
+    public enum OutboxStatus {
+        /** Waiting for delivery, retried with backoff. */
+        PENDING,
+        /** Not delivered after outbox.relay.max-attempts, kept for inspection and no longer relayed. */
+        DEAD
+    }
 }
@@ -5,10 +5,15 @@ public enum ErrorCode {
     INTERNAL_ERROR(1001, "Internal Server Error occurred."),
     FAIL_TO_CALL_SERVICE(1002, "Fail to call service."),
     BAD_PARAMETER(1002, "Bad parameters."),
+    SERVICE_UNAVAILABLE(1003, "Service is busy, Please try again."),
+    TOO_MANY_REQUESTS(1004, "Too many requests, Please try again later."),
+    IDEMPOTENCY_KEY_REUSED(1005, "Idempotency key already used with another request."),
+    IDEMPOTENCY_KEY_IN_PROGRESS(1006, "Request with the same idempotency key still in progress."),
 
     USER_NOT_FOUND(2001, "This user does not exists."),
     DUPLICATE_USER(2002, "This user already exists."),
-    USER_ACCOUNT_BLOCKED(2003, "This user account is being Blocked from Admin side.");
+    USER_ACCOUNT_BLOCKED(2003, "This user account is being Blocked from Admin side."),
+    USER_MODIFIED(2004, "This user has been modified by another request.");
 
 
     private final int code;
@@ -1,19 +1,16 @@
 package com.vinod.microservices.best.practices.util;
 
-import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
 import lombok.extern.log4j.Log4j2;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 
 @Log4j2
 public class GlobalUtility {
@@ -31,6 +28,22 @@ public class GlobalUtility {
         return ResponseEntity.ok().body(apiResponse);
     }
 
+    /**
+     * Response for success with the ETag of the response data, GET requests having a matching If-None-Match
+     * get a 304 without the body being serialized. The message of the body is localized, so the response
+     * varies on Accept-Language and caches keep one entry per language for the same ETag.
+     *
+     * @param statusCode
+     * @param message
+     * @param responseData
+     * @param eTag
+     * @return
+     */
+    public static ResponseEntity<Response> buildResponseForSuccess(final int statusCode, final String message, final Object responseData, final String eTag) {
+        Response apiResponse = Response.builder().status(statusCode).message(message).data(responseData).build();
+        return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT_LANGUAGE).body(apiResponse);
+    }
+
     /**
      * Response for Failed.
      *
@@ -46,33 +59,43 @@ public class GlobalUtility {
     }
 
     /**
-     * Convert object to json.
+     * Write the error response directly, for the requests rejected before they reach a controller.
+     *
+     * @param response      - HttpServletResponse object.
+     * @param statusCode
+     * @param errorCode
+     * @param errorMessage
+     * @throws IOException
+     */
+    public static void writeResponseForError(final HttpServletResponse response, final int statusCode, final String errorCode, final String errorMessage) throws IOException {
+        Response apiResponse = Response.builder().status(statusCode).errorCode(errorCode).errorMessage(errorMessage).build();
+        response.setStatus(statusCode);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getOutputStream().write(JsonMapperRegistry.writerFor(Response.class).writeValueAsBytes(apiResponse));
+    }
+
+    /**
+     * Convert object to json with the shared writer of the object type.
      *
      * @param input     - Input object.
      * @return          - JSON string object.
      */
     public static String convertObjectToJson(final Object input) {
         try {
-            JavaTimeModule javaTimeModule=new JavaTimeModule();
-            javaTimeModule.addDeserializer(LocalDateTime.class,new LocalDateTimeDeserializer(DateTimeFormatter.ISO_DATE_TIME));
-            ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().modules(javaTimeModule).featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
-            objectMapper.setSerializationInclusion(Include.NON_NULL);
-            return objectMapper.writeValueAsString(input);
+            return JsonMapperRegistry.writerFor(null != input ? input.getClass() : Object.class).writeValueAsString(input);
         } catch (JsonProcessingException e) {
             log.error("Error generated while converting object to JSON error msg: {}", ExceptionUtils.getRootCauseMessage(e));
         }
         return null;
     }
 
+    /**
+     * Shared object mapper with ISO date format, must not be reconfigured.
+     *
+     * @return  - ObjectMapper object.
+     */
     public static ObjectMapper getDateFormatObjectMapper() {
-        try {
-            JavaTimeModule javaTimeModule=new JavaTimeModule();
-            javaTimeModule.addDeserializer(LocalDateTime.class,new LocalDateTimeDeserializer(DateTimeFormatter.ISO_DATE_TIME));
-            return Jackson2ObjectMapperBuilder.json().modules(javaTimeModule).featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
-        } catch (Exception e) {
-            log.error("Error generated while creating object for object mapper for date format: {}", ExceptionUtils.getRootCauseMessage(e));
-        }
-        return null;
+        return JsonMapperRegistry.objectMapper();
     }
 
     /**
@@ -90,6 +113,34 @@ public class GlobalUtility {
         return sb.toString();
     }
 
+    /**
+     * Strong ETag of a versioned entity, the id keeps a deleted and registered again entity from matching the old ETag.
+     *
+     * @param id        - Entity id.
+     * @param version   - Entity version.
+     * @return          - Quoted ETag.
+     */
+    public static String buildETag(final Long id, final Long version) {
+        return "\"" + id + "." + version + "\"";
+    }
+
+    /**
+     * If-Match check with the strong comparison, weak ETags never match.
+     *
+     * @param ifMatch   - If-Match header value, * or comma separated ETags.
+     * @param eTag      - Current ETag.
+     * @return          - true when one of the ETags or * matches.
+     */
+    public static boolean matchesETag(final String ifMatch, final String eTag) {
+        for (String candidate : ifMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if ("*".equals(trimmed) || trimmed.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public static boolean isExists(Object object) {
         return object!=null && !"".equals(object);
     }
@@ -0,0 +1,95 @@
+package com.vinod.microservices.best.practices.util;
+
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import com.vinod.microservices.best.practices.dto.CustomerDto;
+import com.vinod.microservices.best.practices.dto.CustomerMessageData;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared, thread-safe JSON mapper for messaging, built once with ObjectWriter / ObjectReader cached per type.
+ * Afterburner bytecode acceleration is on unless the JVM is started with -Djackson.afterburner.enabled=false,
+ * it is always off in a native image where classes cannot be generated at runtime.
+ * The mapper must not be reconfigured after it is built.
+ */
+public final class JsonMapperRegistry {
+
+    public static final String AFTERBURNER_PROPERTY = "jackson.afterburner.enabled";
+    static final String NATIVE_IMAGE_PROPERTY = "org.graalvm.nativeimage.imagecode";
+
+    private static final ObjectMapper OBJECT_MAPPER = buildObjectMapper();
+    private static final Map<Class<?>, ObjectWriter> WRITERS = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, ObjectReader> READERS = new ConcurrentHashMap<>();
+
+    static {
+        for (Class<?> type : new Class<?>[]{CustomerMessageData.class, Response.class, CustomerDto.class}) {
+            writerFor(type);
+            readerFor(type);
+        }
+    }
+
+    private JsonMapperRegistry() {
+    }
+
+    /**
+     * Shared object mapper.
+     *
+     * @return  - ObjectMapper object.
+     */
+    public static ObjectMapper objectMapper() {
+        return OBJECT_MAPPER;
+    }
+
+    /**
+     * Cached writer for the type.
+     *
+     * @param type  - Message type.
+     * @return      - ObjectWriter object.
+     */
+    public static ObjectWriter writerFor(Class<?> type) {
+        return WRITERS.computeIfAbsent(type, OBJECT_MAPPER::writerFor);
+    }
+
+    /**
+     * Cached reader for the type.
+     *
+     * @param type  - Message type.
+     * @return      - ObjectReader object.
+     */
+    public static ObjectReader readerFor(Class<?> type) {
+        return READERS.computeIfAbsent(type, OBJECT_MAPPER::readerFor);
+    }
+
+    private static ObjectMapper buildObjectMapper() {
+        JavaTimeModule javaTimeModule=new JavaTimeModule();
+        javaTimeModule.addDeserializer(LocalDateTime.class,new LocalDateTimeDeserializer(DateTimeFormatter.ISO_DATE_TIME));
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .modules(javaTimeModule)
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .serializationInclusion(Include.NON_NULL);
+        if (afterburnerEnabled()) {
+            builder.modulesToInstall(new AfterburnerModule());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Afterburner on, unless disabled by the property or running in a native image (build time or runtime).
+     *
+     * @return  - true when the Afterburner module is installed.
+     */
+    static boolean afterburnerEnabled() {
+        return Boolean.parseBoolean(System.getProperty(AFTERBURNER_PROPERTY, "true")) && null == System.getProperty(NATIVE_IMAGE_PROPERTY);
+    }
+}
@@ -0,0 +1,65 @@
+package com.vinod.microservices.best.practices.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * Decoder of queue messages shared by the handlers, binding straight to the message type without a JsonNode tree.
+ */
+public final class MessageDecoder {
+
+    private static final String MESSAGE = "Message";
+
+    private MessageDecoder() {
+    }
+
+    /**
+     * Decode the Message field of an SNS notification envelope, the envelope is parsed once
+     * with a streaming parser and the fields after the Message are not read.
+     *
+     * @param envelope  - SNS notification JSON.
+     * @param type      - Message type.
+     * @param <T>       - Message type.
+     * @return          - Message object, null when the envelope has no Message.
+     * @throws IOException
+     */
+    public static <T> T decodeNotification(String envelope, Class<T> type) throws IOException {
+        if (null == envelope) {
+            return null;
+        }
+        try (JsonParser parser = JsonMapperRegistry.objectMapper().getFactory().createParser(envelope)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (!MESSAGE.equals(fieldName)) {
+                    parser.skipChildren();
+                } else if (value == JsonToken.VALUE_STRING) {
+                    return decode(parser.getText(), type);
+                } else if (value == JsonToken.START_OBJECT) {
+                    return JsonMapperRegistry.readerFor(type).readValue(parser);
+                } else {
+                    return null;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Decode a raw message.
+     *
+     * @param message   - Message JSON.
+     * @param type      - Message type.
+     * @param <T>       - Message type.
+     * @return          - Message object.
+     * @throws IOException
+     */
+    public static <T> T decode(String message, Class<T> type) throws IOException {
+        return JsonMapperRegistry.readerFor(type).readValue(message);
+    }
+}
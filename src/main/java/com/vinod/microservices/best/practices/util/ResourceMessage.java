@@ -1,24 +1,94 @@
 package com.vinod.microservices.best.practices.util;
 
+import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.i18n.LocaleContextHolder;
-import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.context.support.ReloadableResourceBundleMessageSource;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+
+import static com.vinod.microservices.best.practices.util.ApplicationConstant.SUPPORTED_LOCALES;
+
 /**
  * Internationalization Utility Class.
+ * The messages of the supported locales and of the default locale are resolved once into an immutable table,
+ * the other locales and unknown codes go through the message source.
  */
+@Log4j2
 @Component
 public class ResourceMessage {
 
-    private static ResourceBundleMessageSource messageSource;
+    private static final ResourceLoader RESOURCE_LOADER = new DefaultResourceLoader();
+
+    private static ReloadableResourceBundleMessageSource messageSource;
+    private static volatile Map<Locale, Map<String, String>> messages = Collections.emptyMap();
 
     @Autowired
-    ResourceMessage(ResourceBundleMessageSource messageSource) {
+    ResourceMessage(ReloadableResourceBundleMessageSource messageSource) {
         this.messageSource = messageSource;
     }
 
+    @PostConstruct
+    void init() {
+        reload();
+    }
+
     public static String getMessage(String msgCode) {
-        return messageSource.getMessage(msgCode, null, LocaleContextHolder.getLocale());
+        Locale locale = LocaleContextHolder.getLocale();
+        Map<String, String> localeMessages = messages.get(locale);
+        String message = null != localeMessages ? localeMessages.get(msgCode) : null;
+        return null != message ? message : messageSource.getMessage(msgCode, null, locale);
+    }
+
+    /**
+     * Read the messages files again and replace the message table, the requests in flight keep the previous one.
+     * Triggered by POST /actuator/messages.
+     */
+    public void reload() {
+        messageSource.clearCache();
+        Set<Locale> locales = new LinkedHashSet<>(SUPPORTED_LOCALES);
+        locales.add(Locale.getDefault());
+        Map<Locale, Map<String, String>> table = new HashMap<>();
+        for (Locale locale : locales) {
+            Map<String, String> localeMessages = new HashMap<>();
+            for (String msgCode : messageCodes(locale)) {
+                localeMessages.put(msgCode, messageSource.getMessage(msgCode, null, locale));
+            }
+            table.put(locale, Collections.unmodifiableMap(localeMessages));
+        }
+        messages = Collections.unmodifiableMap(table);
+        log.info("Loaded the messages of locales: {}", locales);
+    }
+
+    /**
+     * Message codes of the messages files of the locale and of the base messages file, read from the basenames of the
+     * message source.
+     *
+     * @param locale    - Locale object.
+     * @return          - Message codes.
+     */
+    private static Set<String> messageCodes(Locale locale) {
+        Set<String> msgCodes = new HashSet<>();
+        for (String basename : messageSource.getBasenameSet()) {
+            for (String suffix : Arrays.asList("", "_" + locale.getLanguage(), "_" + locale)) {
+                Resource resource = RESOURCE_LOADER.getResource(basename + suffix + ".properties");
+                if (resource.exists()) {
+                    try {
+                        msgCodes.addAll(PropertiesLoaderUtils.loadProperties(resource).stringPropertyNames());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            }
+        }
+        return msgCodes;
     }
 }
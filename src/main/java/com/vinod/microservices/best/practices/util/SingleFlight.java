@@ -0,0 +1,85 @@
+package com.vinod.microservices.best.practices.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Coalesces the concurrent loads of the same key, the first caller runs the loader and the callers arriving while it
+ * is in flight share its result or its exception. Nothing is kept once the load completes.
+ * Calls are counted under the metric name with result leader or coalesced.
+ *
+ * @param <K> - Key type.
+ * @param <V> - Value type.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter coalesced;
+
+    /**
+     * @param meterRegistry - Registry of the call counters.
+     * @param metricName    - Call counter name.
+     */
+    public SingleFlight(MeterRegistry meterRegistry, String metricName) {
+        this.leaders = meterRegistry.counter(metricName, "result", "leader");
+        this.coalesced = meterRegistry.counter(metricName, "result", "coalesced");
+    }
+
+    /**
+     * Load the value of the key, or wait for the load in flight.
+     *
+     * @param key       - Key.
+     * @param loader    - Loader called by the first caller.
+     * @return          - Loaded value.
+     */
+    public V execute(K key, Function<K, V> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> inflight = calls.putIfAbsent(key, call);
+        if (null != inflight) {
+            coalesced.increment();
+            return join(inflight);
+        }
+        leaders.increment();
+        try {
+            V value = loader.apply(key);
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            calls.remove(key, call);
+        }
+    }
+
+    /**
+     * Let the next callers start a new load, for a key changed while its load is in flight.
+     *
+     * @param key   - Key.
+     */
+    public void forget(K key) {
+        calls.remove(key);
+    }
+
+    private static <V> V join(CompletableFuture<V> inflight) {
+        try {
+            return inflight.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+}
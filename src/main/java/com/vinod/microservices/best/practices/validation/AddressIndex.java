@@ -0,0 +1,439 @@
+package com.vinod.microservices.best.practices.validation;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Immutable index of the reference localities, kept off-heap. The normalized localities are stored sorted in one char
+ * buffer, an open addressing hash table of their ordinals answers the exact lookups without allocating and a binary
+ * search over the sorted ordinals answers the prefix lookups.
+ * Localities are normalized by trimming, collapsing the whitespace runs into one space and lower casing.
+ * The index is built without holding the reference on the heap: the localities are sorted in runs of at most
+ * RUN_CHARS chars, spilled to temporary files and merged into memory mapped temporary files, deleted once mapped.
+ * The mapped pages are backed by the files, not by the direct memory, and are unmapped when the index is collected.
+ */
+public final class AddressIndex {
+
+    /** Chars of the localities sorted on the heap at once. */
+    static final int RUN_CHARS = 1 << 20;
+
+    private static final int WRITE_BUFFER_BYTES = 1 << 16;
+    private static final String TEMP_FILE_PREFIX = "address-index";
+
+    private final int size;
+    private final CharBuffer chars;
+    private final IntBuffer offsets;
+    private final IntBuffer slots;
+    private final int mask;
+
+    private AddressIndex(int size, CharBuffer chars, IntBuffer offsets, IntBuffer slots) {
+        this.size = size;
+        this.chars = chars;
+        this.offsets = offsets;
+        this.slots = slots;
+        this.mask = slots.capacity() - 1;
+    }
+
+    /**
+     * Index of the localities, blank and duplicate localities are skipped.
+     *
+     * @param localities    - Reference localities.
+     * @return              - AddressIndex object.
+     */
+    public static AddressIndex build(Collection<String> localities) {
+        try {
+            return index(localities.iterator(), RUN_CHARS);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Index of a reference file, one UTF-8 locality per line.
+     *
+     * @param inputStream   - Reference file content.
+     * @return              - AddressIndex object.
+     * @throws IOException
+     */
+    public static AddressIndex read(InputStream inputStream) throws IOException {
+        return read(inputStream, RUN_CHARS);
+    }
+
+    static AddressIndex read(InputStream inputStream, int runChars) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            return index(reader.lines().iterator(), runChars);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Sort the normalized localities in runs, the last run stays on the heap, and merge the runs into the index.
+     */
+    private static AddressIndex index(Iterator<? extends CharSequence> localities, int runChars) throws IOException {
+        List<Run> runs = new ArrayList<>();
+        try {
+            List<String> run = new ArrayList<>();
+            long runLength = 0;
+            while (localities.hasNext()) {
+                String locality = normalize(localities.next());
+                if (locality.isEmpty()) {
+                    continue;
+                }
+                run.add(locality);
+                runLength += locality.length();
+                if (runLength >= runChars) {
+                    runs.add(Run.spill(run));
+                    run.clear();
+                    runLength = 0;
+                }
+            }
+            Collections.sort(run);
+            runs.add(Run.of(run));
+            return merge(runs);
+        } finally {
+            for (Run run : runs) {
+                run.close();
+            }
+        }
+    }
+
+    /**
+     * Merge the sorted runs, skipping the duplicates, into the mapped chars and offsets, then hash the ordinals.
+     */
+    private static AddressIndex merge(List<Run> runs) throws IOException {
+        PriorityQueue<Run> queue = new PriorityQueue<>(runs.size(), Comparator.comparing(Run::current));
+        for (Run run : runs) {
+            if (run.advance()) {
+                queue.add(run);
+            }
+        }
+        try (FileChannel charsChannel = tempChannel(); FileChannel offsetsChannel = tempChannel(); FileChannel slotsChannel = tempChannel()) {
+            ByteBuffer charsOut = ByteBuffer.allocate(WRITE_BUFFER_BYTES).order(ByteOrder.nativeOrder());
+            ByteBuffer offsetsOut = ByteBuffer.allocate(WRITE_BUFFER_BYTES).order(ByteOrder.nativeOrder());
+            long length = 0;
+            int size = 0;
+            String previous = null;
+            while (!queue.isEmpty()) {
+                Run run = queue.poll();
+                String locality = run.current();
+                if (!locality.equals(previous)) {
+                    checkedBytes((length + locality.length()) * 2);
+                    putInt(offsetsChannel, offsetsOut, (int) length);
+                    for (int i = 0; i < locality.length(); i++) {
+                        if (charsOut.remaining() < 2) {
+                            write(charsChannel, charsOut);
+                        }
+                        charsOut.putChar(locality.charAt(i));
+                    }
+                    length += locality.length();
+                    size++;
+                    previous = locality;
+                }
+                if (run.advance()) {
+                    queue.add(run);
+                }
+            }
+            putInt(offsetsChannel, offsetsOut, (int) length);
+            write(charsChannel, charsOut);
+            write(offsetsChannel, offsetsOut);
+
+            CharBuffer chars = map(charsChannel, length * 2).asCharBuffer();
+            IntBuffer offsets = map(offsetsChannel, (size + 1L) * 4).asIntBuffer();
+            long capacity = Long.highestOneBit(Math.max(2, size * 2L - 1)) << 1;
+            IntBuffer slots = map(slotsChannel, capacity * 4).asIntBuffer();
+            int mask = (int) capacity - 1;
+            for (int ordinal = 0; ordinal < size; ordinal++) {
+                int slot = normalizedHash(chars.subSequence(offsets.get(ordinal), offsets.get(ordinal + 1))) & mask;
+                while (slots.get(slot) != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                slots.put(slot, ordinal + 1);
+            }
+            return new AddressIndex(size, chars, offsets, slots);
+        }
+    }
+
+    /**
+     * Check whether the address is a reference locality once normalized.
+     *
+     * @param address   - Address.
+     * @return          - True when the locality is indexed.
+     */
+    public boolean contains(CharSequence address) {
+        int slot = normalizedHash(address) & mask;
+        int ordinal;
+        while ((ordinal = slots.get(slot)) != 0) {
+            if (equalsNormalized(address, ordinal - 1)) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Check whether a reference locality starts with the normalized prefix.
+     *
+     * @param prefix    - Address prefix.
+     * @return          - True when at least one indexed locality starts with the prefix.
+     */
+    public boolean containsPrefix(CharSequence prefix) {
+        String normalized = normalize(prefix);
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compare(middle, normalized) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low < size && startsWith(low, normalized);
+    }
+
+    /**
+     * Indexed localities.
+     *
+     * @return
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Mapped bytes of the localities, their offsets and the hash table.
+     *
+     * @return
+     */
+    public long offHeapBytes() {
+        return chars.capacity() * 2L + offsets.capacity() * 4L + slots.capacity() * 4L;
+    }
+
+    /**
+     * Normalized form of an address, trimmed, whitespace runs collapsed into one space and lower cased.
+     *
+     * @param address   - Address.
+     * @return          - Normalized address.
+     */
+    public static String normalize(CharSequence address) {
+        StringBuilder normalized = new StringBuilder(address.length());
+        boolean space = false;
+        for (int i = 0; i < address.length(); i++) {
+            char c = address.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = normalized.length() > 0;
+                continue;
+            }
+            if (space) {
+                normalized.append(' ');
+                space = false;
+            }
+            normalized.append(Character.toLowerCase(c));
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Hash of the normalized form of the address, computed without building it.
+     */
+    private static int normalizedHash(CharSequence address) {
+        int hash = 0;
+        boolean started = false;
+        boolean space = false;
+        for (int i = 0; i < address.length(); i++) {
+            char c = address.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = started;
+                continue;
+            }
+            if (space) {
+                hash = 31 * hash + ' ';
+                space = false;
+            }
+            hash = 31 * hash + Character.toLowerCase(c);
+            started = true;
+        }
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        return hash;
+    }
+
+    /**
+     * Compare the normalized form of the address with the locality, without building it.
+     */
+    private boolean equalsNormalized(CharSequence address, int ordinal) {
+        int offset = offsets.get(ordinal);
+        int end = offsets.get(ordinal + 1);
+        boolean started = false;
+        boolean space = false;
+        for (int i = 0; i < address.length(); i++) {
+            char c = address.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = started;
+                continue;
+            }
+            if (space) {
+                if (offset == end || chars.get(offset++) != ' ') {
+                    return false;
+                }
+                space = false;
+            }
+            if (offset == end || chars.get(offset++) != Character.toLowerCase(c)) {
+                return false;
+            }
+            started = true;
+        }
+        return offset == end;
+    }
+
+    private int compare(int ordinal, String normalized) {
+        int offset = offsets.get(ordinal);
+        int length = offsets.get(ordinal + 1) - offset;
+        int common = Math.min(length, normalized.length());
+        for (int i = 0; i < common; i++) {
+            int difference = chars.get(offset + i) - normalized.charAt(i);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return length - normalized.length();
+    }
+
+    private boolean startsWith(int ordinal, String normalized) {
+        int offset = offsets.get(ordinal);
+        if (offsets.get(ordinal + 1) - offset < normalized.length()) {
+            return false;
+        }
+        for (int i = 0; i < normalized.length(); i++) {
+            if (chars.get(offset + i) != normalized.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Size of a mapped buffer, a buffer is indexed by int.
+     *
+     * @param bytes - Bytes of the buffer.
+     * @return      - Bytes of the buffer, at most Integer.MAX_VALUE.
+     * @throws IllegalArgumentException when the reference is too large to be indexed.
+     */
+    static int checkedBytes(long bytes) {
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Address reference too large to be indexed, buffer of " + bytes + " bytes over " + Integer.MAX_VALUE);
+        }
+        return (int) bytes;
+    }
+
+    /**
+     * Temporary file deleted when the channel is closed, its mapping stays valid.
+     */
+    private static FileChannel tempChannel() throws IOException {
+        return FileChannel.open(Files.createTempFile(TEMP_FILE_PREFIX, ".bin"), StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+    }
+
+    private static ByteBuffer map(FileChannel channel, long bytes) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_WRITE, 0, checkedBytes(bytes)).order(ByteOrder.nativeOrder());
+    }
+
+    private static void putInt(FileChannel channel, ByteBuffer buffer, int value) throws IOException {
+        if (buffer.remaining() < 4) {
+            write(channel, buffer);
+        }
+        buffer.putInt(value);
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Sorted run of normalized localities, on the heap or in a temporary file of one locality per line, a normalized
+     * locality has no line break.
+     */
+    private static final class Run implements Closeable {
+
+        private final Iterator<String> localities;
+        private final BufferedReader reader;
+        private final Path file;
+        private String current;
+
+        private Run(Iterator<String> localities, BufferedReader reader, Path file) {
+            this.localities = localities;
+            this.reader = reader;
+            this.file = file;
+        }
+
+        static Run of(List<String> sorted) {
+            return new Run(sorted.iterator(), null, null);
+        }
+
+        static Run spill(List<String> run) throws IOException {
+            Collections.sort(run);
+            Path file = Files.createTempFile(TEMP_FILE_PREFIX, ".run");
+            try {
+                try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                    for (String locality : run) {
+                        writer.write(locality);
+                        writer.newLine();
+                    }
+                }
+                return new Run(null, Files.newBufferedReader(file, StandardCharsets.UTF_8), file);
+            } catch (IOException e) {
+                Files.deleteIfExists(file);
+                throw e;
+            }
+        }
+
+        String current() {
+            return current;
+        }
+
+        boolean advance() throws IOException {
+            if (null != reader) {
+                current = reader.readLine();
+            } else {
+                current = localities.hasNext() ? localities.next() : null;
+            }
+            return null != current;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (null != reader) {
+                reader.close();
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
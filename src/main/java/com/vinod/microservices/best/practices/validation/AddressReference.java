@@ -0,0 +1,95 @@
+package com.vinod.microservices.best.practices.validation;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+
+/**
+ * Reference localities of the customer addresses, read from the address.reference.file or from the bundled
+ * address-reference.txt when no file is set. The file is indexed again when it changes, the new index replaces the
+ * previous one atomically so the validators never wait for a reload.
+ */
+@Component
+@Log4j2
+public class AddressReference {
+
+    static final String DEFAULT_REFERENCE = "/address-reference.txt";
+
+    private static volatile AddressIndex index = readDefault();
+
+    @Value("${address.reference.file:}")
+    private String file;
+
+    private FileTime lastModified;
+
+    @PostConstruct
+    void init() throws IOException {
+        if (!file.isEmpty()) {
+            reload();
+        }
+    }
+
+    /**
+     * Current index, used by AddressValidator.
+     *
+     * @return  - AddressIndex object.
+     */
+    public static AddressIndex index() {
+        return index;
+    }
+
+    /**
+     * Index the reference file again and replace the current index.
+     *
+     * @throws IOException
+     */
+    public synchronized void reload() throws IOException {
+        Path path = Paths.get(file);
+        FileTime modified = Files.getLastModifiedTime(path);
+        long start = System.nanoTime();
+        AddressIndex reloaded;
+        try (InputStream inputStream = Files.newInputStream(path)) {
+            reloaded = AddressIndex.read(inputStream);
+        }
+        index = reloaded;
+        lastModified = modified;
+        log.info("Indexed {} reference localities of: {} in {} ms, off-heap bytes: {}", reloaded.size(), path,
+                (System.nanoTime() - start) / 1_000_000, reloaded.offHeapBytes());
+    }
+
+    /**
+     * Reload the reference file when it has been modified since the last reload, the current index is kept when the
+     * file cannot be read.
+     */
+    @Scheduled(fixedDelayString = "${address.reference.reload-interval:60000}")
+    public void reloadIfModified() {
+        if (file.isEmpty()) {
+            return;
+        }
+        try {
+            if (!Files.getLastModifiedTime(Paths.get(file)).equals(lastModified)) {
+                reload();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Error occurred while reloading the address reference file: {}, keeping the current index", file, e);
+        }
+    }
+
+    private static AddressIndex readDefault() {
+        try (InputStream inputStream = AddressReference.class.getResourceAsStream(DEFAULT_REFERENCE)) {
+            return AddressIndex.read(inputStream);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
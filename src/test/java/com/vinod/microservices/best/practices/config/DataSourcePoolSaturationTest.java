@@ -0,0 +1,99 @@
+package com.vinod.microservices.best.practices.config;
+
+import com.vinod.microservices.best.practices.exception.UserNotFoundException;
+import com.vinod.microservices.best.practices.service.ICustomerService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Saturates a pool of 2 H2 connections and checks the pool metrics and the slow acquire attribution.
+ */
+@SpringBootTest(properties = {"cache.customer.type=NONE", "spring.datasource.hikari.maximum-pool-size=2",
+        "spring.datasource.hikari.connection-timeout=5000", "datasource.pool.slow-acquire-threshold=20ms"})
+class DataSourcePoolSaturationTest {
+
+    private static final int POOL_SIZE = 2;
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private ICustomerService customerService;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(16);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void slowAcquireAttributedToServiceMethod() throws Exception {
+        List<Connection> held = new ArrayList<>();
+        for (int i = 0; i < POOL_SIZE; i++) {
+            held.add(dataSource.getConnection());
+        }
+        Future<?> lookup = executor.submit(() -> assertThrows(UserNotFoundException.class, () -> customerService.getCustomerByEmailId("ashok@yopmail.com")));
+        awaitPending();
+        Thread.sleep(50);
+        for (Connection connection : held) {
+            connection.close();
+        }
+        lookup.get(10, TimeUnit.SECONDS);
+
+        assertTrue(meterRegistry.get("datasource.connections.slow.acquire").tag("method", "CustomerService.getCustomerByEmailId").counter().count() >= 1);
+        assertTrue(meterRegistry.get("hikaricp.connections.acquire").timer().max(TimeUnit.MILLISECONDS) >= 50);
+    }
+
+    @Test
+    void concurrentLookupsQueueOnSaturatedPool() throws Exception {
+        Timer acquire = meterRegistry.get("hikaricp.connections.acquire").timer();
+        long acquiresBefore = acquire.count();
+        List<Future<?>> lookups = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            //Distinct email ids, concurrent lookups of the same one share a query.
+            String emailId = "saturation" + i + "@yopmail.com";
+            lookups.add(executor.submit(() -> {
+                for (int j = 0; j < 50; j++) {
+                    assertThrows(UserNotFoundException.class, () -> customerService.getCustomerByEmailId(emailId));
+                }
+            }));
+        }
+        for (Future<?> future : lookups) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+
+        assertTrue(acquire.count() - acquiresBefore >= 16 * 50);
+        assertEquals(0, meterRegistry.get("hikaricp.connections.active").gauge().value());
+        assertEquals(0, meterRegistry.get("hikaricp.connections.pending").gauge().value());
+        assertTrue(meterRegistry.get("hikaricp.connections").gauge().value() <= POOL_SIZE);
+    }
+
+    private void awaitPending() throws InterruptedException {
+        Gauge pending = meterRegistry.get("hikaricp.connections.pending").gauge();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (pending.value() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(1, pending.value());
+    }
+}
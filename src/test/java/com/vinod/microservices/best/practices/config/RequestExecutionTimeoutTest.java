@@ -0,0 +1,89 @@
+package com.vinod.microservices.best.practices.config;
+
+import com.vinod.microservices.best.practices.config.web.AsyncRequestMappingHandlerAdapter;
+import com.vinod.microservices.best.practices.dto.CustomerDto;
+import com.vinod.microservices.best.practices.service.ICustomerService;
+import com.vinod.microservices.best.practices.util.Response;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.vinod.microservices.best.practices.util.ApplicationConstant.CUSTOMER_SERVICE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+/**
+ * Permits of the ASYNC execution mode given back when requests time out, a single request thread so the other
+ * requests time out while waiting in the executor queue.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {"request.execution.mode=ASYNC",
+        "request.execution.threads=1", "request.execution.max-concurrency=3", "request.execution.timeout=500ms"})
+class RequestExecutionTimeoutTest {
+
+    @MockBean
+    private ICustomerService customerService;
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private RequestMappingHandlerAdapter handlerAdapter;
+
+    @Test
+    void permitsOfRequestsTimedOutInTheQueueReleased() throws Exception {
+        AsyncRequestMappingHandlerAdapter asyncHandlerAdapter = (AsyncRequestMappingHandlerAdapter) handlerAdapter;
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(customerService.getCustomerByEmailId("ashok@yopmail.com")).thenAnswer(invocation -> {
+            started.countDown();
+            awaitUninterruptibly(release);
+            return CustomerDto.builder().id(1L).name("Ashok").emailId("ashok@yopmail.com").address("Gujarat").build();
+        });
+        CompletableFuture<ResponseEntity<Response>> running = CompletableFuture.supplyAsync(() -> restTemplate.getForEntity(CUSTOMER_SERVICE + "/ashok@yopmail.com", Response.class));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        List<CompletableFuture<ResponseEntity<Response>>> queued = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            queued.add(CompletableFuture.supplyAsync(() -> restTemplate.getForEntity(CUSTOMER_SERVICE + "/ashok@yopmail.com", Response.class)));
+        }
+
+        for (CompletableFuture<ResponseEntity<Response>> response : queued) {
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.get(10, TimeUnit.SECONDS).getStatusCode());
+        }
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, running.get(10, TimeUnit.SECONDS).getStatusCode());
+        release.countDown();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (asyncHandlerAdapter.availablePermits() < 3 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(3, asyncHandlerAdapter.availablePermits());
+    }
+
+    /**
+     * Keeps the only request thread busy when the timeout cancels the running handler, so the other requests stay queued.
+     */
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await(10, TimeUnit.SECONDS);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
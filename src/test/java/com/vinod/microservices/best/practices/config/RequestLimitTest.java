@@ -0,0 +1,151 @@
+package com.vinod.microservices.best.practices.config;
+
+import com.vinod.microservices.best.practices.config.web.AdaptiveConcurrencyLimiter;
+import com.vinod.microservices.best.practices.config.web.RequestLimitProperties;
+import com.vinod.microservices.best.practices.dto.CustomerDto;
+import com.vinod.microservices.best.practices.service.ICustomerService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.vinod.microservices.best.practices.util.ApplicationConstant.CUSTOMER_SERVICE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Rejections of the request limit filter, enabled here as it is opt-in, a bucket of 2 requests per client and a concurrency limit of 1 request.
+ */
+@SpringBootTest(properties = {"request.limit.enabled=true", "request.limit.rate.burst=2", "request.limit.rate.permits-per-second=0.01",
+        "request.limit.concurrency.initial-limit=1", "request.limit.concurrency.min-limit=1", "request.limit.concurrency.max-limit=1"})
+@AutoConfigureMockMvc
+class RequestLimitTest {
+
+    private static final String API_KEY = "X-API-Key";
+    private static final String FORWARDED_FOR = "X-Forwarded-For";
+
+    @MockBean
+    private ICustomerService customerService;
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void requestsOverTheClientRateRejectedWith429() throws Exception {
+        when(customerService.getCustomerByEmailId(anyString())).thenReturn(new CustomerDto(1L, "Ashok", "ashok@yopmail.com", "Gujarat", 0L));
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get(CUSTOMER_SERVICE + "/ashok@yopmail.com").with(remoteAddr("10.0.0.1"))).andExpect(status().isOk());
+        }
+        mockMvc.perform(get(CUSTOMER_SERVICE + "/ashok@yopmail.com").with(remoteAddr("10.0.0.1")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errorCode").value(1004))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errorMessage").value("Too many requests, Please try again later."));
+        mockMvc.perform(get(CUSTOMER_SERVICE + "/ashok@yopmail.com").with(remoteAddr("10.0.0.2"))).andExpect(status().isOk());
+
+        assertTrue(meterRegistry.get("request.limit.decisions").tags("limiter", "rate", "outcome", "rejected").counter().count() >= 1);
+    }
+
+    @Test
+    void clientHeadersDoNotSelectTheBucket() throws Exception {
+        when(customerService.getCustomerByEmailId(anyString())).thenReturn(new CustomerDto(1L, "Ashok", "ashok@yopmail.com", "Gujarat", 0L));
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get(CUSTOMER_SERVICE + "/ashok@yopmail.com").with(remoteAddr("10.0.0.3"))
+                    .header(API_KEY, "key-" + i).header(FORWARDED_FOR, "192.0.2." + i)).andExpect(status().isOk());
+        }
+        mockMvc.perform(get(CUSTOMER_SERVICE + "/ashok@yopmail.com").with(remoteAddr("10.0.0.3"))
+                .header(API_KEY, "key-2").header(FORWARDED_FOR, "192.0.2.2")).andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void authenticatedUsersHaveTheirOwnBucket() throws Exception {
+        when(customerService.getCustomerByEmailId(anyString())).thenReturn(new CustomerDto(1L, "Ashok", "ashok@yopmail.com", "Gujarat", 0L));
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get(CUSTOMER_SERVICE + "/ashok@yopmail.com").with(remoteAddr("10.0.0.4"))).andExpect(status().isOk());
+        }
+        mockMvc.perform(get(CUSTOMER_SERVICE + "/ashok@yopmail.com").with(remoteAddr("10.0.0.4")).principal(() -> "ashok"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void requestsOverTheConcurrencyLimitShedWith503() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(customerService.getCustomerByEmailId(anyString())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return new CustomerDto(1L, "Ashok", "ashok@yopmail.com", "Gujarat", 0L);
+        });
+
+        CompletableFuture<Integer> held = CompletableFuture.supplyAsync(() -> {
+            try {
+                return mockMvc.perform(get(CUSTOMER_SERVICE + "/ashok@yopmail.com").with(remoteAddr("10.0.0.5"))).andReturn().getResponse().getStatus();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        mockMvc.perform(get(CUSTOMER_SERVICE + "/ashok@yopmail.com").with(remoteAddr("10.0.0.6")))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errorCode").value(1003));
+        release.countDown();
+
+        assertEquals(200, held.get(10, TimeUnit.SECONDS));
+        assertTrue(meterRegistry.get("request.limit.decisions").tags("limiter", "concurrency", "outcome", "rejected").counter().count() >= 1);
+    }
+
+    @Test
+    void concurrencyLimitFollowsTheLatency() {
+        RequestLimitProperties.Concurrency properties = new RequestLimitProperties.Concurrency();
+        properties.setInitialLimit(100);
+        properties.setMinLimit(10);
+        properties.setMaxLimit(1000);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties);
+
+        for (int i = 0; i < 200; i++) {
+            saturatedSample(limiter, TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        int grown = limiter.getLimit();
+        assertTrue(grown > 100, "limit: " + grown);
+
+        for (int i = 0; i < 20; i++) {
+            saturatedSample(limiter, TimeUnit.MILLISECONDS.toNanos(100));
+        }
+        assertTrue(limiter.getLimit() < grown / 2, "limit: " + limiter.getLimit());
+        assertEquals(0, limiter.getInflight());
+    }
+
+    private static RequestPostProcessor remoteAddr(String remoteAddr) {
+        return request -> {
+            request.setRemoteAddr(remoteAddr);
+            return request;
+        };
+    }
+
+    /**
+     * Request completed while the limit was reached.
+     */
+    private static void saturatedSample(AdaptiveConcurrencyLimiter limiter, long rttNanos) {
+        assertTrue(limiter.tryAcquire() > 0);
+        limiter.release(rttNanos, limiter.getLimit());
+    }
+}
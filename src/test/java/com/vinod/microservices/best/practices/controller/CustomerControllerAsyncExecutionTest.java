@@ -0,0 +1,101 @@
+package com.vinod.microservices.best.practices.controller;
+
+import com.vinod.microservices.best.practices.dto.CustomerDto;
+import com.vinod.microservices.best.practices.dto.CustomerRegisterDto;
+import com.vinod.microservices.best.practices.exception.UserNotFoundException;
+import com.vinod.microservices.best.practices.service.ICustomerService;
+import com.vinod.microservices.best.practices.util.Response;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.vinod.microservices.best.practices.util.ApplicationConstant.CUSTOMER_SERVICE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {"request.execution.mode=ASYNC", "request.execution.max-concurrency=1"})
+class CustomerControllerAsyncExecutionTest {
+
+    @MockBean
+    private ICustomerService customerService;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void customerFetchedOnRequestExecutor() throws Exception {
+        when(customerService.getCustomerByEmailId("ashok@yopmail.com")).thenAnswer(invocation -> {
+            assertTrue(Thread.currentThread().getName().startsWith("request-"));
+            return CustomerDto.builder().id(1L).name("Ashok").emailId("ashok@yopmail.com").address("Gujarat").build();
+        });
+
+        ResponseEntity<Response> response = restTemplate.getForEntity(CUSTOMER_SERVICE + "/ashok@yopmail.com", Response.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("ashok@yopmail.com", ((Map<?, ?>) response.getBody().getData()).get("emailId"));
+    }
+
+    @Test
+    void customerNotFoundHandledOnRequestExecutor() throws Exception {
+        when(customerService.getCustomerByEmailId("ashok@yopmail.com")).thenThrow(new UserNotFoundException("Get Customer details operation failed, customer not found for email id:ashok@yopmail.com"));
+
+        ResponseEntity<Response> response = restTemplate.getForEntity(CUSTOMER_SERVICE + "/ashok@yopmail.com", Response.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("2001", response.getBody().getErrorCode());
+    }
+
+    @Test
+    void requestOverMaxConcurrencyRejected() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(customerService.getCustomerByEmailId("ashok@yopmail.com")).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return CustomerDto.builder().id(1L).name("Ashok").emailId("ashok@yopmail.com").address("Gujarat").build();
+        });
+        CompletableFuture<ResponseEntity<Response>> pending = CompletableFuture.supplyAsync(() -> restTemplate.getForEntity(CUSTOMER_SERVICE + "/ashok@yopmail.com", Response.class));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        ResponseEntity<Response> response = restTemplate.getForEntity(CUSTOMER_SERVICE + "/ashok@yopmail.com", Response.class);
+        release.countDown();
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1003", response.getBody().getErrorCode());
+        assertEquals(HttpStatus.OK, pending.get(10, TimeUnit.SECONDS).getStatusCode());
+    }
+
+    @Test
+    void retryReplayedOnceTheAsyncResponseIsComplete() throws Exception {
+        CustomerRegisterDto customerRegisterDto = CustomerRegisterDto.builder().name("Ashok").emailId("ashok@yopmail.com").address("Gujarat").build();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Idempotency-Key", "key-async");
+
+        ResponseEntity<Response> response = restTemplate.postForEntity(CUSTOMER_SERVICE, new HttpEntity<>(customerRegisterDto, headers), Response.class);
+        ResponseEntity<Response> replayed = restTemplate.postForEntity(CUSTOMER_SERVICE, new HttpEntity<>(customerRegisterDto, headers), Response.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(HttpStatus.OK, replayed.getStatusCode());
+        assertEquals("true", replayed.getHeaders().getFirst("Idempotent-Replayed"));
+        assertEquals(response.getBody().getMessage(), replayed.getBody().getMessage());
+        verify(customerService, times(1)).addCustomer(any());
+    }
+}
@@ -1,8 +1,13 @@
 package com.vinod.microservices.best.practices.controller;
 
+import com.vinod.microservices.best.practices.dto.CustomerBatchResultDto;
+import com.vinod.microservices.best.practices.dto.CustomerBulkDto;
+import com.vinod.microservices.best.practices.dto.CustomerBulkResultDto;
 import com.vinod.microservices.best.practices.dto.CustomerDto;
+import com.vinod.microservices.best.practices.dto.CustomerPageDto;
 import com.vinod.microservices.best.practices.dto.CustomerRegisterDto;
 import com.vinod.microservices.best.practices.dto.CustomerUpdateDto;
+import com.vinod.microservices.best.practices.exception.CustomerModifiedException;
 import com.vinod.microservices.best.practices.service.ICustomerService;
 import com.vinod.microservices.best.practices.util.GlobalUtility;
 import org.junit.jupiter.api.Test;
@@ -11,15 +16,29 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static com.vinod.microservices.best.practices.util.ApplicationConstant.APPLICATION_NDJSON;
 import static com.vinod.microservices.best.practices.util.ApplicationConstant.CUSTOMER_SERVICE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(SpringExtension.class)
@@ -56,20 +75,66 @@ class CustomerControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.errorCode").value(1002));
     }
 
+    @Test
+    void customerBatchAddedWithResultPerCustomer() throws Exception {
+        CustomerRegisterDto customerRegisterDto = createCustomerRegisterDto("Ashok","ashok@yopmail.com","Gujarat");
+        when(customerService.addCustomers(anyList())).thenReturn(Collections.singletonList(CustomerBatchResultDto.builder().index(0).emailId("ashok@yopmail.com").id(1L).created(true).build()));
+
+        mockMvc.perform(post(CUSTOMER_SERVICE + "/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(GlobalUtility.convertObjectToJson(Arrays.asList(customerRegisterDto))))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.data.created").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.data.results[0].id").value(1));
+    }
+
+    @Test
+    void customerStreamAddedWithResultLinePerCustomer() throws Exception {
+        CustomerRegisterDto customerRegisterDto = createCustomerRegisterDto("Ashok","ashok@yopmail.com","Gujarat");
+        when(customerService.addCustomers(anyList())).thenReturn(Collections.singletonList(CustomerBatchResultDto.builder().index(0).emailId("ashok@yopmail.com").id(1L).created(true).build()));
+
+        String content = mockMvc.perform(post(CUSTOMER_SERVICE + "/batch")
+                .contentType(APPLICATION_NDJSON)
+                .content("{not json}\n" + GlobalUtility.convertObjectToJson(customerRegisterDto) + "\n"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = content.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"index\":0") && lines[0].contains("\"created\":false"));
+        assertTrue(lines[1].contains("\"index\":1") && lines[1].contains("\"created\":true"));
+    }
+
     @Test
     void customerAccountUpdatedWhenMandatoryFieldsAreNotMissing() throws Exception {
         final String EMAIL_ID = "ashok@yopmail.com";
 
         CustomerUpdateDto customerUpdateDto = createCustomerUpdateDto("Ashok","Gujarat");
-        doNothing().when(customerService).updateCustomer(customerUpdateDto,EMAIL_ID);
+        when(customerService.updateCustomer(customerUpdateDto,EMAIL_ID,null)).thenReturn(createCustomerDto(1L,"Ashok",EMAIL_ID,"Gujarat",1L));
 
         mockMvc.perform(put("/v1/customers/{emailId}",EMAIL_ID)
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(GlobalUtility.convertObjectToJson(customerUpdateDto)))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1.1\""))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_LANGUAGE))
                 .andExpect(MockMvcResultMatchers.jsonPath("$.message").value("Successfully updated the customer details."));
     }
 
+    @Test
+    void updateCustomerAccountPreconditionFailedWhenIfMatchIsStale() throws Exception {
+        final String EMAIL_ID = "ashok@yopmail.com";
+        CustomerUpdateDto customerUpdateDto = createCustomerUpdateDto("Ashok","Gujarat");
+        when(customerService.updateCustomer(customerUpdateDto,EMAIL_ID,"\"1.0\"")).thenThrow(new CustomerModifiedException("Customer modified"));
+
+        mockMvc.perform(put("/v1/customers/{emailId}",EMAIL_ID)
+                .header(HttpHeaders.IF_MATCH, "\"1.0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(GlobalUtility.convertObjectToJson(customerUpdateDto)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errorCode").value(2004));
+    }
+
     @Test
     void updateCustomerAccountThrowMethodArgumentNotValidExceptionWhenMandatoryFieldsAreMissing() throws Exception {
         final String EMAIL_ID = "ashok@yopmail.com";
@@ -125,7 +190,109 @@ class CustomerControllerTest {
         mockMvc.perform(get("/v1/customers/{emailId}",EMAIL_ID))
                 .andExpect(status().isOk())
                 .andExpect(MockMvcResultMatchers.jsonPath("$.message").value("Successfully fetched customer."))
-                .andExpect(MockMvcResultMatchers.jsonPath("$.data.id").value(customerDto.getId()));
+                .andExpect(MockMvcResultMatchers.jsonPath("$.data.id").value(customerDto.getId()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.data.version").doesNotExist())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1.0\""))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_LANGUAGE));
+    }
+
+    @Test
+    void getCustomerAccountNotModifiedWhenIfNoneMatchIsCurrent() throws Exception {
+        final String EMAIL_ID = "ashok@yopmail.com";
+        when(customerService.getCustomerByEmailId(EMAIL_ID)).thenReturn(createCustomerDto(1L,"Ashok",EMAIL_ID,"Gujarat"));
+
+        MockHttpServletResponse response = mockMvc.perform(get("/v1/customers/{emailId}",EMAIL_ID).header(HttpHeaders.IF_NONE_MATCH, "\"1.0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_LANGUAGE))
+                .andReturn().getResponse();
+
+        assertEquals(0, response.getContentLength());
+        assertEquals("", response.getContentAsString());
+    }
+
+    @Test
+    void customerPageListedWithNextAfterId() throws Exception {
+        List<CustomerDto> customers = Arrays.asList(createCustomerDto(11L,"Ashok","ashok@yopmail.com","Gujarat"), createCustomerDto(12L,"Vinod","vinod@yopmail.com","Gujarat"));
+        when(customerService.getCustomers("Registered", 10L, 2)).thenReturn(CustomerPageDto.of(customers, 2));
+
+        mockMvc.perform(get(CUSTOMER_SERVICE).param("status", "Registered").param("afterId", "10").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.message").value("Successfully fetched the customers."))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.data.size").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.data.nextAfterId").value(12))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.data.customers[0].id").value(11));
+    }
+
+    @Test
+    void getCustomersThrowConstraintViolationExceptionWhenLimitIsTooLarge() throws Exception {
+        mockMvc.perform(get(CUSTOMER_SERVICE).param("limit", "100000"))
+                .andExpect(status().is4xxClientError())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errorCode").value(1002));
+    }
+
+    @Test
+    void customersExportedWithLinePerCustomer() throws Exception {
+        when(customerService.exportCustomers(eq(null), any())).thenAnswer(invocation -> {
+            Consumer<CustomerDto> consumer = invocation.getArgument(1);
+            consumer.accept(createCustomerDto(1L,"Ashok","ashok@yopmail.com","Gujarat"));
+            consumer.accept(createCustomerDto(2L,"Vinod","vinod@yopmail.com","Gujarat"));
+            return 2L;
+        });
+
+        MockHttpServletResponse response = mockMvc.perform(get(CUSTOMER_SERVICE + "/export").accept(APPLICATION_NDJSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+
+        String[] lines = response.getContentAsString().split("\n");
+        assertTrue(response.getContentType().startsWith(APPLICATION_NDJSON));
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":1,") && lines[1].startsWith("{\"id\":2,"));
+    }
+
+    @Test
+    void customersDeletedInBulkByEmailIds() throws Exception {
+        CustomerBulkDto customerBulkDto = CustomerBulkDto.builder().emailIds(Arrays.asList("ashok@yopmail.com", "vinod@yopmail.com")).build();
+        when(customerService.deleteCustomers(eq(customerBulkDto), any())).thenReturn(CustomerBulkResultDto.builder().chunks(1).affected(2).build());
+
+        mockMvc.perform(post(CUSTOMER_SERVICE + "/bulk/delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(GlobalUtility.convertObjectToJson(customerBulkDto)))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.message").value("Successfully deleted the customers."))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.data.affected").value(2));
+    }
+
+    @Test
+    void bulkDeleteThrowMethodArgumentNotValidExceptionWhenSelectionIsAmbiguous() throws Exception {
+        CustomerBulkDto customerBulkDto = CustomerBulkDto.builder().emailIds(Collections.singletonList("ashok@yopmail.com")).status("Blocked").build();
+
+        mockMvc.perform(post(CUSTOMER_SERVICE + "/bulk/delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(GlobalUtility.convertObjectToJson(customerBulkDto)))
+                .andExpect(status().is4xxClientError())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errorCode").value(1002));
+    }
+
+    @Test
+    void customerStatusChangeStreamsProgressPerChunk() throws Exception {
+        CustomerBulkDto customerBulkDto = CustomerBulkDto.builder().status("Pending").build();
+        when(customerService.changeCustomerStatus(eq(customerBulkDto), eq("Blocked"), any())).thenAnswer(invocation -> {
+            Consumer<CustomerBulkResultDto> progress = invocation.getArgument(2);
+            progress.accept(CustomerBulkResultDto.builder().chunks(1).affected(500).build());
+            progress.accept(CustomerBulkResultDto.builder().chunks(2).affected(730).build());
+            return CustomerBulkResultDto.builder().chunks(2).affected(730).build();
+        });
+
+        MockHttpServletResponse response = mockMvc.perform(post(CUSTOMER_SERVICE + "/bulk/status/Blocked")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(APPLICATION_NDJSON)
+                .content(GlobalUtility.convertObjectToJson(customerBulkDto)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+
+        String[] lines = response.getContentAsString().split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("{\"chunks\":2,\"affected\":730}", lines[1]);
     }
 
     private CustomerRegisterDto createCustomerRegisterDto(String name, String emailId, String address) {
@@ -144,11 +311,16 @@ class CustomerControllerTest {
     }
 
     private CustomerDto createCustomerDto(Long id,String name, String emailId, String address) {
+        return createCustomerDto(id, name, emailId, address, 0L);
+    }
+
+    private CustomerDto createCustomerDto(Long id,String name, String emailId, String address, Long version) {
         return CustomerDto.builder()
                 .id(id)
                 .name(name)
                 .emailId(emailId)
                 .address(address)
+                .version(version)
                 .build();
     }
 
@@ -0,0 +1,142 @@
+package com.vinod.microservices.best.practices.controller;
+
+import com.vinod.microservices.best.practices.dto.CustomerRegisterDto;
+import com.vinod.microservices.best.practices.model.IdempotencyRecord;
+import com.vinod.microservices.best.practices.service.ICustomerService;
+import com.vinod.microservices.best.practices.service.IIdempotencyService;
+import com.vinod.microservices.best.practices.util.GlobalUtility;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.vinod.microservices.best.practices.util.ApplicationConstant.CUSTOMER_SERVICE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class CustomerIdempotencyTest {
+
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    @MockBean
+    private ICustomerService customerService;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private IIdempotencyService idempotencyService;
+
+    @Test
+    void retryReplaysTheResponseWithoutAddingTheCustomerAgain() throws Exception {
+        CustomerRegisterDto customerRegisterDto = createCustomerRegisterDto("ashok@yopmail.com");
+
+        String first = mockMvc.perform(addCustomer(customerRegisterDto, "key-retry"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        mockMvc.perform(addCustomer(customerRegisterDto, "key-retry"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(MockMvcResultMatchers.content().json(first));
+
+        verify(customerService, times(1)).addCustomer(any());
+    }
+
+    @Test
+    void keyReusedWithAnotherRequestRejected() throws Exception {
+        mockMvc.perform(addCustomer(createCustomerRegisterDto("ashok@yopmail.com"), "key-reused"))
+                .andExpect(status().isOk());
+        mockMvc.perform(addCustomer(createCustomerRegisterDto("vinod@yopmail.com"), "key-reused"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errorCode").value(1005));
+
+        verify(customerService, times(1)).addCustomer(any());
+    }
+
+    @Test
+    void concurrentDuplicatesCoalesceOnTheRequestInFlight() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return null;
+        }).when(customerService).addCustomer(any());
+        CustomerRegisterDto customerRegisterDto = createCustomerRegisterDto("ashok@yopmail.com");
+
+        CompletableFuture<MockHttpServletResponse> first = CompletableFuture.supplyAsync(() -> perform(addCustomer(customerRegisterDto, "key-concurrent")));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        CompletableFuture<MockHttpServletResponse> duplicate = CompletableFuture.supplyAsync(() -> perform(addCustomer(customerRegisterDto, "key-concurrent")));
+        Thread.sleep(100);
+        release.countDown();
+
+        assertEquals(200, first.get(10, TimeUnit.SECONDS).getStatus());
+        MockHttpServletResponse replayed = duplicate.get(10, TimeUnit.SECONDS);
+        assertEquals(200, replayed.getStatus());
+        assertEquals("true", replayed.getHeader("Idempotent-Replayed"));
+        verify(customerService, times(1)).addCustomer(any());
+    }
+
+    @Test
+    void duplicateOfKeyClaimedElsewhereWaitsForTheStoredResponse() throws Exception {
+        CustomerRegisterDto customerRegisterDto = createCustomerRegisterDto("ashok@yopmail.com");
+        mockMvc.perform(addCustomer(customerRegisterDto, "key-first")).andExpect(status().isOk());
+        IdempotencyRecord first = idempotencyService.find("key-first");
+        //Same request claimed on another node.
+        assertTrue(idempotencyService.claim("key-other-node", first.getFingerprint()));
+
+        CompletableFuture.runAsync(() -> {
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            first.setIdempotencyKey("key-other-node");
+            idempotencyService.save(first);
+        });
+        mockMvc.perform(addCustomer(customerRegisterDto, "key-other-node"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "true"));
+        mockMvc.perform(addCustomer(createCustomerRegisterDto("vinod@yopmail.com"), "key-other-node"))
+                .andExpect(status().isUnprocessableEntity());
+
+        verify(customerService, times(1)).addCustomer(any());
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequestBuilder request) {
+        try {
+            return mockMvc.perform(request).andReturn().getResponse();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static MockHttpServletRequestBuilder addCustomer(CustomerRegisterDto customerRegisterDto, String idempotencyKey) {
+        return post(CUSTOMER_SERVICE)
+                .header(IDEMPOTENCY_KEY, idempotencyKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(GlobalUtility.convertObjectToJson(customerRegisterDto));
+    }
+
+    private static CustomerRegisterDto createCustomerRegisterDto(String emailId) {
+        return CustomerRegisterDto.builder().name("Ashok").emailId(emailId).address("Gujarat").build();
+    }
+}
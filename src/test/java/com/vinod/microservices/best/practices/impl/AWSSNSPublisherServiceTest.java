@@ -0,0 +1,112 @@
+package com.vinod.microservices.best.practices.impl;
+
+import com.amazonaws.services.sns.AbstractAmazonSNS;
+import com.amazonaws.services.sns.model.*;
+import com.vinod.microservices.best.practices.config.aws.SNSPublisherProperties;
+import com.vinod.microservices.best.practices.dto.CustomerMessageData;
+import com.vinod.microservices.best.practices.service.impl.AWSSNSPublisherService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AWSSNSPublisherServiceTest {
+
+    private static final String TOPIC = "customer_created";
+
+    @Test
+    void messagesPublishedInBatchesOfTen() throws InterruptedException {
+        FakeAmazonSNS amazonSNS = new FakeAmazonSNS();
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AWSSNSPublisherService publisherService = new AWSSNSPublisherService(amazonSNS, createProperties(SNSPublisherProperties.BackpressurePolicy.BLOCK, 100), meterRegistry);
+
+        for (int i = 0; i < 25; i++) {
+            assertNull(publisherService.publish(TOPIC, createMessage(i)));
+        }
+        publisherService.start();
+        publisherService.stop();
+
+        assertEquals(1, amazonSNS.createTopicCalls.get());
+        assertEquals(3, amazonSNS.batches.size());
+        assertEquals(25, amazonSNS.batches.stream().mapToInt(List::size).sum());
+        assertTrue(amazonSNS.batches.stream().allMatch(batch -> batch.size() <= 10));
+        assertEquals(25, meterRegistry.counter("publisher.sns.messages", "result", "published").count());
+    }
+
+    @Test
+    void messageDroppedWhenBufferFull() throws InterruptedException {
+        FakeAmazonSNS amazonSNS = new FakeAmazonSNS();
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AWSSNSPublisherService publisherService = new AWSSNSPublisherService(amazonSNS, createProperties(SNSPublisherProperties.BackpressurePolicy.DROP, 2), meterRegistry);
+
+        for (int i = 0; i < 3; i++) {
+            publisherService.publish(TOPIC, createMessage(i));
+        }
+        publisherService.start();
+        publisherService.stop();
+
+        assertEquals(1, meterRegistry.counter("publisher.sns.messages", "result", "dropped").count());
+        assertEquals(2, amazonSNS.batches.stream().mapToInt(List::size).sum());
+    }
+
+    @Test
+    void messagePublishedByCallerWhenBufferFull() throws InterruptedException {
+        FakeAmazonSNS amazonSNS = new FakeAmazonSNS();
+        AWSSNSPublisherService publisherService = new AWSSNSPublisherService(amazonSNS, createProperties(SNSPublisherProperties.BackpressurePolicy.CALLER_RUNS, 1), new SimpleMeterRegistry());
+
+        assertNull(publisherService.publish(TOPIC, createMessage(0)));
+        assertEquals("message-1", publisherService.publish(TOPIC, createMessage(1)));
+        publisherService.start();
+        publisherService.stop();
+
+        assertEquals(1, amazonSNS.publishCalls.get());
+        assertEquals(1, amazonSNS.batches.size());
+    }
+
+    private SNSPublisherProperties createProperties(SNSPublisherProperties.BackpressurePolicy backpressure, int bufferCapacity) {
+        SNSPublisherProperties properties = new SNSPublisherProperties();
+        properties.setBackpressure(backpressure);
+        properties.setBufferCapacity(bufferCapacity);
+        properties.setFlushInterval(Duration.ofMillis(20));
+        return properties;
+    }
+
+    private CustomerMessageData createMessage(int i) {
+        return CustomerMessageData.builder().firstName("Customer" + i).emailId("customer" + i + "@yopmail.com").build();
+    }
+
+    /**
+     * In-memory SNS stand-in recording the calls.
+     */
+    private static class FakeAmazonSNS extends AbstractAmazonSNS {
+
+        private final AtomicInteger createTopicCalls = new AtomicInteger();
+        private final AtomicInteger publishCalls = new AtomicInteger();
+        private final List<List<PublishBatchRequestEntry>> batches = new CopyOnWriteArrayList<>();
+
+        @Override
+        public CreateTopicResult createTopic(String name) {
+            createTopicCalls.incrementAndGet();
+            return new CreateTopicResult().withTopicArn("arn:aws:sns:us-east-1:000000000000:" + name);
+        }
+
+        @Override
+        public PublishResult publish(PublishRequest request) {
+            return new PublishResult().withMessageId("message-" + publishCalls.incrementAndGet());
+        }
+
+        @Override
+        public PublishBatchResult publishBatch(PublishBatchRequest request) {
+            batches.add(request.getPublishBatchRequestEntries());
+            PublishBatchResult result = new PublishBatchResult();
+            request.getPublishBatchRequestEntries().forEach(entry -> result.withSuccessful(new PublishBatchResultEntry().withId(entry.getId())));
+            return result;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.vinod.microservices.best.practices.impl;
+
+import com.amazonaws.AbortedException;
+import com.amazonaws.services.sqs.AbstractAmazonSQS;
+import com.amazonaws.services.sqs.model.*;
+import com.vinod.microservices.best.practices.config.aws.SQSConsumerProperties;
+import com.vinod.microservices.best.practices.handler.IQueueMessageHandler;
+import com.vinod.microservices.best.practices.service.impl.AWSSQSConsumerService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AWSSQSConsumerServiceTest {
+
+    private static final String QUEUE = "queue_customer_created";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void messagesHandledInParallelAndDeletedInBatches() throws InterruptedException {
+        InMemoryAmazonSQS amazonSQS = new InMemoryAmazonSQS();
+        RecordingHandler handler = new RecordingHandler(20, null);
+        for (int i = 0; i < 25; i++) {
+            amazonSQS.send("message-" + i);
+        }
+        AWSSQSConsumerService consumerService = new AWSSQSConsumerService(amazonSQS, createProperties(4, Duration.ofSeconds(30)), Collections.singletonList(handler), meterRegistry);
+
+        consumerService.start();
+        awaitCondition(() -> amazonSQS.deleted.size() == 25);
+        consumerService.stop();
+
+        assertEquals(25, handler.handled.size());
+        assertTrue(handler.maxInFlight.get() <= 4);
+        assertTrue(amazonSQS.receiveBatchSizes.stream().allMatch(size -> size <= 4));
+        assertTrue(amazonSQS.deleteBatchSizes.stream().allMatch(size -> size <= 10));
+        assertTrue(amazonSQS.inFlight.isEmpty());
+    }
+
+    @Test
+    void failedMessageNotDeleted() throws InterruptedException {
+        InMemoryAmazonSQS amazonSQS = new InMemoryAmazonSQS();
+        RecordingHandler handler = new RecordingHandler(0, "message-1");
+        for (int i = 0; i < 3; i++) {
+            amazonSQS.send("message-" + i);
+        }
+        AWSSQSConsumerService consumerService = new AWSSQSConsumerService(amazonSQS, createProperties(2, Duration.ofSeconds(30)), Collections.singletonList(handler), meterRegistry);
+
+        consumerService.start();
+        awaitCondition(() -> amazonSQS.deleted.size() == 2);
+        consumerService.stop();
+
+        assertEquals(new HashSet<>(Arrays.asList("message-0", "message-2")), new HashSet<>(amazonSQS.deleted));
+        assertEquals(1, amazonSQS.inFlight.size());
+        assertEquals("message-1", amazonSQS.inFlight.values().iterator().next().getBody());
+        assertEquals(2, meterRegistry.get("consumer.sqs.handle").tags("queue", QUEUE, "result", "handled").timer().count());
+        assertEquals(1, meterRegistry.get("consumer.sqs.handle").tags("queue", QUEUE, "result", "failed").timer().count());
+    }
+
+    @Test
+    void messageDeliveredTwiceDeletedInOneBatch() throws InterruptedException {
+        InMemoryAmazonSQS amazonSQS = new InMemoryAmazonSQS();
+        RecordingHandler handler = new RecordingHandler(0, null);
+        amazonSQS.send("message-0");
+        amazonSQS.send("message-1");
+        amazonSQS.visible.add(new Message().withMessageId("id-1").withBody("message-0"));
+        AWSSQSConsumerService consumerService = new AWSSQSConsumerService(amazonSQS, createProperties(3, Duration.ofSeconds(30)), Collections.singletonList(handler), meterRegistry);
+
+        consumerService.start();
+        awaitCondition(() -> handler.handled.size() == 3);
+        consumerService.stop();
+
+        assertEquals(Arrays.asList("message-0", "message-0", "message-1"), amazonSQS.deleted.stream().sorted().collect(Collectors.toList()));
+        assertTrue(amazonSQS.inFlight.isEmpty());
+    }
+
+    @Test
+    void visibilityExtendedWhileHandlerRunning() throws InterruptedException {
+        InMemoryAmazonSQS amazonSQS = new InMemoryAmazonSQS();
+        RecordingHandler handler = new RecordingHandler(1300, null);
+        amazonSQS.send("message-0");
+        AWSSQSConsumerService consumerService = new AWSSQSConsumerService(amazonSQS, createProperties(1, Duration.ofSeconds(1)), Collections.singletonList(handler), meterRegistry);
+
+        consumerService.start();
+        awaitCondition(() -> amazonSQS.deleted.size() == 1);
+        consumerService.stop();
+
+        assertTrue(amazonSQS.visibilityChanges.get() >= 2);
+    }
+
+    private SQSConsumerProperties createProperties(int concurrency, Duration visibilityTimeout) {
+        SQSConsumerProperties properties = new SQSConsumerProperties();
+        properties.setWaitTime(Duration.ofSeconds(1));
+        properties.setVisibilityTimeout(visibilityTimeout);
+        properties.getQueueConcurrency().put(QUEUE, concurrency);
+        properties.setAckInterval(Duration.ofMillis(20));
+        return properties;
+    }
+
+    private void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    private static final class RecordingHandler implements IQueueMessageHandler {
+
+        private final long handlingMillis;
+        private final String failingMessage;
+        private final List<String> handled = new CopyOnWriteArrayList<>();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+
+        private RecordingHandler(long handlingMillis, String failingMessage) {
+            this.handlingMillis = handlingMillis;
+            this.failingMessage = failingMessage;
+        }
+
+        @Override
+        public String getQueueName() {
+            return QUEUE;
+        }
+
+        @Override
+        public void handle(String message, String senderId) throws Exception {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(handlingMillis);
+                if (message.equals(failingMessage)) {
+                    throw new IllegalStateException("Handler failed for: " + message);
+                }
+                handled.add(message);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * In-memory SQS queue with long polling, receipt handles and batch delete.
+     */
+    private static final class InMemoryAmazonSQS extends AbstractAmazonSQS {
+
+        private final BlockingQueue<Message> visible = new LinkedBlockingQueue<>();
+        private final Map<String, Message> inFlight = new ConcurrentHashMap<>();
+        private final List<String> deleted = new CopyOnWriteArrayList<>();
+        private final List<Integer> receiveBatchSizes = new CopyOnWriteArrayList<>();
+        private final List<Integer> deleteBatchSizes = new CopyOnWriteArrayList<>();
+        private final AtomicInteger visibilityChanges = new AtomicInteger();
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        private void send(String body) {
+            visible.add(new Message().withMessageId("id-" + sequence.incrementAndGet()).withBody(body));
+        }
+
+        @Override
+        public GetQueueUrlResult getQueueUrl(String queueName) {
+            return new GetQueueUrlResult().withQueueUrl("http://localhost:4566/000000000000/" + queueName);
+        }
+
+        @Override
+        public ReceiveMessageResult receiveMessage(ReceiveMessageRequest request) {
+            receiveBatchSizes.add(request.getMaxNumberOfMessages());
+            List<Message> messages = new ArrayList<>();
+            try {
+                Message first = visible.poll(request.getWaitTimeSeconds(), TimeUnit.SECONDS);
+                if (null != first) {
+                    messages.add(first);
+                    visible.drainTo(messages, request.getMaxNumberOfMessages() - 1);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AbortedException();
+            }
+            for (Message message : messages) {
+                message.setReceiptHandle(UUID.randomUUID().toString());
+                inFlight.put(message.getReceiptHandle(), message);
+            }
+            return new ReceiveMessageResult().withMessages(messages);
+        }
+
+        @Override
+        public ChangeMessageVisibilityResult changeMessageVisibility(String queueUrl, String receiptHandle, Integer visibilityTimeout) {
+            visibilityChanges.incrementAndGet();
+            return new ChangeMessageVisibilityResult();
+        }
+
+        @Override
+        public DeleteMessageBatchResult deleteMessageBatch(DeleteMessageBatchRequest request) {
+            deleteBatchSizes.add(request.getEntries().size());
+            if (request.getEntries().stream().map(DeleteMessageBatchRequestEntry::getId).distinct().count() < request.getEntries().size()) {
+                throw new BatchEntryIdsNotDistinctException("Two or more batch entries in the request have the same Id.");
+            }
+            DeleteMessageBatchResult result = new DeleteMessageBatchResult();
+            for (DeleteMessageBatchRequestEntry entry : request.getEntries()) {
+                Message message = inFlight.remove(entry.getReceiptHandle());
+                deleted.add(message.getBody());
+                result.withSuccessful(new DeleteMessageBatchResultEntry().withId(entry.getId()));
+            }
+            return result;
+        }
+    }
+}
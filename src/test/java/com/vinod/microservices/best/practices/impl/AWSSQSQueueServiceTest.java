@@ -0,0 +1,75 @@
+package com.vinod.microservices.best.practices.impl;
+
+import com.amazonaws.services.sqs.AbstractAmazonSQSAsync;
+import com.amazonaws.services.sqs.model.*;
+import com.vinod.microservices.best.practices.dto.CustomerMessageData;
+import com.vinod.microservices.best.practices.service.impl.AWSSQSQueueService;
+import io.awspring.cloud.messaging.core.QueueMessagingTemplate;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AWSSQSQueueServiceTest {
+
+    private static final String QUEUE = "queue_customer_deleted";
+
+    @Test
+    void batchedMessagesSentWithTheBodyAndAttributesOfSendMessage() {
+        FakeAmazonSQS amazonSQS = new FakeAmazonSQS();
+        AWSSQSQueueService queueService = new AWSSQSQueueService();
+        ReflectionTestUtils.setField(queueService, "queueMessagingTemplate", new QueueMessagingTemplate(amazonSQS));
+        ReflectionTestUtils.setField(queueService, "amazonSQS", amazonSQS);
+        CustomerMessageData message = CustomerMessageData.builder().firstName("Ashok").emailId("ashok@yopmail.com").build();
+
+        queueService.sendMessage(QUEUE, message);
+        List<String> messageIds = queueService.sendMessages(QUEUE, Arrays.asList(message, message));
+
+        assertEquals(Arrays.asList("message-0", "message-1"), messageIds);
+        SendMessageRequest sent = amazonSQS.sent.get(0);
+        assertEquals(2, amazonSQS.batched.size());
+        for (SendMessageBatchRequestEntry batched : amazonSQS.batched) {
+            assertEquals(sent.getMessageBody(), batched.getMessageBody());
+            assertEquals(dataTypes(sent.getMessageAttributes()), dataTypes(batched.getMessageAttributes()));
+            assertEquals(sent.getMessageAttributes().get("contentType"), batched.getMessageAttributes().get("contentType"));
+        }
+    }
+
+    private Map<String, String> dataTypes(Map<String, MessageAttributeValue> attributes) {
+        return attributes.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().getDataType()));
+    }
+
+    /**
+     * In-memory SQS stand-in recording the sent messages.
+     */
+    private static class FakeAmazonSQS extends AbstractAmazonSQSAsync {
+
+        private final List<SendMessageRequest> sent = new CopyOnWriteArrayList<>();
+        private final List<SendMessageBatchRequestEntry> batched = new CopyOnWriteArrayList<>();
+
+        @Override
+        public GetQueueUrlResult getQueueUrl(GetQueueUrlRequest request) {
+            return new GetQueueUrlResult().withQueueUrl("http://localhost/000000000000/" + request.getQueueName());
+        }
+
+        @Override
+        public SendMessageResult sendMessage(SendMessageRequest request) {
+            sent.add(request);
+            return new SendMessageResult().withMessageId("message");
+        }
+
+        @Override
+        public SendMessageBatchResult sendMessageBatch(SendMessageBatchRequest request) {
+            batched.addAll(request.getEntries());
+            return new SendMessageBatchResult().withSuccessful(request.getEntries().stream()
+                    .map(entry -> new SendMessageBatchResultEntry().withId(entry.getId()).withMessageId("message-" + entry.getId()))
+                    .collect(Collectors.toList()));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.vinod.microservices.best.practices.impl;
+
+import com.vinod.microservices.best.practices.config.cache.CustomerCacheProperties;
+import com.vinod.microservices.best.practices.dto.CustomerDto;
+import com.vinod.microservices.best.practices.service.impl.CaffeineCustomerCacheService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CaffeineCustomerCacheServiceTest {
+
+    private static final String EMAIL_ID = "ashok@yopmail.com";
+
+    @Test
+    void customerLoadedOnceAndServedFromCache() {
+        CaffeineCustomerCacheService cacheService = createCacheService(true);
+        AtomicInteger loads = new AtomicInteger();
+        Function<String, Optional<CustomerDto>> loader = countingLoader(loads, createCustomerDto());
+
+        Optional<CustomerDto> first = cacheService.get(EMAIL_ID, loader);
+        Optional<CustomerDto> second = cacheService.get(EMAIL_ID, loader);
+
+        assertEquals(1, loads.get());
+        assertEquals(first.get(), second.get());
+        assertEquals(1, cacheService.stats().hitCount());
+        assertEquals(1, cacheService.stats().missCount());
+    }
+
+    @Test
+    void customerReloadedAfterEvict() {
+        CaffeineCustomerCacheService cacheService = createCacheService(true);
+        AtomicInteger loads = new AtomicInteger();
+        Function<String, Optional<CustomerDto>> loader = countingLoader(loads, createCustomerDto());
+
+        cacheService.get(EMAIL_ID, loader);
+        cacheService.evict(EMAIL_ID);
+        cacheService.get(EMAIL_ID, loader);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void unknownCustomerCachedWhenNegativeCachingEnabled() {
+        CaffeineCustomerCacheService cacheService = createCacheService(true);
+        AtomicInteger loads = new AtomicInteger();
+        Function<String, Optional<CustomerDto>> loader = countingLoader(loads, null);
+
+        assertFalse(cacheService.get(EMAIL_ID, loader).isPresent());
+        assertFalse(cacheService.get(EMAIL_ID, loader).isPresent());
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void unknownCustomerNotCachedWhenNegativeCachingDisabled() {
+        CaffeineCustomerCacheService cacheService = createCacheService(false);
+        AtomicInteger loads = new AtomicInteger();
+        Function<String, Optional<CustomerDto>> loader = countingLoader(loads, null);
+
+        assertFalse(cacheService.get(EMAIL_ID, loader).isPresent());
+        assertFalse(cacheService.get(EMAIL_ID, loader).isPresent());
+
+        assertEquals(2, loads.get());
+    }
+
+    private CaffeineCustomerCacheService createCacheService(boolean negativeCaching) {
+        CustomerCacheProperties properties = new CustomerCacheProperties();
+        properties.setNegativeCaching(negativeCaching);
+        return new CaffeineCustomerCacheService(properties, new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class));
+    }
+
+    private Function<String, Optional<CustomerDto>> countingLoader(AtomicInteger loads, CustomerDto customerDto) {
+        return emailId -> {
+            loads.incrementAndGet();
+            return Optional.ofNullable(customerDto);
+        };
+    }
+
+    private CustomerDto createCustomerDto() {
+        return CustomerDto.builder()
+                .id(1L)
+                .name("Ashok")
+                .emailId(EMAIL_ID)
+                .address("Gujarat")
+                .build();
+    }
+}
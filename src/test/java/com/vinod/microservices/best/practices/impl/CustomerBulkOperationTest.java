@@ -0,0 +1,89 @@
+package com.vinod.microservices.best.practices.impl;
+
+import com.vinod.microservices.best.practices.dto.CustomerBulkDto;
+import com.vinod.microservices.best.practices.dto.CustomerBulkResultDto;
+import com.vinod.microservices.best.practices.model.Customer;
+import com.vinod.microservices.best.practices.model.OutboxEvent;
+import com.vinod.microservices.best.practices.repository.CustomerRepository;
+import com.vinod.microservices.best.practices.repository.OutboxEventRepository;
+import com.vinod.microservices.best.practices.service.ICustomerService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.vinod.microservices.best.practices.util.ApplicationConstant.CustomerStatus.BLOCKED;
+import static com.vinod.microservices.best.practices.util.ApplicationConstant.CustomerStatus.REGISTERED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Chunked bulk delete and status change against H2.
+ */
+@SpringBootTest(properties = {"cache.customer.type=NONE", "customer.bulk.chunk-size=10"})
+class CustomerBulkOperationTest {
+
+    private static final int CUSTOMERS = 25;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    @Autowired
+    private ICustomerService customerService;
+
+    @BeforeEach
+    void saveCustomers() {
+        customerRepository.saveAll(IntStream.range(0, CUSTOMERS)
+                .mapToObj(i -> Customer.builder().name("Customer " + i).emailId("bulk" + i + "@yopmail.com").address("Gujarat").status(i % 5 == 0 ? BLOCKED.value() : REGISTERED.value()).build())
+                .collect(Collectors.toList()));
+    }
+
+    @AfterEach
+    void deleteCustomers() {
+        customerRepository.deleteAllInBatch();
+        outboxEventRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void customersDeletedByEmailIdInChunks() {
+        List<String> emailIds = IntStream.range(0, 12).mapToObj(i -> "bulk" + i + "@yopmail.com").collect(Collectors.toList());
+        emailIds.add("unknown@yopmail.com");
+        List<CustomerBulkResultDto> progress = new ArrayList<>();
+
+        CustomerBulkResultDto result = customerService.deleteCustomers(CustomerBulkDto.builder().emailIds(emailIds).build(), progress::add);
+
+        assertEquals(2, result.getChunks());
+        assertEquals(12, result.getAffected());
+        assertEquals(2, progress.size());
+        assertEquals(10, progress.get(0).getAffected());
+        assertEquals(CUSTOMERS - 12, customerRepository.count());
+        assertEquals(12, queueMessages("queue_customer_deleted").size());
+    }
+
+    @Test
+    void customerStatusChangedByStatusInKeysetChunks() {
+        List<CustomerBulkResultDto> progress = new ArrayList<>();
+
+        CustomerBulkResultDto result = customerService.changeCustomerStatus(CustomerBulkDto.builder().status(REGISTERED.value()).build(), BLOCKED.value(), progress::add);
+
+        assertEquals(2, result.getChunks());
+        assertEquals(20, result.getAffected());
+        assertEquals(2, progress.size());
+        assertTrue(customerRepository.findAll().stream().allMatch(customer -> BLOCKED.value().equals(customer.getStatus())));
+        assertEquals(20, customerRepository.findAll().stream().filter(customer -> customer.getVersion() == 1L).count());
+        List<OutboxEvent> messages = queueMessages("queue_customer_status_changed");
+        assertEquals(20, messages.size());
+        assertTrue(messages.get(0).getPayload().contains("\"status\":\"Blocked\""));
+    }
+
+    private List<OutboxEvent> queueMessages(String queue) {
+        return outboxEventRepository.findAll().stream().filter(outboxEvent -> queue.equals(outboxEvent.getDestination())).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,86 @@
+package com.vinod.microservices.best.practices.impl;
+
+import com.vinod.microservices.best.practices.dto.CustomerDto;
+import com.vinod.microservices.best.practices.dto.CustomerPageDto;
+import com.vinod.microservices.best.practices.model.Customer;
+import com.vinod.microservices.best.practices.repository.CustomerRepository;
+import com.vinod.microservices.best.practices.service.ICustomerService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.vinod.microservices.best.practices.util.ApplicationConstant.CustomerStatus.BLOCKED;
+import static com.vinod.microservices.best.practices.util.ApplicationConstant.CustomerStatus.REGISTERED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Keyset pagination and cursor export against H2.
+ */
+@SpringBootTest(properties = "cache.customer.type=NONE")
+class CustomerListingTest {
+
+    private static final int CUSTOMERS = 25;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private ICustomerService customerService;
+
+    @BeforeEach
+    void saveCustomers() {
+        customerRepository.saveAll(IntStream.range(0, CUSTOMERS)
+                .mapToObj(i -> Customer.builder().name("Customer " + i).emailId("listing" + i + "@yopmail.com").address("Gujarat").status(i % 5 == 0 ? BLOCKED.value() : REGISTERED.value()).build())
+                .collect(Collectors.toList()));
+    }
+
+    @AfterEach
+    void deleteCustomers() {
+        customerRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void everyCustomerListedOnceByKeysetPages() {
+        List<CustomerDto> listed = new ArrayList<>();
+        long afterId = 0;
+        CustomerPageDto page;
+        do {
+            page = customerService.getCustomers(null, afterId, 10);
+            listed.addAll(page.getCustomers());
+            afterId = null != page.getNextAfterId() ? page.getNextAfterId() : afterId;
+        } while (null != page.getNextAfterId());
+
+        assertEquals(CUSTOMERS, listed.size());
+        assertEquals(CUSTOMERS, listed.stream().map(CustomerDto::getId).distinct().count());
+        assertTrue(IntStream.range(1, listed.size()).allMatch(i -> listed.get(i - 1).getId() < listed.get(i).getId()));
+        assertNull(page.getNextAfterId());
+    }
+
+    @Test
+    void customersListedByStatus() {
+        CustomerPageDto page = customerService.getCustomers(BLOCKED.value(), 0, 10);
+
+        assertEquals(5, page.getSize());
+        assertNull(page.getNextAfterId());
+    }
+
+    @Test
+    void everyCustomerExportedInIdOrder() {
+        List<Long> ids = new ArrayList<>();
+
+        long count = customerService.exportCustomers(null, customerDto -> ids.add(customerDto.getId()));
+
+        assertEquals(CUSTOMERS, count);
+        assertEquals(CUSTOMERS, ids.size());
+        assertTrue(IntStream.range(1, ids.size()).allMatch(i -> ids.get(i - 1) < ids.get(i)));
+        assertEquals(20, customerService.exportCustomers(REGISTERED.value(), customerDto -> { }));
+    }
+}
@@ -0,0 +1,104 @@
+package com.vinod.microservices.best.practices.impl;
+
+import com.vinod.microservices.best.practices.dto.CustomerDto;
+import com.vinod.microservices.best.practices.exception.UserNotFoundException;
+import com.vinod.microservices.best.practices.repository.CustomerRepository;
+import com.vinod.microservices.best.practices.service.ICustomerService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Concurrent lookups of the same email id without the customer cache, they share one repository query.
+ */
+@SpringBootTest(properties = "cache.customer.type=NONE")
+class CustomerLookupSingleFlightTest {
+
+    private static final int CALLERS = 16;
+
+    @MockBean
+    private CustomerRepository customerRepository;
+    @Autowired
+    private ICustomerService customerService;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentLookupsShareOneQuery() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(customerRepository.findCustomerDtoByEmailId("ashok@yopmail.com")).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return Optional.of(new CustomerDto(1L, "Ashok", "ashok@yopmail.com", "Gujarat", 0L));
+        });
+        double coalescedBefore = coalesced();
+
+        List<Future<CustomerDto>> lookups = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            lookups.add(executor.submit(() -> customerService.getCustomerByEmailId("ashok@yopmail.com")));
+        }
+        awaitCoalesced(coalescedBefore + CALLERS - 1);
+        release.countDown();
+
+        for (Future<CustomerDto> lookup : lookups) {
+            assertEquals("ashok@yopmail.com", lookup.get(10, TimeUnit.SECONDS).getEmailId());
+        }
+        verify(customerRepository, times(1)).findCustomerDtoByEmailId("ashok@yopmail.com");
+    }
+
+    @Test
+    void coalescedLookupsShareTheNotFoundResult() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(customerRepository.findCustomerDtoByEmailId("unknown@yopmail.com")).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return Optional.empty();
+        });
+        double coalescedBefore = coalesced();
+
+        Future<?> first = executor.submit(() -> assertThrows(UserNotFoundException.class, () -> customerService.getCustomerByEmailId("unknown@yopmail.com")));
+        Future<?> second = executor.submit(() -> assertThrows(UserNotFoundException.class, () -> customerService.getCustomerByEmailId("unknown@yopmail.com")));
+        awaitCoalesced(coalescedBefore + 1);
+        release.countDown();
+
+        first.get(10, TimeUnit.SECONDS);
+        second.get(10, TimeUnit.SECONDS);
+        verify(customerRepository, times(1)).findCustomerDtoByEmailId("unknown@yopmail.com");
+    }
+
+    private double coalesced() {
+        return meterRegistry.get("customer.lookup.single.flight").tag("result", "coalesced").counter().count();
+    }
+
+    private void awaitCoalesced(double expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (coalesced() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(coalesced() >= expected, "coalesced: " + coalesced());
+    }
+}
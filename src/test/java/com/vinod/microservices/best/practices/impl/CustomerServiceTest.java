@@ -1,26 +1,32 @@
 package com.vinod.microservices.best.practices.impl;
 
+import com.vinod.microservices.best.practices.dto.CustomerBatchResultDto;
 import com.vinod.microservices.best.practices.dto.CustomerDto;
 import com.vinod.microservices.best.practices.dto.CustomerMessageData;
 import com.vinod.microservices.best.practices.dto.CustomerRegisterDto;
 import com.vinod.microservices.best.practices.dto.CustomerUpdateDto;
 import com.vinod.microservices.best.practices.event.CustomerCreatedEvent;
+import com.vinod.microservices.best.practices.event.CustomerDeletedEvent;
+import com.vinod.microservices.best.practices.exception.CustomerModifiedException;
 import com.vinod.microservices.best.practices.exception.UserNotFoundException;
 import com.vinod.microservices.best.practices.model.Customer;
 import com.vinod.microservices.best.practices.repository.CustomerRepository;
 import com.vinod.microservices.best.practices.service.ICustomerService;
-import com.vinod.microservices.best.practices.service.impl.AWSSQSQueueService;
 import com.vinod.microservices.best.practices.util.ApplicationConstant;
+import com.vinod.microservices.best.practices.util.ErrorCode;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static org.apache.commons.lang3.builder.CompareToBuilder.reflectionCompare;
@@ -35,11 +41,11 @@ class CustomerServiceTest {
     @MockBean
     private CustomerCreatedEvent customerCreatedEvent;
     @MockBean
-    private AWSSQSQueueService queueService;
+    private CustomerDeletedEvent customerDeletedEvent;
     @Autowired
     private ICustomerService customerService;
-    @Value("${queue.customer.deleted}")
-    private String queue_customer_deleted;
+    @Autowired
+    private MeterRegistry meterRegistry;
 
     @Test
     void customerAdded() {
@@ -58,20 +64,40 @@ class CustomerServiceTest {
     }
 
     @Test
-    void customerUpdatedWhenCustomerFound() throws UserNotFoundException {
+    void customerBatchAddedWithPerItemResult() {
+        CustomerRegisterDto newCustomer = createCustomerRegisterDto("Ashok","ashok@yopmail.com","Gujarat");
+        CustomerRegisterDto invalidCustomer = createCustomerRegisterDto(null,"vinod@yopmail.com","Gujarat");
+        CustomerRegisterDto existingCustomer = createCustomerRegisterDto("Ravi","ravi@yopmail.com","Pune");
+        when(customerRepository.findExistingEmailIds(Mockito.anyCollection())).thenReturn(Collections.singletonList("ravi@yopmail.com"));
+        doNothing().when(customerCreatedEvent).on(Mockito.any(CustomerMessageData.class));
+
+        List<CustomerBatchResultDto> results = customerService.addCustomers(Arrays.asList(newCustomer, invalidCustomer, existingCustomer));
+
+        verify(customerRepository,times(1)).saveAll(Mockito.anyCollection());
+        verify(customerCreatedEvent,times(1)).on(Mockito.any(CustomerMessageData.class));
+        assertEquals(3, results.size());
+        assertTrue(results.get(0).isCreated());
+        assertFalse(results.get(1).isCreated());
+        assertEquals(String.valueOf(ErrorCode.BAD_PARAMETER.getCode()), results.get(1).getErrorCode());
+        assertFalse(results.get(2).isCreated());
+        assertEquals(String.valueOf(ErrorCode.DUPLICATE_USER.getCode()), results.get(2).getErrorCode());
+    }
+
+    @Test
+    void customerUpdatedWhenCustomerFound() throws UserNotFoundException, CustomerModifiedException {
         final String EMAIL_ID = "ashok@yopmail.com";
         CustomerUpdateDto customerUpdateDto = createCustomerUpdateDto("Ashok","Gujarat");
         Customer customer = createCustomer("Ashok",EMAIL_ID,"Gujarat", ApplicationConstant.CustomerStatus.REGISTERED.value());
         customer.setId(1L);
         Optional<Customer> optionalCustomer=Optional.of(customer);
         when(customerRepository.findCustomerByEmailId(EMAIL_ID)).thenReturn(optionalCustomer);
-        when(customerRepository.save(Mockito.any(Customer.class))).thenReturn(customer);
+        when(customerRepository.saveAndFlush(Mockito.any(Customer.class))).thenReturn(customer);
 
-        customerService.updateCustomer(customerUpdateDto,EMAIL_ID);
+        customerService.updateCustomer(customerUpdateDto,EMAIL_ID,null);
 
         verify(customerRepository,times(1)).findCustomerByEmailId(EMAIL_ID);
         ArgumentCaptor<Customer> argumentCaptor = ArgumentCaptor.forClass(Customer.class);
-        verify(customerRepository,times(1)).save(argumentCaptor.capture());
+        verify(customerRepository,times(1)).saveAndFlush(argumentCaptor.capture());
         Customer customerArgument = argumentCaptor.getValue();
         MatcherAssert.assertThat(reflectionCompare(customer, customerArgument), Matchers.is(0));
     }
@@ -85,12 +111,27 @@ class CustomerServiceTest {
 
         String expectedErrorMsg = "Customer update operation failed, customer not found for email id:"+EMAIL_ID;
         Exception exception = assertThrows(UserNotFoundException.class, () -> {
-            customerService.updateCustomer(customerUpdateDto,EMAIL_ID);
+            customerService.updateCustomer(customerUpdateDto,EMAIL_ID,null);
         });
 
         verify(customerRepository,times(1)).findCustomerByEmailId(EMAIL_ID);
-        verify(customerRepository,never()).save(Mockito.any(Customer.class));
+        verify(customerRepository,never()).saveAndFlush(Mockito.any(Customer.class));
         assertTrue(exception.getMessage().contains(expectedErrorMsg));
+        assertEquals(0, exception.getStackTrace().length);
+    }
+
+    @Test
+    void customerNotUpdatedWhenIfMatchIsStale() {
+        final String EMAIL_ID = "ashok@yopmail.com";
+        CustomerUpdateDto customerUpdateDto = createCustomerUpdateDto("Ashok","Gujarat");
+        Customer customer = createCustomer("Ashok",EMAIL_ID,"Gujarat", ApplicationConstant.CustomerStatus.REGISTERED.value());
+        customer.setId(1L);
+        customer.setVersion(3L);
+        when(customerRepository.findCustomerByEmailId(EMAIL_ID)).thenReturn(Optional.of(customer));
+
+        assertThrows(CustomerModifiedException.class, () -> customerService.updateCustomer(customerUpdateDto,EMAIL_ID,"\"1.2\""));
+
+        verify(customerRepository,never()).saveAndFlush(Mockito.any(Customer.class));
     }
 
     @Test
@@ -103,14 +144,14 @@ class CustomerServiceTest {
         when(customerRepository.findCustomerByEmailId(EMAIL_ID)).thenReturn(optionalCustomer);
         doNothing().when(customerRepository).delete(Mockito.any(Customer.class));
 
-        doNothing().when(queueService).sendMessage(Mockito.any(String.class), Mockito.any(CustomerMessageData.class));
+        doNothing().when(customerDeletedEvent).on(Mockito.any(CustomerMessageData.class));
 
         customerService.deleteCustomer(EMAIL_ID);
 
         verify(customerRepository,times(1)).findCustomerByEmailId(EMAIL_ID);
         ArgumentCaptor<Customer> argumentCaptor = ArgumentCaptor.forClass(Customer.class);
         verify(customerRepository,times(1)).delete(argumentCaptor.capture());
-        verify(queueService,times(1)).sendMessage(Mockito.any(String.class), Mockito.any(CustomerMessageData.class));
+        verify(customerDeletedEvent,times(1)).on(Mockito.any(CustomerMessageData.class));
         Customer customerArgument = argumentCaptor.getValue();
         MatcherAssert.assertThat(reflectionCompare(customer, customerArgument), Matchers.is(0));
     }
@@ -121,12 +162,13 @@ class CustomerServiceTest {
 
         Customer customer = createCustomer("Ashok",EMAIL_ID,"Gujarat", ApplicationConstant.CustomerStatus.REGISTERED.value());
         customer.setId(1L);
-        Optional<Customer> optionalCustomer=Optional.of(customer);
-        when(customerRepository.findCustomerByEmailId(EMAIL_ID)).thenReturn(optionalCustomer);
+        Optional<CustomerDto> optionalCustomerDto=Optional.of(new CustomerDto(customer.getId(),customer.getName(),customer.getEmailId(),customer.getAddress(),customer.getVersion()));
+        when(customerRepository.findCustomerDtoByEmailId(EMAIL_ID)).thenReturn(optionalCustomerDto);
 
         CustomerDto customerDto=customerService.getCustomerByEmailId(EMAIL_ID);
 
-        verify(customerRepository,times(1)).findCustomerByEmailId(EMAIL_ID);
+        verify(customerRepository,times(1)).findCustomerDtoByEmailId(EMAIL_ID);
+        verify(customerRepository,never()).findCustomerByEmailId(EMAIL_ID);
 
         assertEquals(customer.getEmailId(),customerDto.getEmailId());
         assertEquals(customer.getId(),customerDto.getId());
@@ -138,18 +180,30 @@ class CustomerServiceTest {
     void customerNotFoundAsCustomerEmailIdNotExists() {
         final String EMAIL_ID = "customer_not_found@yopmail.com";
 
-        Optional<Customer> optionalCustomer=Optional.ofNullable(null);
-        when(customerRepository.findCustomerByEmailId(EMAIL_ID)).thenReturn(optionalCustomer);
+        Optional<CustomerDto> optionalCustomerDto=Optional.ofNullable(null);
+        when(customerRepository.findCustomerDtoByEmailId(EMAIL_ID)).thenReturn(optionalCustomerDto);
 
         String expectedErrorMsg = "Get Customer details operation failed, customer not found for email id:"+EMAIL_ID;
         Exception exception = assertThrows(UserNotFoundException.class, () -> {
             customerService.getCustomerByEmailId(EMAIL_ID);
         });
 
-        verify(customerRepository,times(1)).findCustomerByEmailId(EMAIL_ID);
+        verify(customerRepository,times(1)).findCustomerDtoByEmailId(EMAIL_ID);
         assertTrue(exception.getMessage().contains(expectedErrorMsg));
     }
 
+    @Test
+    void customerNotFoundCountedAndOperationTimed() {
+        final String EMAIL_ID = "customer_metrics@yopmail.com";
+        when(customerRepository.findCustomerDtoByEmailId(EMAIL_ID)).thenReturn(Optional.empty());
+        double notFoundBefore = meterRegistry.counter("customer.not.found", "operation", "getCustomerByEmailId").count();
+
+        assertThrows(UserNotFoundException.class, () -> customerService.getCustomerByEmailId(EMAIL_ID));
+
+        assertEquals(notFoundBefore + 1, meterRegistry.counter("customer.not.found", "operation", "getCustomerByEmailId").count());
+        assertTrue(meterRegistry.get("customer.service").tags("method", "getCustomerByEmailId", "exception", "UserNotFoundException").timer().count() >= 1);
+    }
+
     private CustomerRegisterDto createCustomerRegisterDto(String name, String emailId, String address) {
         return CustomerRegisterDto.builder()
                 .name(name)
@@ -0,0 +1,39 @@
+package com.vinod.microservices.best.practices.impl;
+
+import com.vinod.microservices.best.practices.handler.CustomerStatusChangedHandler;
+import com.vinod.microservices.best.practices.service.ICustomerCacheService;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.mockito.Mockito.*;
+
+class CustomerStatusChangedHandlerTest {
+
+    @Test
+    void cachedCustomerEvictedOnStatusChanged() throws Exception {
+        ICustomerCacheService customerCacheService = mock(ICustomerCacheService.class);
+        CustomerStatusChangedHandler handler = createHandler(customerCacheService);
+
+        handler.handle("{\"firstName\":\"Ashok\",\"emailId\":\"ashok@yopmail.com\",\"status\":\"ACTIVE\"}", "sender");
+
+        verify(customerCacheService, times(1)).evict("ashok@yopmail.com");
+    }
+
+    @Test
+    void nothingEvictedWithoutEmailId() throws Exception {
+        ICustomerCacheService customerCacheService = mock(ICustomerCacheService.class);
+        CustomerStatusChangedHandler handler = createHandler(customerCacheService);
+
+        handler.handle("{\"firstName\":\"Ashok\",\"status\":\"ACTIVE\"}", "sender");
+        handler.handle("", "sender");
+
+        verifyNoInteractions(customerCacheService);
+    }
+
+    private CustomerStatusChangedHandler createHandler(ICustomerCacheService customerCacheService) {
+        CustomerStatusChangedHandler handler = new CustomerStatusChangedHandler();
+        ReflectionTestUtils.setField(handler, "queueCustomerStatusChanged", "queue_customer_status_changed");
+        ReflectionTestUtils.setField(handler, "customerCacheService", customerCacheService);
+        return handler;
+    }
+}
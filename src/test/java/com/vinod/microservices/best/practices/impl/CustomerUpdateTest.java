@@ -0,0 +1,48 @@
+package com.vinod.microservices.best.practices.impl;
+
+import com.vinod.microservices.best.practices.dto.CustomerDto;
+import com.vinod.microservices.best.practices.dto.CustomerUpdateDto;
+import com.vinod.microservices.best.practices.exception.CustomerModifiedException;
+import com.vinod.microservices.best.practices.model.Customer;
+import com.vinod.microservices.best.practices.repository.CustomerRepository;
+import com.vinod.microservices.best.practices.service.ICustomerService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static com.vinod.microservices.best.practices.util.ApplicationConstant.CustomerStatus.REGISTERED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Conditional update against H2, the updated customer carries the version of its new ETag.
+ */
+@SpringBootTest(properties = "cache.customer.type=NONE")
+class CustomerUpdateTest {
+
+    private static final String EMAIL_ID = "update@yopmail.com";
+
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private ICustomerService customerService;
+
+    @AfterEach
+    void deleteCustomers() {
+        customerRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void updatedCustomerReturnedWithItsNewVersion() throws Exception {
+        Customer customer = customerRepository.save(Customer.builder().name("Ashok").emailId(EMAIL_ID).address("Gujarat").status(REGISTERED.value()).build());
+        String eTag = "\"" + customer.getId() + "." + customer.getVersion() + "\"";
+
+        CustomerDto updated = customerService.updateCustomer(new CustomerUpdateDto("Ashok Kumar", "Pune"), EMAIL_ID, eTag);
+
+        assertEquals(customer.getVersion() + 1, updated.getVersion());
+        assertEquals(updated.getVersion(), customerRepository.findCustomerByEmailId(EMAIL_ID).get().getVersion());
+        assertThrows(CustomerModifiedException.class, () -> customerService.updateCustomer(new CustomerUpdateDto("Ashok", "Mumbai"), EMAIL_ID, eTag));
+        assertEquals("Pune", customerRepository.findCustomerByEmailId(EMAIL_ID).get().getAddress());
+    }
+}
@@ -0,0 +1,92 @@
+package com.vinod.microservices.best.practices.impl;
+
+import com.vinod.microservices.best.practices.model.IdempotencyRecord;
+import com.vinod.microservices.best.practices.repository.IdempotencyRecordRepository;
+import com.vinod.microservices.best.practices.service.IIdempotencyService;
+import com.vinod.microservices.best.practices.service.impl.DatabaseIdempotencyService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Idempotency records and key claims in the H2 idempotency_record table.
+ */
+@SpringBootTest(properties = {"idempotency.store=DATABASE", "idempotency.ttl=1h", "idempotency.claim-timeout=1m"})
+class DatabaseIdempotencyServiceTest {
+
+    @Autowired
+    private IIdempotencyService idempotencyService;
+    @Autowired
+    private DatabaseIdempotencyService databaseIdempotencyService;
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @AfterEach
+    void deleteRecords() {
+        idempotencyRecordRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void storedRecordFoundUntilExpiredAndPurged() {
+        assertTrue(idempotencyService instanceof DatabaseIdempotencyService);
+        assertTrue(idempotencyService.claim("key-current", "fingerprint"));
+        assertTrue(idempotencyService.claim("key-expired", "fingerprint"));
+        idempotencyService.save(idempotencyRecord("key-current", LocalDateTime.now()));
+        idempotencyService.save(idempotencyRecord("key-expired", LocalDateTime.now().minusHours(2)));
+
+        assertEquals("{\"status\":200}", idempotencyService.find("key-current").getBody());
+        assertNull(idempotencyService.find("key-expired"));
+
+        databaseIdempotencyService.purgeExpired();
+        assertEquals(1, idempotencyRecordRepository.count());
+    }
+
+    @Test
+    void claimedKeyNotClaimedAgainUntilReleased() {
+        assertTrue(idempotencyService.claim("key-claimed", "fingerprint"));
+        assertFalse(idempotencyService.claim("key-claimed", "fingerprint"));
+        assertTrue(idempotencyService.find("key-claimed").isPending());
+
+        idempotencyService.release("key-claimed");
+        assertNull(idempotencyService.find("key-claimed"));
+        assertTrue(idempotencyService.claim("key-claimed", "fingerprint"));
+    }
+
+    @Test
+    void storedResponseNeitherOverwrittenNorReleased() {
+        assertTrue(idempotencyService.claim("key-stored", "fingerprint"));
+        idempotencyService.save(idempotencyRecord("key-stored", LocalDateTime.now()));
+
+        assertFalse(idempotencyService.claim("key-stored", "fingerprint"));
+        IdempotencyRecord other = idempotencyRecord("key-stored", LocalDateTime.now());
+        other.setBody("{\"status\":201}");
+        idempotencyService.save(other);
+        idempotencyService.release("key-stored");
+
+        IdempotencyRecord stored = idempotencyService.find("key-stored");
+        assertFalse(stored.isPending());
+        assertEquals("{\"status\":200}", stored.getBody());
+    }
+
+    @Test
+    void claimOfStoppedNodeTakenOverAfterTimeout() {
+        idempotencyRecordRepository.insertPending("key-abandoned", "fingerprint", LocalDateTime.now().minusMinutes(5));
+        assertNull(idempotencyService.find("key-abandoned"));
+
+        assertTrue(idempotencyService.claim("key-abandoned", "fingerprint"));
+        assertTrue(idempotencyService.find("key-abandoned").isPending());
+    }
+
+    private static IdempotencyRecord idempotencyRecord(String idempotencyKey, LocalDateTime createdAt) {
+        return IdempotencyRecord.builder().idempotencyKey(idempotencyKey).fingerprint("fingerprint").status(200)
+                .contentType("application/json").body("{\"status\":200}").createdAt(createdAt).build();
+    }
+}
@@ -0,0 +1,126 @@
+package com.vinod.microservices.best.practices.impl;
+
+import com.vinod.microservices.best.practices.dto.CustomerMessageData;
+import com.vinod.microservices.best.practices.model.OutboxEvent;
+import com.vinod.microservices.best.practices.repository.OutboxEventRepository;
+import com.vinod.microservices.best.practices.service.IPublisherService;
+import com.vinod.microservices.best.practices.service.IQueueService;
+import com.vinod.microservices.best.practices.service.impl.OutboxRelayService;
+import com.vinod.microservices.best.practices.util.ApplicationConstant.OutboxDestinationType;
+import com.vinod.microservices.best.practices.util.ApplicationConstant.OutboxStatus;
+import com.vinod.microservices.best.practices.util.GlobalUtility;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayServiceTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+    @Mock
+    private IPublisherService publisherEvent;
+    @Mock
+    private IQueueService queueService;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @InjectMocks
+    private OutboxRelayService outboxRelayService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(outboxRelayService, "batchSize", 10);
+        ReflectionTestUtils.setField(outboxRelayService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(outboxRelayService, "backoff", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(outboxRelayService, "maxBackoff", Duration.ofMinutes(5));
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+    }
+
+    @Test
+    void deliveredEventsDeletedAndFailedEventsKept() {
+        OutboxEvent published = createOutboxEvent(1L, OutboxDestinationType.EVENT, "customer_created", "ashok@yopmail.com");
+        OutboxEvent notPublished = createOutboxEvent(2L, OutboxDestinationType.EVENT, "customer_created", "vinod@yopmail.com");
+        OutboxEvent sent = createOutboxEvent(3L, OutboxDestinationType.QUEUE, "queue_customer_deleted", "ravi@yopmail.com");
+        when(outboxEventRepository.lockNextBatch(any(LocalDateTime.class), eq(10))).thenReturn(Arrays.asList(published, notPublished, sent));
+        when(publisherEvent.publishAll(eq("customer_created"), anyList())).thenReturn(Arrays.asList("message-1", null));
+        when(queueService.sendMessages(eq("queue_customer_deleted"), anyList())).thenReturn(Arrays.asList("message-3"));
+
+        outboxRelayService.relay();
+
+        verify(publisherEvent, times(1)).publishAll(eq("customer_created"), anyList());
+        ArgumentCaptor<List<Object>> messagesCaptor = ArgumentCaptor.forClass(List.class);
+        verify(queueService, times(1)).sendMessages(eq("queue_customer_deleted"), messagesCaptor.capture());
+        assertEquals("ravi@yopmail.com", ((CustomerMessageData) messagesCaptor.getValue().get(0)).getEmailId());
+        ArgumentCaptor<List<OutboxEvent>> argumentCaptor = ArgumentCaptor.forClass(List.class);
+        verify(outboxEventRepository, times(1)).deleteInBatch(argumentCaptor.capture());
+        assertEquals(Arrays.asList(published, sent), argumentCaptor.getValue());
+        assertEquals(1, notPublished.getAttempts());
+        assertEquals(OutboxStatus.PENDING, notPublished.getStatus());
+        assertTrue(notPublished.getNextAttemptAt().isAfter(LocalDateTime.now()));
+    }
+
+    @Test
+    void unreadableEventRescheduledWithBackoff() {
+        OutboxEvent unreadable = createOutboxEvent(1L, OutboxDestinationType.EVENT, "customer_created", "ashok@yopmail.com");
+        unreadable.setPayloadType("com.vinod.microservices.best.practices.dto.Removed");
+        unreadable.setAttempts(1);
+        when(outboxEventRepository.lockNextBatch(any(LocalDateTime.class), eq(10))).thenReturn(Collections.singletonList(unreadable));
+
+        LocalDateTime before = LocalDateTime.now();
+        outboxRelayService.relay();
+
+        verify(publisherEvent, never()).publishAll(anyString(), anyList());
+        assertEquals(2, unreadable.getAttempts());
+        assertEquals(OutboxStatus.PENDING, unreadable.getStatus());
+        assertFalse(unreadable.getNextAttemptAt().isBefore(before.plusSeconds(2)));
+    }
+
+    @Test
+    void eventMovedToDeadAfterMaxAttempts() {
+        OutboxEvent failing = createOutboxEvent(1L, OutboxDestinationType.QUEUE, "queue_customer_deleted", "ashok@yopmail.com");
+        failing.setAttempts(2);
+        when(outboxEventRepository.lockNextBatch(any(LocalDateTime.class), eq(10))).thenReturn(Collections.singletonList(failing));
+        when(queueService.sendMessages(eq("queue_customer_deleted"), anyList())).thenReturn(Collections.singletonList(null));
+
+        outboxRelayService.relay();
+
+        assertEquals(3, failing.getAttempts());
+        assertEquals(OutboxStatus.DEAD, failing.getStatus());
+        assertEquals(1, meterRegistry.counter("outbox.events.dead", "destination", "queue_customer_deleted").count());
+    }
+
+    private OutboxEvent createOutboxEvent(Long id, OutboxDestinationType destinationType, String destination, String emailId) {
+        return OutboxEvent.builder()
+                .id(id)
+                .destinationType(destinationType)
+                .destination(destination)
+                .payloadType(CustomerMessageData.class.getName())
+                .payload(GlobalUtility.convertObjectToJson(CustomerMessageData.builder().firstName("Customer").emailId(emailId).build()))
+                .createdAt(LocalDateTime.now())
+                .status(OutboxStatus.PENDING)
+                .nextAttemptAt(LocalDateTime.now())
+                .build();
+    }
+}
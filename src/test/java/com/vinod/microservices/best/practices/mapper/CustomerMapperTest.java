@@ -0,0 +1,81 @@
+package com.vinod.microservices.best.practices.mapper;
+
+import com.vinod.microservices.best.practices.dto.CustomerDto;
+import com.vinod.microservices.best.practices.dto.CustomerRegisterDto;
+import com.vinod.microservices.best.practices.dto.CustomerUpdateDto;
+import com.vinod.microservices.best.practices.model.Customer;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.modelmapper.ModelMapper;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Equivalence of CustomerMapper against the ModelMapper mappings it replaced.
+ */
+class CustomerMapperTest {
+
+    private static ModelMapper modelMapper;
+    private final CustomerMapper customerMapper = new CustomerMapper();
+
+    @BeforeAll
+    static void setUp() {
+        modelMapper = new ModelMapper();
+        modelMapper.typeMap(CustomerRegisterDto.class, Customer.class).addMappings(mapper -> mapper.skip(Customer::setId));
+    }
+
+    static Stream<Arguments> customers() {
+        return Stream.of(
+                Arguments.of(1L, "Ashok Kumar", "ashok@yopmail.com", "Gujarat"),
+                Arguments.of(2L, "Vinod Pillai", "vinod@yopmail.com", null),
+                Arguments.of(null, "", "", ""),
+                Arguments.of(Long.MAX_VALUE, "Émile Zola", "emile.zola@yopmail.fr", "888 Constantine Ave, #54"),
+                Arguments.of(null, null, null, null));
+    }
+
+    @ParameterizedTest
+    @MethodSource("customers")
+    void customerRegisterDtoToCustomerMatchesModelMapper(Long id, String name, String emailId, String address) {
+        CustomerRegisterDto customerRegisterDto = new CustomerRegisterDto(name, emailId, address);
+
+        assertEquals(modelMapper.map(customerRegisterDto, Customer.class), customerMapper.toCustomer(customerRegisterDto));
+    }
+
+    @ParameterizedTest
+    @MethodSource("customers")
+    void customerToCustomerDtoMatchesModelMapper(Long id, String name, String emailId, String address) {
+        Customer customer = new Customer(id, name, emailId, address, "Registered", 0L);
+
+        assertEquals(modelMapper.map(customer, CustomerDto.class), customerMapper.toCustomerDto(customer));
+    }
+
+    @ParameterizedTest
+    @MethodSource("customers")
+    void customerDtoToCustomerMatchesModelMapper(Long id, String name, String emailId, String address) {
+        CustomerDto customerDto = new CustomerDto(id, name, emailId, address, 0L);
+
+        assertEquals(modelMapper.map(customerDto, Customer.class), customerMapper.toCustomer(customerDto));
+    }
+
+    @ParameterizedTest
+    @MethodSource("customers")
+    void customerDtoToCustomerRegisterDtoMatchesModelMapper(Long id, String name, String emailId, String address) {
+        CustomerDto customerDto = new CustomerDto(id, name, emailId, address, 0L);
+
+        assertEquals(modelMapper.map(customerDto, CustomerRegisterDto.class), customerMapper.toCustomerRegisterDto(customerDto));
+    }
+
+    @ParameterizedTest
+    @MethodSource("customers")
+    void customerUpdateDtoCopiedOntoCustomer(Long id, String name, String emailId, String address) {
+        Customer customer = new Customer(id, "Old Name", emailId, "Old Address", "Registered", 0L);
+
+        customerMapper.updateCustomer(new CustomerUpdateDto(name, address), customer);
+
+        assertEquals(new Customer(id, name, emailId, address, "Registered", 0L), customer);
+    }
+}
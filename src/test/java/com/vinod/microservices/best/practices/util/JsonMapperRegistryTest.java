@@ -0,0 +1,47 @@
+package com.vinod.microservices.best.practices.util;
+
+import com.vinod.microservices.best.practices.dto.CustomerMessageData;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonMapperRegistryTest {
+
+    @Test
+    void customerMessageDataRoundTripsWithoutNullFields() throws Exception {
+        CustomerMessageData message = CustomerMessageData.builder().firstName("Ashok").build();
+
+        String json = GlobalUtility.convertObjectToJson(message);
+
+        assertEquals("{\"firstName\":\"Ashok\"}", json);
+        assertEquals(message, JsonMapperRegistry.readerFor(CustomerMessageData.class).readValue(json));
+    }
+
+    @Test
+    void localDateTimeWrittenInIsoFormat() {
+        String json = GlobalUtility.convertObjectToJson(Collections.singletonMap("createdAt", LocalDateTime.of(2021, 3, 1, 10, 15, 30)));
+
+        assertEquals("{\"createdAt\":\"2021-03-01T10:15:30\"}", json);
+    }
+
+    @Test
+    void writersAndReadersSharedPerType() {
+        assertSame(JsonMapperRegistry.writerFor(Response.class), JsonMapperRegistry.writerFor(Response.class));
+        assertSame(JsonMapperRegistry.readerFor(CustomerMessageData.class), JsonMapperRegistry.readerFor(CustomerMessageData.class));
+        assertSame(JsonMapperRegistry.objectMapper(), GlobalUtility.getDateFormatObjectMapper());
+    }
+
+    @Test
+    void afterburnerOffInNativeImage() {
+        assertTrue(JsonMapperRegistry.afterburnerEnabled());
+        System.setProperty(JsonMapperRegistry.NATIVE_IMAGE_PROPERTY, "runtime");
+        try {
+            assertFalse(JsonMapperRegistry.afterburnerEnabled());
+        } finally {
+            System.clearProperty(JsonMapperRegistry.NATIVE_IMAGE_PROPERTY);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.vinod.microservices.best.practices.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LogSamplerTest {
+
+    @Test
+    void eventsOverTheRateSuppressedAndReportedWithTheNextLoggedOne() throws InterruptedException {
+        LogSampler logSampler = new LogSampler(2);
+
+        assertEquals(0, logSampler.sample());
+        assertEquals(0, logSampler.sample());
+        assertEquals(-1, logSampler.sample());
+        assertEquals(-1, logSampler.sample());
+        Thread.sleep(1100);
+
+        assertEquals(2, logSampler.sample());
+        assertEquals(0, logSampler.sample());
+    }
+}
@@ -0,0 +1,42 @@
+package com.vinod.microservices.best.practices.util;
+
+import com.vinod.microservices.best.practices.dto.CustomerMessageData;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessageDecoderTest {
+
+    private static final CustomerMessageData CUSTOMER = CustomerMessageData.builder().firstName("Ashok").emailId("ashok@yopmail.com").build();
+
+    @Test
+    void messageDecodedFromNotificationEnvelope() throws IOException {
+        String envelope = "{\"Type\":\"Notification\",\"MessageId\":\"5b3e\",\"MessageAttributes\":{\"Message\":{\"Type\":\"String\",\"Value\":\"x\"}},"
+                + "\"Message\":" + GlobalUtility.convertObjectToJson(GlobalUtility.convertObjectToJson(CUSTOMER)) + ",\"Timestamp\":\"2021-03-01T10:15:30.000Z\"}";
+
+        assertEquals(CUSTOMER, MessageDecoder.decodeNotification(envelope, CustomerMessageData.class));
+    }
+
+    @Test
+    void embeddedMessageObjectDecoded() throws IOException {
+        String envelope = "{\"Type\":\"Notification\",\"Message\":" + GlobalUtility.convertObjectToJson(CUSTOMER) + "}";
+
+        assertEquals(CUSTOMER, MessageDecoder.decodeNotification(envelope, CustomerMessageData.class));
+    }
+
+    @Test
+    void nullWhenEnvelopeHasNoMessage() throws IOException {
+        assertNull(MessageDecoder.decodeNotification("{\"Type\":\"Notification\",\"Subject\":null}", CustomerMessageData.class));
+        assertNull(MessageDecoder.decodeNotification("{\"Message\":null}", CustomerMessageData.class));
+        assertNull(MessageDecoder.decodeNotification("[]", CustomerMessageData.class));
+        assertNull(MessageDecoder.decodeNotification("", CustomerMessageData.class));
+        assertNull(MessageDecoder.decodeNotification(null, CustomerMessageData.class));
+    }
+
+    @Test
+    void malformedEnvelopeRejected() {
+        assertThrows(IOException.class, () -> MessageDecoder.decodeNotification("{\"Type\":", CustomerMessageData.class));
+    }
+}
@@ -0,0 +1,103 @@
+package com.vinod.microservices.best.practices.util;
+
+import com.vinod.microservices.best.practices.config.InternationalizationConfig;
+import com.vinod.microservices.best.practices.config.MessagesEndpoint;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.context.support.ReloadableResourceBundleMessageSource;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResourceMessageTest {
+
+    private static AnnotationConfigApplicationContext context;
+
+    @BeforeAll
+    static void setUp() {
+        context = new AnnotationConfigApplicationContext(InternationalizationConfig.class, ResourceMessage.class);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        context.close();
+    }
+
+    @AfterEach
+    void resetLocale() {
+        LocaleContextHolder.resetLocaleContext();
+    }
+
+    @Test
+    void acceptLanguageResolvedToTheSameSupportedLocale() {
+        InternationalizationConfig localeResolver = context.getBean(InternationalizationConfig.class);
+
+        Locale locale = localeResolver.resolveLocale(request("fr-CA,fr;q=0.9,en;q=0.8"));
+
+        assertEquals(new Locale("fr"), locale);
+        assertSame(locale, localeResolver.resolveLocale(request("fr-CA,fr;q=0.9,en;q=0.8")));
+        assertEquals(Locale.getDefault(), localeResolver.resolveLocale(request("de")));
+    }
+
+    @Test
+    void messageReadFromTheTableMatchesTheMessageSource() {
+        ReloadableResourceBundleMessageSource messageSource = context.getBean(ReloadableResourceBundleMessageSource.class);
+        LocaleContextHolder.setLocale(new Locale("fr"));
+
+        String message = ResourceMessage.getMessage("customer.fetched.successfully");
+
+        assertEquals(messageSource.getMessage("customer.fetched.successfully", null, new Locale("fr")), message);
+        assertSame(message, ResourceMessage.getMessage("customer.fetched.successfully"));
+    }
+
+    @Test
+    void unsupportedLocaleFallsBackToTheMessageSource() {
+        LocaleContextHolder.setLocale(Locale.GERMAN);
+
+        assertEquals("Success", ResourceMessage.getMessage("application.status.200"));
+    }
+
+    @Test
+    void reloadPicksUpTheChangedMessagesOfTheExternalDirectory(@TempDir Path directory) throws IOException {
+        Path messagesFile = directory.resolve("messages.properties");
+        Files.write(messagesFile, "application.status.200=Done\n".getBytes(StandardCharsets.UTF_8));
+        AnnotationConfigApplicationContext externalContext = new AnnotationConfigApplicationContext();
+        externalContext.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test",
+                Collections.singletonMap("messages.basenames", directory.resolve("messages").toUri() + ",classpath:messages")));
+        externalContext.register(InternationalizationConfig.class, ResourceMessage.class, MessagesEndpoint.class);
+        try {
+            externalContext.refresh();
+            assertEquals("Done", ResourceMessage.getMessage("application.status.200"));
+            assertEquals("Successfully fetched customer.", ResourceMessage.getMessage("customer.fetched.successfully"));
+
+            Files.write(messagesFile, "application.status.200=Completed\ncustomer.status.updated=Status updated\n".getBytes(StandardCharsets.UTF_8));
+            assertEquals("Done", ResourceMessage.getMessage("application.status.200"));
+            externalContext.getBean(MessagesEndpoint.class).reload();
+
+            assertEquals("Completed", ResourceMessage.getMessage("application.status.200"));
+            assertEquals("Status updated", ResourceMessage.getMessage("customer.status.updated"));
+        } finally {
+            externalContext.close();
+            new ResourceMessage(context.getBean(ReloadableResourceBundleMessageSource.class)).init();
+        }
+    }
+
+    private static MockHttpServletRequest request(String acceptLanguage) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Accept-Language", acceptLanguage);
+        return request;
+    }
+}
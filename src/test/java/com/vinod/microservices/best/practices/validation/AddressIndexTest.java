@@ -0,0 +1,86 @@
+package com.vinod.microservices.best.practices.validation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AddressIndexTest {
+
+    @Test
+    void localitiesMatchedIgnoringCaseAndWhitespace() {
+        AddressIndex addressIndex = AddressIndex.build(Arrays.asList("Navi  Mumbai", "Pune", " pune ", "", "Mumbai"));
+
+        assertEquals(3, addressIndex.size());
+        assertTrue(addressIndex.contains("navi mumbai"));
+        assertTrue(addressIndex.contains("  NAVI\tMumbai "));
+        assertTrue(addressIndex.contains("Pune"));
+        assertFalse(addressIndex.contains("Navi"));
+        assertFalse(addressIndex.contains("Navi Mumbai East"));
+        assertFalse(addressIndex.contains(""));
+    }
+
+    @Test
+    void prefixMatchedOnTheNormalizedLocalities() {
+        AddressIndex addressIndex = AddressIndex.build(Arrays.asList("Navi Mumbai", "Pune", "Mumbai"));
+
+        assertTrue(addressIndex.containsPrefix("NAVI  m"));
+        assertTrue(addressIndex.containsPrefix("mum"));
+        assertFalse(addressIndex.containsPrefix("Gujarat"));
+        assertFalse(addressIndex.containsPrefix("Punem"));
+    }
+
+    @Test
+    void referenceSortedInRunsMergedWithoutDuplicates() throws Exception {
+        StringBuilder reference = new StringBuilder();
+        for (int i = 999; i >= 0; i--) {
+            reference.append("Sector ").append(i).append(", Pune\n").append("SECTOR  ").append(i % 10).append(", pune\n");
+        }
+
+        AddressIndex addressIndex = AddressIndex.read(new ByteArrayInputStream(reference.toString().getBytes(StandardCharsets.UTF_8)), 64);
+
+        assertEquals(1000, addressIndex.size());
+        assertTrue(addressIndex.contains("sector 0, pune"));
+        assertTrue(addressIndex.contains("Sector 999,  Pune"));
+        assertFalse(addressIndex.contains("Sector 1000, Pune"));
+        assertTrue(addressIndex.containsPrefix("sector 99"));
+        assertFalse(addressIndex.containsPrefix("sector 1000"));
+    }
+
+    @Test
+    void referenceTooLargeForTheBuffersRejected() {
+        assertEquals(Integer.MAX_VALUE, AddressIndex.checkedBytes(Integer.MAX_VALUE));
+        assertThrows(IllegalArgumentException.class, () -> AddressIndex.checkedBytes((Integer.MAX_VALUE / 2 + 1L) * 4));
+    }
+
+    @Test
+    void modifiedReferenceFileReplacesTheIndex(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("localities.txt");
+        Files.write(file, Arrays.asList("Surat", "Vadodara"), StandardCharsets.UTF_8);
+        AddressReference addressReference = new AddressReference();
+        ReflectionTestUtils.setField(addressReference, "file", file.toString());
+        AddressValidator addressValidator = new AddressValidator();
+        try {
+            addressReference.reload();
+            assertTrue(addressValidator.isValid("surat", null));
+            assertFalse(addressValidator.isValid("Rajkot", null));
+
+            Files.write(file, Arrays.asList("Surat", "Vadodara", "Rajkot"), StandardCharsets.UTF_8);
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 1000));
+            addressReference.reloadIfModified();
+            assertTrue(addressValidator.isValid("Rajkot", null));
+        } finally {
+            ReflectionTestUtils.setField(addressReference, "file", AddressIndexTest.class.getResource(AddressReference.DEFAULT_REFERENCE).getPath());
+            addressReference.reload();
+        }
+        assertTrue(addressValidator.isValid("Gujarat", null));
+    }
+}